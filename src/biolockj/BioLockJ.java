@@ -110,17 +110,7 @@ public class BioLockJ {
 			NextflowUtil.awsSyncS3( DockerUtil.DOCKER_INPUT_DIR, false );
 			return;
 		}
-		final File inputDir = BioLockJUtil.pipelineInternalInputDir();
-		final String path =
-			Config.pipelinePath() + File.separator + inputDir.getName() + File.separator + Constants.BLJ_COMPLETE;
-		final File statusFile = new File( path );
-		if( !inputDir.isDirectory() ) inputDir.mkdirs();
-		else if( statusFile.isFile() ) return;
-
-		for( final File dir: BioLockJUtil.getInputDirs() ) {
-			info( "Copying input files from " + dir + " to " + inputDir.getAbsolutePath() );
-			FileUtils.copyDirectory( dir, inputDir );
-		}
+		StagingUtil.stageInputDirs( BioLockJUtil.getInputDirs(), BioLockJUtil.pipelineInternalInputDir() );
 	}
 
 	/**
@@ -235,9 +225,11 @@ public class BioLockJ {
 			if( DockerUtil.inAwsEnv() ) NextflowUtil.saveNextflowSuccessFlag();
 		}
 
+		DockerUtil.removeWarmContainers();
 		info( "Log Pipeline Summary..." + RETURN + SummaryUtil.getSummary() + SummaryUtil.displayAsciiArt() );
 		if( isPipelineComplete() ) System.exit( 0 );
 
+		Processor.cancelAll();
 		System.exit( 1 );
 	}
 
@@ -358,6 +358,7 @@ public class Config {
 			FileUtils.copyFileToDirectory( configFile, getPipelineDir() );
 		Log.info( Config.class, "Total # initial properties: " + props.size() );
 		unmodifiedInputProps.putAll( props );
+		SeqUtil.resetSampleIdCache();
 		TaxaUtil.initTaxaLevels();
 	}
 
@@ -398,6 +399,7 @@ public class Config {
 	public static void removeConfigProperty( final String property ) {
 		props.remove( property );
 		usedProps.remove( property );
+		SeqUtil.resetSampleIdCache();
 	}
 
 	/**
@@ -641,6 +643,7 @@ public class Config {
 		} else val = BioLockJUtil.getCollectionAsString( data );
 
 		props.setProperty( name, val );
+		SeqUtil.resetSampleIdCache();
 
 		final boolean hasVal = val != null && !val.isEmpty();
 		if( origProp == null && hasVal || origProp != null && !hasVal ||
@@ -660,6 +663,7 @@ public class Config {
 		String origProp = usedProps.get( name );
 		origProp = origProp != null && origProp.isEmpty() ? null: origProp;
 		props.setProperty( name, val );
+		SeqUtil.resetSampleIdCache();
 		final boolean hasVal = val != null && !val.isEmpty();
 		if( origProp == null && hasVal || origProp != null && !hasVal ||
 			origProp != null && hasVal && !origProp.equals( val ) ) {
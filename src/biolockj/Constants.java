@@ -70,6 +70,13 @@ public class Constants {
 	 */
 	public static final String CLASS = "class";
 
+	/**
+	 * {@link biolockj.Config} Boolean property: {@value #CLASSIFIER_BATCH_SAMPLES}<br>
+	 * If enabled, classifiers that support it load the reference database once per worker script rather than once per
+	 * sample.
+	 */
+	public static final String CLASSIFIER_BATCH_SAMPLES = "classifier.batchSamples";
+
 	/**
 	 * {@link biolockj.Config} String property: {@value #CLUSTER_HOST}<br>
 	 * The remote cluster host URL (used for ssh, scp, rsync, etc)
@@ -113,6 +120,13 @@ public class Constants {
 	 */
 	public static final String DETACH_JAVA_MODULES = "pipeline.detachJavaModules";
 
+	/**
+	 * {@link biolockj.Config} Boolean property: {@value #DETACH_JAVA_MODULES_IN_PROCESS}<br>
+	 * If {@value biolockj.Constants#TRUE}, detached Java modules in Docker run on a worker thread of the main BioLockJ
+	 * application. A new JVM is launched only if the in-process run fails.
+	 */
+	public static final String DETACH_JAVA_MODULES_IN_PROCESS = "pipeline.detachJavaModulesInProcess";
+
 	/**
 	 * {@link biolockj.Config} Boolean property: {@value #DISABLE_ADD_IMPLICIT_MODULES}<br>
 	 * If set to {@value #TRUE}, implicit modules will not be added to the pipeline.
@@ -444,6 +458,24 @@ public class Constants {
 	 */
 	public static final String PIPELINE_COPY_FILES = "pipeline.copyInput";
 
+	/**
+	 * {@link biolockj.Config} Boolean property: {@value #PIPELINE_COPY_CHECKSUM}<br>
+	 * If enabled, input files already copied are only skipped if their MD5 checksum matches the source file.
+	 */
+	public static final String PIPELINE_COPY_CHECKSUM = "pipeline.copyInputChecksum";
+
+	/**
+	 * {@link biolockj.Config} Boolean property: {@value #PIPELINE_COPY_LINK}<br>
+	 * If enabled, input files are hard-linked rather than copied if the pipeline is on the same file system.
+	 */
+	public static final String PIPELINE_COPY_LINK = "pipeline.copyInputLink";
+
+	/**
+	 * {@link biolockj.Config} Integer property: {@value #PIPELINE_COPY_THREADS}<br>
+	 * Number of input files copied in parallel, default = 4.
+	 */
+	public static final String PIPELINE_COPY_THREADS = "pipeline.copyInputThreads";
+
 	/**
 	 * {@link biolockj.Config} String property: {@value #PIPELINE_DEFAULT_PROPS}<br>
 	 * Set file path of default property file. Nested default properties are supported (so the default property file can
@@ -481,6 +513,24 @@ public class Constants {
 	 */
 	public static final String PIPELINE_ENV_LOCAL = "local";
 
+	/**
+	 * {@link biolockj.Config} Boolean property: {@value #PIPELINE_GZIP_BGZF}<br>
+	 * If enabled, gzip output written by BioLockJ uses the BGZF block format (readable by samtools and tabix).
+	 */
+	public static final String PIPELINE_GZIP_BGZF = "pipeline.gzipBgzf";
+
+	/**
+	 * {@link biolockj.Config} Integer property: {@value #PIPELINE_GZIP_THREADS}<br>
+	 * Number of threads used to compress gzip output written by BioLockJ, default = number of available processors.
+	 */
+	public static final String PIPELINE_GZIP_THREADS = "pipeline.gzipThreads";
+
+	/**
+	 * {@link biolockj.Config} Integer property: {@value #PIPELINE_MEMORY_BUDGET}<br>
+	 * Heap (in MB) large collections may use before sorted runs are spilled to temp files, default = 1/4 of max heap.
+	 */
+	public static final String PIPELINE_MEMORY_BUDGET = "pipeline.memoryBudgetMB";
+
 	/**
 	 * {@link biolockj.Config} property to assign a name to a pipeline: {@value #PIPELINE_NAME} TODO: needs to be
 	 * implemented.
@@ -655,6 +705,12 @@ public class Constants {
 	 */
 	public static final String SCRIPT_FAILURES = "Failures";
 
+	/**
+	 * {@link biolockj.Config} Integer property: {@value #SCRIPT_MAX_RETRIES}<br>
+	 * Number of times failed worker scripts are resubmitted before the module fails, default = 0.
+	 */
+	public static final String SCRIPT_MAX_RETRIES = "script.maxRetries";
+
 	/**
 	 * {@link biolockj.Config} Integer property: {@value #SCRIPT_NUM_THREADS}<br>
 	 * Used to reserve cluster resources and passed to any external application call that accepts a numThreads
@@ -674,6 +730,19 @@ public class Constants {
 	 */
 	public static final String SCRIPT_PERMISSIONS = "script.permissions";
 
+	/**
+	 * {@link biolockj.Config} Boolean property: {@value #SCRIPT_RESUME_WORKERS}<br>
+	 * If enabled, restarted pipelines keep the incomplete module and skip worker scripts that succeeded with all of
+	 * their output files intact.
+	 */
+	public static final String SCRIPT_RESUME_WORKERS = "script.resumeWorkers";
+
+	/**
+	 * {@link biolockj.Config} Integer property: {@value #SCRIPT_RETRY_DELAY}<br>
+	 * Seconds to wait before the 1st retry of failed worker scripts, doubled for each later retry, default = 60.
+	 */
+	public static final String SCRIPT_RETRY_DELAY = "script.retryDelay";
+
 	/**
 	 * File suffix appended to started script: {@value #SCRIPT_STARTED}
 	 */
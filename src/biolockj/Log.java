@@ -12,7 +12,12 @@
 package biolockj;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.log4j.*;
+import org.apache.log4j.spi.Filter;
+import org.apache.log4j.spi.LoggingEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import biolockj.util.*;
@@ -34,6 +39,29 @@ public class Log {
 
 	private Log() {}
 
+	/**
+	 * Copy the messages logged by any thread in the thread group into a separate log file, in addition to the pipeline
+	 * log file. Threads started by a thread in the group (such as thread pool workers) join the same group, so their
+	 * messages are copied too. Used to give a module run on a worker thread the same log file it would write if run in
+	 * direct mode.
+	 * 
+	 * @param group Thread group of the logging threads
+	 * @param file Log file, appended if it already exists
+	 * @throws IOException if unable to open the log file
+	 */
+	public static void addThreadLog( final ThreadGroup group, final File file ) throws IOException {
+		final FileAppender appender =
+			new FileAppender( new PatternLayout( DEFAULT_FORMAT ), file.getAbsolutePath(), true );
+		appender.setName( group.getName() );
+		appender.addFilter( new Filter() {
+			@Override
+			public int decide( final LoggingEvent event ) {
+				return group.parentOf( Thread.currentThread().getThreadGroup() ) ? Filter.NEUTRAL: Filter.DENY;
+			}
+		} );
+		LogManager.getRootLogger().addAppender( appender );
+	}
+
 	/**
 	 * Print log level DEBUG message.<br>
 	 * Do not print {@link biolockj.util.MetaUtil} debug since these will always print since the Logger isn't
@@ -214,6 +242,19 @@ public class Log {
 		return loggers.get( callingClass.getName() );
 	}
 
+	/**
+	 * Close the log file added by {@link #addThreadLog(ThreadGroup, File)} for the thread group.
+	 * 
+	 * @param group Thread group of the logging threads
+	 */
+	public static void removeThreadLog( final ThreadGroup group ) {
+		final Appender appender = LogManager.getRootLogger().getAppender( group.getName() );
+		if( appender != null ) {
+			LogManager.getRootLogger().removeAppender( appender );
+			appender.close();
+		}
+	}
+
 	/**
 	 * Print log level WARN message.
 	 * 
@@ -368,6 +409,6 @@ public class Log {
 	private static boolean enableLogs = true;
 	private static boolean gaveDebugWarning = false;
 	private static File logFile = null;
-	private static Map<String, Logger> loggers = new HashMap<>();
+	private static Map<String, Logger> loggers = new ConcurrentHashMap<>();
 	private static final List<String[]> logMesseges = new ArrayList<>();
 }
@@ -36,7 +36,9 @@ public class Pipeline {
 	 * @throws Exception if runtime errors occur
 	 */
 	public static void executeModule() throws Exception {
+		FileCatalogUtil.invalidate( exeModule().getModuleDir() );
 		ModuleUtil.markStarted( exeModule() );
+		MetricsUtil.startModule( exeModule() );
 		refreshRCacheIfNeeded();
 		exeModule().executeTask();
 		final boolean isJava = exeModule() instanceof JavaModule;
@@ -45,11 +47,15 @@ public class Pipeline {
 		final boolean runDetached = isJava && hasScripts && detachJava;
 
 		if( runDetached ) MasterConfigUtil.saveMasterConfig();
-		if( hasScripts && !DockerUtil.inAwsEnv() ) Processor.submit( (ScriptModule) exeModule() );
+		final boolean ranInProcess = runDetached && InProcessUtil.isEnabled( (JavaModule) exeModule() ) &&
+			InProcessUtil.runModule( (JavaModule) exeModule() );
+		if( hasScripts && !DockerUtil.inAwsEnv() && !ranInProcess ) Processor.submit( (ScriptModule) exeModule() );
 		if( hasScripts ) waitForModuleScripts();
+		FileCatalogUtil.invalidate( exeModule().getModuleDir() );
 		exeModule().cleanUp();
 		ValidationUtil.validateModule( exeModule() );
-		if( !runDetached ) SummaryUtil.reportSuccess( exeModule() );
+		MetricsUtil.endModule( exeModule() );
+		if( !runDetached || ranInProcess ) SummaryUtil.reportSuccess( exeModule() );
 		ModuleUtil.markComplete( exeModule() );
 	}
 
@@ -108,10 +114,12 @@ public class Pipeline {
 		try {
 			Log.info( Pipeline.class,
 				"Start Direct BioModule Execution for [ ID #" + id + " ] ---> " + module.getClass().getSimpleName() );
+			MetricsUtil.startModule( module );
 			module.runModule();
 			Log.info( Pipeline.class, "DIRECT module ID [" + id + "].runModule() complete!" );
 			module.cleanUp();
 			ValidationUtil.validateModule( module );
+			MetricsUtil.endModule( module );
 			module.moduleComplete();
 			SummaryUtil.reportSuccess( module );
 			MasterConfigUtil.saveMasterConfig();
@@ -198,7 +206,8 @@ public class Pipeline {
 	 * {@link biolockj.Config} file.<br>
 	 * <li>Reset the {@link biolockj.util.SummaryUtil} module so previous summary descriptions can be used for completed
 	 * modules
-	 * <li>Delete incomplete module contents if restarting a failed pipeline
+	 * <li>Delete incomplete module contents if restarting a failed pipeline, unless
+	 * {@value biolockj.Constants#SCRIPT_RESUME_WORKERS} is enabled to resume the completed worker scripts
 	 * {@value biolockj.module.BioModule#OUTPUT_DIR} directory<br>
 	 * <li>Call {@link #refreshRCacheIfNeeded()} to cache R fields after 1st R module runs<br>
 	 * <li>Verify dependencies with {@link biolockj.module.BioModule#checkDependencies()}<br>
@@ -212,9 +221,15 @@ public class Pipeline {
 			setExeModule( module );
 			if( ModuleUtil.isIncomplete( module ) && ( !BioLockJUtil.isDirectMode() || module instanceof Email ) ) {
 				final String path = module.getModuleDir().getAbsolutePath();
-				Log.info( Pipeline.class, "Reset incomplete module: " + path );
-				FileUtils.forceDelete( module.getModuleDir() );
-				new File( path ).mkdirs();
+				if( RetryUtil.canResume( module ) && ModuleUtil.hasScripts( module ) ) {
+					Log.info( Pipeline.class, "Resume incomplete module: " + path );
+					RetryUtil.resumeModule( (ScriptModule) module );
+				} else {
+					Log.info( Pipeline.class, "Reset incomplete module: " + path );
+					FileUtils.forceDelete( module.getModuleDir() );
+					FileCatalogUtil.invalidate( module.getModuleDir() );
+					new File( path ).mkdirs();
+				}
 			}
 
 			info( "Check dependencies for: " + module.getClass().getName() );
@@ -238,6 +253,7 @@ public class Pipeline {
 	 * begins.<br>
 	 * If successful, an empty file with {@value Constants#SCRIPT_SUCCESS} appended to the script name is created.<br>
 	 * Upon failure, an empty file with {@value Constants#SCRIPT_FAILURES} appended to the script name is created.<br>
+	 * If {@value Constants#SCRIPT_MAX_RETRIES} is set, failed scripts are resubmitted once all scripts finish.<br>
 	 * Script status is polled each minute, determining status by counting indicator files.<br>
 	 * {@link biolockj.Log} outputs the # of started, failed, and successful scripts (if any change).<br>
 	 * {@link biolockj.Log} repeats the previous message every 10 minutes if no status change is detected.<br>
@@ -273,6 +289,9 @@ public class Pipeline {
 		} else if( ++pollCount % 10 == 0 ) Log.info( Pipeline.class, logMsg );
 
 		if( numFailed > 0 ) {
+			final boolean retry = RetryUtil.isEnabled( module );
+			if( retry && numSuccess + numFailed < numScripts ) return false;
+			if( retry && RetryUtil.retryFailedWorkers( module ) ) return false;
 			final String failMsg = "SCRIPT FAILED: " + BioLockJUtil.getCollectionAsString( module.getScriptErrors() );
 			throw new Exception( failMsg );
 		}
@@ -355,7 +374,11 @@ public class Pipeline {
 		int numMinutes = 0;
 		boolean finished = false;
 		while( !finished ) {
-			finished = poll( module );
+			try {
+				finished = poll( module );
+			} finally {
+				LogUtil.syncModuleLogs( module );
+			}
 			if( !finished ) {
 				if( module.getTimeout() != null && module.getTimeout() > 0 && numMinutes++ >= module.getTimeout() )
 					throw new Exception( module.getClass().getName() + " timed out after " + numMinutes + " minutes." );
@@ -13,9 +13,12 @@ package biolockj;
 
 import java.io.*;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
 import biolockj.exception.ConfigPathException;
 import biolockj.module.ScriptModule;
 import biolockj.util.BioLockJUtil;
+import biolockj.util.MetricsUtil;
 import biolockj.util.NextflowUtil;
 
 /**
@@ -55,6 +58,194 @@ public class Processor {
 		private String label = null;
 	}
 
+	/**
+	 * This inner class holds 1 running process. Its stdout and stderr are read by dedicated pump threads so the child
+	 * never blocks on a full pipe buffer, the last {@value #MAX_OUTPUT_LINES} lines are kept in a bounded buffer, and
+	 * the exit code is available as a Future once the process ends, times out or is cancelled.
+	 */
+	public static final class Job {
+		private Job( final String[] args, final String label, final long timeout, final boolean logOutput )
+			throws IOException {
+			this.id = jobIds.incrementAndGet();
+			this.label = label;
+			this.logOutput = logOutput;
+			this.process = new ProcessBuilder( args ).start();
+			this.stdout = startPump( this.process.getInputStream(), false );
+			this.stderr = startPump( this.process.getErrorStream(), true );
+			jobRegister.put( this.id, this );
+			final Thread waiter = new Thread( () -> awaitExit( timeout ), getThreadName( "wait" ) );
+			waiter.setDaemon( true );
+			waiter.start();
+		}
+
+		/**
+		 * Cancel the job: the process is destroyed, and forcibly destroyed if still alive after
+		 * {@value #KILL_WAIT} seconds.
+		 * 
+		 * @return TRUE if the job was still running
+		 */
+		public boolean cancel() {
+			if( this.exitCode.isDone() ) return false;
+			this.cancelled = true;
+			Log.warn( Processor.class, "[ " + this.label + " ]: CANCEL" );
+			destroy();
+			return true;
+		}
+
+		/**
+		 * Get the exit code Future, completed once the process ends.
+		 * 
+		 * @return Process exit code
+		 */
+		public Future<Integer> getExitCode() {
+			return this.exitCode;
+		}
+
+		/**
+		 * Get the 1st non-empty line written to stdout.
+		 * 
+		 * @return 1st line of output, or null if none
+		 */
+		public String getFirstLine() {
+			return this.firstLine;
+		}
+
+		/**
+		 * Get the registered job ID.
+		 * 
+		 * @return Job ID
+		 */
+		public long getId() {
+			return this.id;
+		}
+
+		/**
+		 * Get the job label.
+		 * 
+		 * @return Log label
+		 */
+		public String getLabel() {
+			return this.label;
+		}
+
+		/**
+		 * Get the last {@value #MAX_OUTPUT_LINES} non-empty lines written to stdout or stderr.
+		 * 
+		 * @return Captured output lines
+		 */
+		public List<String> getOutput() {
+			synchronized( this.output ) {
+				return new ArrayList<>( this.output );
+			}
+		}
+
+		/**
+		 * Return TRUE if the job was cancelled.
+		 * 
+		 * @return TRUE if cancelled
+		 */
+		public boolean isCancelled() {
+			return this.cancelled;
+		}
+
+		/**
+		 * Return TRUE if the job was destroyed for exceeding its timeout.
+		 * 
+		 * @return TRUE if timed out
+		 */
+		public boolean isTimedOut() {
+			return this.timedOut;
+		}
+
+		/**
+		 * Wait for the process to end.
+		 * 
+		 * @return Process exit code
+		 * @throws IOException if errors occur waiting for the process
+		 * @throws InterruptedException if the thread is interrupted while waiting
+		 */
+		public int waitFor() throws IOException, InterruptedException {
+			try {
+				return this.exitCode.get();
+			} catch( final ExecutionException ex ) {
+				throw new IOException( "[ " + this.label + " ]: " + ex.getCause().getMessage(), ex.getCause() );
+			}
+		}
+
+		private void awaitExit( final long timeout ) {
+			try {
+				if( timeout > 0 && !this.process.waitFor( timeout, TimeUnit.MILLISECONDS ) ) {
+					this.timedOut = true;
+					Log.warn( Processor.class,
+						"[ " + this.label + " ]: TIMEOUT after " + timeout / 1000 + " seconds --> destroy process" );
+					destroy();
+				}
+				final int code = this.process.waitFor();
+				this.stdout.join( PUMP_WAIT );
+				this.stderr.join( PUMP_WAIT );
+				this.exitCode.complete( code );
+			} catch( final Exception ex ) {
+				this.exitCode.completeExceptionally( ex );
+			} finally {
+				jobRegister.remove( this.id );
+			}
+		}
+
+		private void capture( final String line, final boolean isErr ) {
+			if( !isErr && this.firstLine == null ) this.firstLine = line;
+			synchronized( this.output ) {
+				if( this.output.size() == MAX_OUTPUT_LINES ) this.output.removeFirst();
+				this.output.addLast( line );
+			}
+		}
+
+		private void destroy() {
+			this.process.destroy();
+			try {
+				if( !this.process.waitFor( KILL_WAIT, TimeUnit.SECONDS ) ) this.process.destroyForcibly();
+			} catch( final InterruptedException ex ) {
+				this.process.destroyForcibly();
+				Thread.currentThread().interrupt();
+			}
+		}
+
+		private String getThreadName( final String suffix ) {
+			return "Processor-" + this.id + "-" + suffix;
+		}
+
+		private Thread startPump( final InputStream in, final boolean isErr ) {
+			final Thread t = new Thread( () -> {
+				final BufferedReader reader = new BufferedReader( new InputStreamReader( in ) );
+				try {
+					for( String line = reader.readLine(); line != null; line = reader.readLine() )
+						if( !line.trim().isEmpty() ) {
+							if( this.logOutput ) Log.info( Processor.class,
+								"[ " + this.label + " ]: " + ( isErr ? "STDERR: ": "" ) + line );
+							capture( line, isErr );
+						}
+					reader.close();
+				} catch( final IOException ex ) {
+					Log.debug( Processor.class, "[ " + this.label + " ]: output stream closed --> " + ex.getMessage() );
+				}
+			}, getThreadName( isErr ? "stderr": "stdout" ) );
+			t.setDaemon( true );
+			t.start();
+			return t;
+		}
+
+		private volatile boolean cancelled = false;
+		private final CompletableFuture<Integer> exitCode = new CompletableFuture<>();
+		private volatile String firstLine = null;
+		private final long id;
+		private final String label;
+		private final boolean logOutput;
+		private final ArrayDeque<String> output = new ArrayDeque<>();
+		private final Process process;
+		private final Thread stderr;
+		private final Thread stdout;
+		private volatile boolean timedOut = false;
+	}
+
 	/**
 	 * Empty constructor to facilitate subprocess creation
 	 */
@@ -70,20 +261,43 @@ public class Processor {
 	 * @throws InterruptedException if the thread process is interrupted
 	 */
 	protected String runJob( final String[] args, final String label ) throws IOException, InterruptedException {
-		Log.info( getClass(), "[ " + label + " ]: STARTING CMD --> " + getArgsAsString( args ) );
-		final Process p = Runtime.getRuntime().exec( args );
-		final BufferedReader br = new BufferedReader( new InputStreamReader( p.getInputStream() ) );
-		String returnVal = null;
-		String s = null;
-		while( ( s = br.readLine() ) != null )
-			if( !s.trim().isEmpty() ) {
-				Log.info( getClass(), "[ " + label + " ]: " + s );
-				if( returnVal == null ) returnVal = s;
-			}
-		p.waitFor();
-		p.destroy();
+		return runJob( args, label, 0L );
+	}
+
+	/**
+	 * Execute the command args and log output with label, the process is destroyed if it runs longer than timeout. If
+	 * the calling thread is interrupted, the process is cancelled.
+	 * 
+	 * @param args Command args
+	 * @param label Log label
+	 * @param timeout Max runtime in milliseconds, or 0 for no limit
+	 * @return 1st line of process output
+	 * @throws IOException if errors occur starting or waiting for the process
+	 * @throws InterruptedException if the thread process is interrupted
+	 */
+	protected String runJob( final String[] args, final String label, final long timeout )
+		throws IOException, InterruptedException {
+		final long start = MetricsUtil.startTimer();
+		final Job job = start( args, label, timeout );
+		try {
+			final int exitCode = job.waitFor();
+			if( exitCode != 0 ) Log.warn( getClass(), "[ " + label + " ]: EXIT CODE = " + exitCode );
+		} catch( final InterruptedException ex ) {
+			job.cancel();
+			throw ex;
+		} finally {
+			MetricsUtil.stopTimer( PROCESS_TIMER, start );
+		}
 		Log.info( getClass(), "[ " + label + " ]: COMPLETE" );
-		return returnVal;
+		return job.getFirstLine();
+	}
+
+	/**
+	 * Cancel every running {@link Job}.
+	 */
+	public static void cancelAll() {
+		for( final Job job: jobRegister.values() )
+			job.cancel();
 	}
 
 	/**
@@ -109,16 +323,13 @@ public class Processor {
 			final String var = bashVar.startsWith( "$" ) || bashVar.equals( "~" ) ? bashVar: "$" + bashVar;
 			Log.info( Processor.class,
 				"[ Get Bash Var (" + bashVar + ") ]: CMD --> " + getArgsAsString( bashVarArgs( var ) ) );
-			final Process p = Runtime.getRuntime().exec( bashVarArgs( var ) );
-			final BufferedReader br = new BufferedReader( new InputStreamReader( p.getInputStream() ) );
-			String s = null;
-			while( ( s = br.readLine() ) != null )
+			final Job job = new Job( bashVarArgs( var ), "Get Bash Var (" + bashVar + ")", QUERY_TIMEOUT, false );
+			job.waitFor();
+			for( final String s: job.getOutput() )
 				if( s.startsWith( BLJ_GET_ENV_VAR_KEY ) ) {
 					bashVarValue = s.replace( BLJ_GET_ENV_VAR_KEY, "" ).trim();
 					break;
 				}
-			p.waitFor();
-			p.destroy();
 		} catch( final Exception ex ) {
 			Log.error( Processor.class, "Problem occurred looking up bash env. variable: " + bashVar, ex );
 		}
@@ -128,6 +339,15 @@ public class Processor {
 		return bashVarValue;
 	}
 
+	/**
+	 * Get the {@link Job}s still running.
+	 * 
+	 * @return Running jobs
+	 */
+	public static Collection<Job> getRunningJobs() {
+		return Collections.unmodifiableCollection( jobRegister.values() );
+	}
+
 	/**
 	 * Instantiates a new {@link biolockj.Processor}.<br>
 	 * String[] array used to control spacing between command/params.<br>
@@ -192,7 +412,22 @@ public class Processor {
 	}
 
 	/**
-	 * Run script that expects a single result
+	 * Start the command args without waiting for the process to end. Output is logged with label as it is read.
+	 * 
+	 * @param args Command args
+	 * @param label Log label
+	 * @param timeout Max runtime in milliseconds, or 0 for no limit
+	 * @return Registered Job
+	 * @throws IOException if the process cannot be started
+	 */
+	public static Job start( final String[] args, final String label, final long timeout ) throws IOException {
+		Log.info( Processor.class, "[ " + label + " ]: STARTING CMD --> " + getArgsAsString( args ) );
+		return new Job( args, label, timeout, true );
+	}
+
+	/**
+	 * Run script that expects a single result, the process is destroyed if it runs longer than
+	 * {@value #QUERY_TIMEOUT} milliseconds.
 	 * 
 	 * @param cmd Command
 	 * @param label Process Label
@@ -201,7 +436,7 @@ public class Processor {
 	 * @throws InterruptedException if the thread process is interrupted
 	 */
 	public static String submitQuery( final String cmd, final String label ) throws IOException, InterruptedException {
-		return new Processor().runJob( new String[] { cmd }, label );
+		return new Processor().runJob( new String[] { cmd }, label, QUERY_TIMEOUT );
 	}
 
 	/**
@@ -269,5 +504,12 @@ public class Processor {
 
 	private static final String BLJ_GET_ENV_VAR_KEY = "BLJ_GET_ENV_VAR";
 	private static final String BLJ_GET_ENV_VAR_SCRIPT = "get_env_var";
-	private static final Map<Thread, Long> threadRegister = new HashMap<>();
+	private static final AtomicLong jobIds = new AtomicLong( 0L );
+	private static final Map<Long, Job> jobRegister = new ConcurrentHashMap<>();
+	private static final long KILL_WAIT = 10L;
+	private static final int MAX_OUTPUT_LINES = 200;
+	private static final String PROCESS_TIMER = "processor.runJob";
+	private static final long PUMP_WAIT = 10000L;
+	private static final long QUERY_TIMEOUT = 300000L;
+	private static final Map<Thread, Long> threadRegister = new ConcurrentHashMap<>();
 }
@@ -13,9 +13,6 @@ package biolockj.module;
 
 import java.io.File;
 import java.util.*;
-import org.apache.commons.io.FileUtils;
-import org.apache.commons.io.comparator.SizeFileComparator;
-import org.apache.commons.io.filefilter.HiddenFileFilter;
 import biolockj.*;
 import biolockj.exception.ConfigFormatException;
 import biolockj.exception.ConfigNotFoundException;
@@ -210,6 +207,7 @@ public abstract class BioModuleImpl implements BioModule, Comparable<BioModule>
 	 * {@link biolockj.Config}.{@value biolockj.Constants#INPUT_DIRS}<br>
 	 * Hidden files (starting with ".") are ignored<br>
 	 * Call {@link #isValidInputModule(BioModule)} on each previous module until acceptable input files are found<br>
+	 * Directory listings are read from the {@link biolockj.util.FileCatalogUtil}<br>
 	 * 
 	 * @return Set of input files
 	 */
@@ -233,8 +231,7 @@ public abstract class BioModuleImpl implements BioModule, Comparable<BioModule>
 					Log.debug( getClass(),
 						"Found VALID input in the output dir of: " + previousModule.getClass().getName() + " --> " +
 							previousModule.getOutputDir().getAbsolutePath() );
-					moduleInputFiles.addAll( FileUtils.listFiles( previousModule.getOutputDir(),
-						HiddenFileFilter.VISIBLE, HiddenFileFilter.VISIBLE ) );
+					moduleInputFiles.addAll( FileCatalogUtil.listFiles( previousModule.getOutputDir() ) );
 					Log.debug( getClass(), "# Files found: " + moduleInputFiles.size() );
 				} else previousModule = ModuleUtil.getPreviousModule( previousModule );
 			}
@@ -261,7 +258,8 @@ public abstract class BioModuleImpl implements BioModule, Comparable<BioModule>
 		try {
 			final Map<Integer, List<File>> map = new HashMap<>();
 			final int numWorkers = ModuleUtil.getNumWorkers( this );
-			final List<File> sortedList = new SizeFileComparator().sort( new ArrayList<>( this.inputFiles ) );
+			final List<File> sortedList = new ArrayList<>( this.inputFiles );
+			sortedList.sort( Comparator.comparingLong( FileCatalogUtil::getSize ) );
 			for( int i = 0; i < sortedList.size(); i++ ) {
 				final List<File> files =
 					map.get( i % numWorkers ) == null ? new ArrayList<>(): map.get( i % numWorkers );
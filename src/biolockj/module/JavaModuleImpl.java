@@ -53,7 +53,11 @@ public abstract class JavaModuleImpl extends ScriptModuleImpl implements JavaMod
 		final boolean detached = Config.getBoolean( this, Constants.DETACH_JAVA_MODULES );
 		final boolean buildDockerScript = DockerUtil.inDockerEnv() && !BioLockJUtil.isDirectMode();
 		if( detached && ( buildDockerScript || Config.isOnCluster() ) ) super.executeTask();
-		else runModule();
+		else {
+			final long start = MetricsUtil.startTimer();
+			runModule();
+			MetricsUtil.stopTimer( RUN_MODULE_TIMER, start );
+		}
 	}
 
 	/**
@@ -155,4 +159,9 @@ public abstract class JavaModuleImpl extends ScriptModuleImpl implements JavaMod
 	 * Docker environment variable holding the Docker program switches: {@value #BLJ_OPTIONS}
 	 */
 	protected static final String BLJ_OPTIONS = "BLJ_OPTIONS";
+
+	/**
+	 * {@link biolockj.util.MetricsUtil} timer for {@link #runModule()}: {@value #RUN_MODULE_TIMER}
+	 */
+	public static final String RUN_MODULE_TIMER = "runModule";
 }
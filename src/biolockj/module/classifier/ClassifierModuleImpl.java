@@ -14,12 +14,14 @@ package biolockj.module.classifier;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
+import biolockj.Config;
 import biolockj.Constants;
 import biolockj.Log;
 import biolockj.exception.*;
 import biolockj.module.*;
 import biolockj.module.implicit.parser.ParserModule;
 import biolockj.util.ModuleUtil;
+import biolockj.util.SeqUtil;
 import biolockj.util.SummaryUtil;
 
 /**
@@ -73,6 +75,90 @@ public abstract class ClassifierModuleImpl extends SeqModuleImpl implements Clas
 		return super.getSummary() + SummaryUtil.getInputSummary( this );
 	}
 
+	/**
+	 * Check if {@link biolockj.Config}.{@value biolockj.Constants#CLASSIFIER_BATCH_SAMPLES} is enabled so each worker
+	 * script loads the classifier database once for all of its samples.
+	 * 
+	 * @return TRUE if samples are classified in batches
+	 * @throws ConfigFormatException if the property is not a boolean
+	 */
+	protected boolean batchSamples() throws ConfigFormatException {
+		return Config.getBoolean( this, Constants.CLASSIFIER_BATCH_SAMPLES );
+	}
+
+	/**
+	 * Build the bash script lines to classify a batch of samples with 1 classifier call. Sequence headers are tagged
+	 * with the Sample ID and concatenated into 1 temp file, then the classifier output is split back into the
+	 * standard per-sample output files by the tag at the start of each line.
+	 * 
+	 * @param batchNum Batch number
+	 * @param files Sequence files in the batch
+	 * @param classifyLine Bash script line that classifies the batch, with placeholders {@value #BATCH_INPUT} and
+	 * {@value #BATCH_OUTPUT}
+	 * @return Bash script lines
+	 * @throws Exception if errors occur building the file paths
+	 */
+	protected List<String> getBatchLines( final int batchNum, final List<File> files, final String classifyLine )
+		throws Exception {
+		final String prefix = getTempDir().getAbsolutePath() + File.separator + BATCH_PREFIX + batchNum;
+		final String batchInput = prefix + "." + SeqUtil.getSeqType();
+		final String batchOutput = prefix + Constants.PROCESSED;
+		final List<String> lines = new ArrayList<>();
+		lines.add( "rm -f " + batchInput );
+		for( final File file: files ) {
+			final String sampleId = SeqUtil.getSampleId( file.getName() );
+			lines.add( FUNCTION_TAG_SEQS + " " + batchInput + " " + sampleId + " " + file.getAbsolutePath() + " " +
+				getOutputDir().getAbsolutePath() + File.separator + sampleId + Constants.PROCESSED );
+		}
+		lines.add( classifyLine.replace( BATCH_INPUT, batchInput ).replace( BATCH_OUTPUT, batchOutput ) );
+		lines.add( FUNCTION_SPLIT_BATCH + " " + batchOutput + " " + getOutputDir().getAbsolutePath() + " " +
+			Constants.PROCESSED );
+		return lines;
+	}
+
+	/**
+	 * Build the bash functions used by {@link #getBatchLines(int, List, String)}:
+	 * <ul>
+	 * <li>{@value #FUNCTION_TAG_SEQS}: $1 batch file, $2 Sample ID, $3 sequence file, $4 sample output file. Gzipped
+	 * sequence files are decompressed, other files are read as is.
+	 * <li>{@value #FUNCTION_SPLIT_BATCH}: $1 batch output, $2 output directory, $3 output file suffix
+	 * </ul>
+	 * 
+	 * @return Bash script lines
+	 * @throws ConfigException if the sequence type is undefined or the gzip executable property is invalid
+	 */
+	protected List<String> getBatchFunctions() throws ConfigException {
+		final String header = SeqUtil.getSeqType().equals( Constants.FASTQ ) ? "NR % 4 == 1": "/^>/";
+		final List<String> lines = new ArrayList<>();
+		lines.add( "function " + FUNCTION_TAG_SEQS + "() {" );
+		lines.add( ": > $4" );
+		lines.add( Config.getExe( this, Constants.EXE_GZIP ) + " -cdf $3 | awk -v id=$2 -v tag=\"" + BATCH_TAG + "\" '" +
+			header + " { print substr( $0, 1, 1 ) id tag substr( $0, 2 ); next } { print }' >> $1" );
+		lines.add( "}" + Constants.RETURN );
+		lines.add( "function " + FUNCTION_SPLIT_BATCH + "() {" );
+		lines.add( "awk -v dir=$2 -v ext=$3 -v tag=\"" + BATCH_TAG + "\" '( i = index( $0, tag ) ) > 0 " +
+			"{ id = substr( $0, 1, i - 1 ); if( id != prev ) { close( out ); out = dir \"/\" id ext; prev = id } " +
+			"print substr( $0, i + length( tag ) ) >> out }' $1" );
+		lines.add( "}" + Constants.RETURN );
+		return lines;
+	}
+
+	/**
+	 * Group the input files into 1 batch per worker script if {@link #batchSamples()}, otherwise 1 batch per file.
+	 * 
+	 * @param files Sequence files
+	 * @return Batches of sequence files
+	 * @throws ConfigException if errors occur reading the worker properties
+	 */
+	protected List<List<File>> getSampleBatches( final List<File> files ) throws ConfigException {
+		final List<List<File>> batches = new ArrayList<>();
+		final int size = batchSamples() ?
+			(int) Math.ceil( (double) files.size() / ModuleUtil.getNumWorkers( this ) ): 1;
+		for( int i = 0; i < files.size(); i += size )
+			batches.add( new ArrayList<>( files.subList( i, Math.min( i + size, files.size() ) ) ) );
+		return batches;
+	}
+
 	/**
 	 * This method returns the classifier class name in lower case, after "classifier" is removed.<br>
 	 * The remaining text should uniquely identify the name of the program.<br>
@@ -128,4 +214,29 @@ public abstract class ClassifierModuleImpl extends SeqModuleImpl implements Clas
 	}
 
 	private File dbCache = null;
+
+	/**
+	 * Placeholder for the batch input file in the classify line passed to {@link #getBatchLines(int, List, String)}:
+	 * {@value #BATCH_INPUT}
+	 */
+	protected static final String BATCH_INPUT = "{batchInput}";
+
+	/**
+	 * Placeholder for the batch output file in the classify line passed to {@link #getBatchLines(int, List, String)}:
+	 * {@value #BATCH_OUTPUT}
+	 */
+	protected static final String BATCH_OUTPUT = "{batchOutput}";
+
+	/**
+	 * Name of the bash function used to split batch output into per-sample files: {@value #FUNCTION_SPLIT_BATCH}
+	 */
+	protected static final String FUNCTION_SPLIT_BATCH = "splitBatch";
+
+	/**
+	 * Name of the bash function used to tag sequence headers with the Sample ID: {@value #FUNCTION_TAG_SEQS}
+	 */
+	protected static final String FUNCTION_TAG_SEQS = "tagSeqs";
+
+	private static final String BATCH_PREFIX = "batch";
+	private static final String BATCH_TAG = "__blj__";
 }
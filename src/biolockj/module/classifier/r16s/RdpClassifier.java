@@ -32,10 +32,20 @@ public class RdpClassifier extends ClassifierModuleImpl {
 	 * <p>
 	 * Example line: "java -jar $RDP_PATH t /database/silva128/rRNAClassifier.properties -o
 	 * ./output/sample42.fasta_reported.tsv ./input/sample42.fasta"
+	 * <p>
+	 * If {@link biolockj.Config}.{@value biolockj.Constants#CLASSIFIER_BATCH_SAMPLES} is enabled, the inner list
+	 * contains the lines to classify all samples of 1 worker script with a single RDP JVM.
 	 */
 	@Override
 	public List<List<String>> buildScript( final List<File> files ) throws Exception {
 		final List<List<String>> data = new ArrayList<>();
+		if( batchSamples() ) {
+			int batchNum = 0;
+			for( final List<File> batch: getSampleBatches( files ) )
+				data.add( getBatchLines( batchNum++, batch, FUNCTION_RDP + " " + BATCH_INPUT + " " + BATCH_OUTPUT ) );
+			return data;
+		}
+
 		for( final File file: files ) {
 			final String outputFile = getOutputDir().getAbsolutePath() + File.separator +
 				SeqUtil.getSampleId( file.getName() ) + Constants.PROCESSED;
@@ -99,11 +109,13 @@ public class RdpClassifier extends ClassifierModuleImpl {
 	}
 
 	/**
-	 * This method generates the required bash functions: {@value #FUNCTION_RDP}
+	 * This method generates the required bash functions: {@value #FUNCTION_RDP}, and the batch functions if
+	 * {@link biolockj.Config}.{@value biolockj.Constants#CLASSIFIER_BATCH_SAMPLES} is enabled.
 	 */
 	@Override
 	public List<String> getWorkerScriptFunctions() throws Exception {
 		final List<String> lines = super.getWorkerScriptFunctions();
+		if( batchSamples() ) lines.addAll( getBatchFunctions() );
 		lines.add( "function " + FUNCTION_RDP + "() {" );
 		lines.add( Config.getExe( this, Constants.EXE_JAVA ) + " " + getJavaParams() + Constants.JAR_ARG + " " +
 			getJar() + " " + getRuntimeParams( getClassifierParams(), null ) + getDbParam() + OUTPUT_PARAM + " $2 $1" );
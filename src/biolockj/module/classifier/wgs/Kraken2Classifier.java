@@ -143,6 +143,7 @@ public class Kraken2Classifier extends ClassifierModuleImpl {
 			if( params.contains( FASTQ_PARAM ) ) classifierParams.remove( FASTQ_PARAM );
 			if( params.contains( USE_NAMES_PARAM ) ) classifierParams.remove( USE_NAMES_PARAM );
 			if( params.contains( USE_MPA_PARAM ) ) classifierParams.remove( USE_MPA_PARAM );
+			if( params.contains( MEMORY_MAPPING_PARAM ) ) classifierParams.remove( MEMORY_MAPPING_PARAM );
 			if( params.indexOf( NUM_THREADS_PARAM ) > -1 ) throw new Exception(
 				"Invalid classifier option (" + NUM_THREADS_PARAM + ") found in property (" + getExeParamName() +
 					"). BioLockJ derives this value from property: " + Constants.SCRIPT_NUM_THREADS );
@@ -165,6 +166,9 @@ public class Kraken2Classifier extends ClassifierModuleImpl {
 
 			this.defaultSwitches = getRuntimeParams( classifierParams, NUM_THREADS_PARAM ) + DB_PARAM +
 				getKrakenDB().getAbsolutePath() + " " + USE_NAMES_PARAM + USE_MPA_PARAM;
+
+			// Kraken2 output is per sample, so batch mode maps the DB instead of loading it for each sample
+			if( batchSamples() ) this.defaultSwitches += MEMORY_MAPPING_PARAM;
 		}
 
 		return this.defaultSwitches;
@@ -211,6 +215,7 @@ public class Kraken2Classifier extends ClassifierModuleImpl {
 	private static final String FASTA_PARAM = "--fasta-input ";
 	private static final String FASTQ_PARAM = "--fastq-input ";
 	private static final String GZIP_PARAM = "--gzip-compressed ";
+	private static final String MEMORY_MAPPING_PARAM = "--memory-mapping ";
 	private static final String NUM_THREADS_PARAM = "--threads";
 	private static final String OUTPUT_PARAM = "--output ";
 	private static final String PAIRED_PARAM = "--paired ";
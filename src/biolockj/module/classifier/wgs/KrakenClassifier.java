@@ -15,6 +15,7 @@ import java.io.File;
 import java.util.*;
 import biolockj.Config;
 import biolockj.Constants;
+import biolockj.Log;
 import biolockj.exception.*;
 import biolockj.module.classifier.ClassifierModuleImpl;
 import biolockj.util.*;
@@ -149,6 +150,12 @@ public class KrakenClassifier extends ClassifierModuleImpl {
 
 			if( params.indexOf( FASTA_PARAM ) > -1 ) classifierParams.remove( FASTA_PARAM );
 			if( params.indexOf( FASTQ_PARAM ) > -1 ) classifierParams.remove( FASTQ_PARAM );
+			if( batchSamples() && params.indexOf( PRELOAD_PARAM ) > -1 ) {
+				Log.warn( getClass(), "Ignoring classifier option (" + PRELOAD_PARAM + ") found in property (" +
+					getExeParamName() + ") since " + Constants.CLASSIFIER_BATCH_SAMPLES +
+					" shares the memory-mapped DB between samples" );
+				classifierParams.remove( PRELOAD_PARAM );
+			}
 			if( params.indexOf( NUM_THREADS_PARAM ) > -1 ) throw new Exception(
 				"Invalid classifier option (" + NUM_THREADS_PARAM + ") found in property (" + getExeParamName() +
 					"). BioLockJ derives this value from property: " + Constants.SCRIPT_NUM_THREADS );
@@ -239,4 +246,5 @@ public class KrakenClassifier extends ClassifierModuleImpl {
 	private static final String NUM_THREADS_PARAM = "--threads";
 	private static final String OUTPUT_PARAM = "--output ";
 	private static final String PAIRED_PARAM = "--paired ";
+	private static final String PRELOAD_PARAM = "--preload";
 }
@@ -19,6 +19,9 @@ import biolockj.exception.SequnceFormatException;
 import biolockj.module.JavaModuleImpl;
 import biolockj.module.SeqModule;
 import biolockj.util.*;
+import biolockj.util.SeqRecordUtil.SeqRecord;
+import biolockj.util.SeqRecordUtil.SeqRecordReader;
+import biolockj.util.SeqRecordUtil.SeqRecordWriter;
 
 /**
  * This BioModule splits multiplexed data into a separate file or pair of files (for paired reads) for each sample. The
@@ -186,43 +189,35 @@ public class Demultiplexer extends JavaModuleImpl implements SeqModule {
 			long headerRvBarcodes = 0L;
 			long seqFwBarcodes = 0L;
 			long seqRvBarcodes = 0L;
-			final BufferedReader reader = BioLockJUtil.getFileReader( file );
+			final SeqRecordReader reader = new SeqRecordReader( file );
+			SeqRecordWriter writer = null;
 			try {
-				final List<String> seqLines = new ArrayList<>();
-				final List<String> read = new ArrayList<>();
+				final SeqRecord record = new SeqRecord();
+				final long readsPerFile = NUM_LINES_TEMP_FILE / SeqUtil.getNumLinesPerRead();
+				long numSplitReads = 0L;
 				int i = 0;
-				for( String line = reader.readLine(); line != null; line = reader.readLine() ) {
-					read.add( line );
-
-					if( useBarcodes ) {
-						if( testFile == null && read.size() == 1 ) {
-							numReads++;
-							final int testBarcodes = hasBarcode( line );
-							if( testBarcodes == 1 ) headerFwBarcodes++;
-							else if( testBarcodes == 2 ) headerRvBarcodes++;
-						}
-
-						if( testFile == null && read.size() == 2 ) {
-							final int testBarcodes = hasBarcode( line );
-							if( testBarcodes == 1 ) seqFwBarcodes++;
-							else if( testBarcodes == 2 ) seqRvBarcodes++;
-						}
+				while( reader.next( record ) ) {
+					if( useBarcodes && testFile == null ) {
+						numReads++;
+						int testBarcodes = hasBarcode( record.getHeader() );
+						if( testBarcodes == 1 ) headerFwBarcodes++;
+						else if( testBarcodes == 2 ) headerRvBarcodes++;
+
+						testBarcodes = hasBarcode( record.getSeq() );
+						if( testBarcodes == 1 ) seqFwBarcodes++;
+						else if( testBarcodes == 2 ) seqRvBarcodes++;
 					}
 
-					if( read.size() == SeqUtil.getNumLinesPerRead() ) {
-						seqLines.addAll( read );
-						read.clear();
+					if( numSplitReads++ % readsPerFile == 0 ) {
+						if( writer != null ) writer.close();
+						writer = new SeqRecordWriter( new File( getSplitFileName( file.getName(), i++ ) ), true );
 					}
 
-					if( seqLines.size() >= NUM_LINES_TEMP_FILE ) {
-						writeSample( seqLines, getSplitFileName( file.getName(), i++ ) );
-						seqLines.clear();
-					}
+					writer.write( record );
 				}
-
-				if( !seqLines.isEmpty() ) writeSample( seqLines, getSplitFileName( file.getName(), i++ ) );
 			} finally {
-				if( reader != null ) reader.close();
+				reader.close();
+				if( writer != null ) writer.close();
 			}
 
 			Log.info( getClass(), "Done splitting file: " + file.getAbsolutePath() );
@@ -253,43 +248,40 @@ public class Demultiplexer extends JavaModuleImpl implements SeqModule {
 
 		for( final File file: getSplitDir().listFiles() ) {
 			Log.info( getClass(), "Demultiplexing file " + file.getAbsolutePath() );
-			final List<String> seqLines = new ArrayList<>();
-			final Map<String, List<String>> output = new HashMap<>();
-			final BufferedReader reader = BioLockJUtil.getFileReader( file );
+			final Map<String, ByteArrayOutputStream> output = new HashMap<>();
+			final SeqRecordReader reader = new SeqRecordReader( file );
 			try {
-				for( String line = reader.readLine(); line != null; line = reader.readLine() ) {
-					seqLines.add( line );
-					if( seqLines.size() == SeqUtil.getNumLinesPerRead() ) {
-						final String header = SeqUtil.getHeader( seqLines.get( 0 ) );
-						final String sampleId = getSampleId( header, validHeaders );
-
-						String otu = null;
-
-						if( sampleId == null ) otu = getNoMatchFileName( file.getName(), seqLines.get( 0 ) );
-						else {
-							otu = getOutputFileName( sampleId, file.getName(), seqLines.get( 0 ) );
-							incrementCounts( file.getName(), seqLines.get( 0 ) );
-
-							if( doPrint ) {
-								doPrint = false;
-								Log.info( getClass(), "EXAMPLE Demultiplexed Sample ID: " + sampleId );
-								Log.info( getClass(), "EXAMPLE Demultiplexed sequence file: " + otu );
-							}
+				final SeqRecord record = new SeqRecord();
+				while( reader.next( record ) ) {
+					final String headerLine = record.getHeader();
+					final String header = SeqUtil.getHeader( headerLine );
+					final String sampleId = getSampleId( header, validHeaders );
+
+					String otu = null;
+
+					if( sampleId == null ) otu = getNoMatchFileName( file.getName(), headerLine );
+					else {
+						otu = getOutputFileName( sampleId, file.getName(), headerLine );
+						incrementCounts( file.getName(), headerLine );
+
+						if( doPrint ) {
+							doPrint = false;
+							Log.info( getClass(), "EXAMPLE Demultiplexed Sample ID: " + sampleId );
+							Log.info( getClass(), "EXAMPLE Demultiplexed sequence file: " + otu );
 						}
+					}
 
-						if( !output.keySet().contains( otu ) ) output.put( otu, new ArrayList<>() );
+					if( !output.keySet().contains( otu ) ) output.put( otu, new ByteArrayOutputStream() );
 
-						output.get( otu ).addAll( seqLines );
-						seqLines.clear();
-					}
+					record.write( output.get( otu ) );
 				}
 
 				for( final String outName: output.keySet() ) {
-					Log.debug( getClass(), outName + " adding # lines = " + output.get( outName ).size() );
+					Log.debug( getClass(), outName + " adding # bytes = " + output.get( outName ).size() );
 					writeSample( output.get( outName ), outName );
 				}
 			} finally {
-				if( reader != null ) reader.close();
+				reader.close();
 			}
 		}
 	}
@@ -315,29 +307,23 @@ public class Demultiplexer extends JavaModuleImpl implements SeqModule {
 
 			Log.info( getClass(), "Processing split file for FW headers: " + file.getAbsolutePath() );
 
-			final List<String> seqLines = new ArrayList<>();
-			final BufferedReader reader = BioLockJUtil.getFileReader( file );
+			final SeqRecordReader reader = new SeqRecordReader( file );
 			try {
-				for( String line = reader.readLine(); line != null; line = reader.readLine() ) {
-					seqLines.add( line );
-					if( seqLines.size() == SeqUtil.getNumLinesPerRead() ) {
-						// if not combined must be a file of only forward reads due to continue above
-						if( !isCombined || seqLines.get( 0 ).contains( SeqUtil.ILLUMINA_FW_READ_IND ) ) {
-							this.numTotalFwReads++;
-							final String sampleId = DemuxUtil.getSampleId( seqLines );
-							if( sampleId != null ) {
-								if( validHeaders.get( sampleId ) == null )
-									validHeaders.put( sampleId, new HashSet<>() );
-								final String header = SeqUtil.getHeader( seqLines.get( 0 ) );
-								validHeaders.get( sampleId ).add( header );
-							}
+				final SeqRecord record = new SeqRecord();
+				while( reader.next( record ) ) {
+					final String headerLine = record.getHeader();
+					// if not combined must be a file of only forward reads due to continue above
+					if( !isCombined || headerLine.contains( SeqUtil.ILLUMINA_FW_READ_IND ) ) {
+						this.numTotalFwReads++;
+						final String sampleId = DemuxUtil.getSampleId( record );
+						if( sampleId != null ) {
+							if( validHeaders.get( sampleId ) == null ) validHeaders.put( sampleId, new HashSet<>() );
+							validHeaders.get( sampleId ).add( SeqUtil.getHeader( headerLine ) );
 						}
-
-						seqLines.clear();
 					}
 				}
 			} finally {
-				if( reader != null ) reader.close();
+				reader.close();
 			}
 
 		}
@@ -375,28 +361,24 @@ public class Demultiplexer extends JavaModuleImpl implements SeqModule {
 
 			Log.info( getClass(), "Processing split file for RV headers: " + file.getAbsolutePath() );
 
-			final List<String> seqLines = new ArrayList<>();
-			final BufferedReader reader = BioLockJUtil.getFileReader( file );
+			final SeqRecordReader reader = new SeqRecordReader( file );
 			try {
-				for( String line = reader.readLine(); line != null; line = reader.readLine() ) {
-					seqLines.add( line );
-					if( seqLines.size() == SeqUtil.getNumLinesPerRead() ) {
-						// if not combined must be a file of only reverse reads due to continue above
-						if( !isForwardRead( file.getName(), seqLines.get( 0 ) ) ) {
-							final String header = SeqUtil.getHeader( seqLines.get( 0 ) );
-							this.numTotalRvReads++;
-
-							for( final String sampleId: validFwHeaders.keySet() )
-								if( validFwHeaders.get( sampleId ).contains( header ) ) {
-									if( validHeaders.get( sampleId ) == null )
-										validHeaders.put( sampleId, new HashSet<>() );
-
-									validHeaders.get( sampleId ).add( header );
-									break;
-								}
-						}
+				final SeqRecord record = new SeqRecord();
+				while( reader.next( record ) ) {
+					final String headerLine = record.getHeader();
+					// if not combined must be a file of only reverse reads due to continue above
+					if( !isForwardRead( file.getName(), headerLine ) ) {
+						final String header = SeqUtil.getHeader( headerLine );
+						this.numTotalRvReads++;
+
+						for( final String sampleId: validFwHeaders.keySet() )
+							if( validFwHeaders.get( sampleId ).contains( header ) ) {
+								if( validHeaders.get( sampleId ) == null )
+									validHeaders.put( sampleId, new HashSet<>() );
 
-						seqLines.clear();
+								validHeaders.get( sampleId ).add( header );
+								break;
+							}
 					}
 				}
 			} finally {
@@ -526,13 +508,23 @@ public class Demultiplexer extends JavaModuleImpl implements SeqModule {
 	}
 
 	private int hasBarcode( final String line ) throws Exception {
-		for( final String code: MetaUtil.getFieldValues( Config.requireString( this, MetaUtil.META_BARCODE_COLUMN ),
-			true ) )
+		if( this.barcodes == null ) this.barcodes = new ArrayList<>(
+			MetaUtil.getFieldValues( Config.requireString( this, MetaUtil.META_BARCODE_COLUMN ), true ) );
+		for( final String code: this.barcodes )
 			if( line.contains( code ) ) return 1;
-			else if( line.contains( SeqUtil.reverseComplement( code ) ) ) return 2;
+			else if( line.contains( getReverseComplement( code ) ) ) return 2;
 		return 0;
 	}
 
+	private String getReverseComplement( final String code ) throws Exception {
+		String rc = this.rcBarcodes.get( code );
+		if( rc == null ) {
+			rc = SeqUtil.reverseComplement( code );
+			this.rcBarcodes.put( code, rc );
+		}
+		return rc;
+	}
+
 	private void incrementCounts( final String name, final String header ) throws Exception {
 		if( isForwardRead( name, header ) ) this.numValidFwReads++;
 		else this.numValidRvReads++;
@@ -586,21 +578,23 @@ public class Demultiplexer extends JavaModuleImpl implements SeqModule {
 		return null;
 	}
 
-	private static void writeSample( final List<String> lines, final String fileName ) throws Exception {
-		final File outFile = new File( fileName );
-		final boolean exists = outFile.isFile();
-		final BufferedWriter writer = new BufferedWriter( new FileWriter( outFile, exists ) );
-		for( final String line: lines )
-			writer.write( line + RETURN );
-		writer.close();
+	private static void writeSample( final ByteArrayOutputStream records, final String fileName ) throws Exception {
+		final OutputStream out = new FileOutputStream( new File( fileName ), true );
+		try {
+			records.writeTo( out );
+		} finally {
+			out.close();
+		}
 	}
 
+	private List<String> barcodes = null;
 	private long numTotalFwReads = 0L;
 	private long numTotalRvReads = 0L;
 
 	private long numValidFwReads = 0L;
 	private long numValidRvReads = 0L;
 
+	private final Map<String, String> rcBarcodes = new HashMap<>();
 	private String summary = "";
 
 	/**
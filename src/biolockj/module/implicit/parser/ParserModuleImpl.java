@@ -28,6 +28,7 @@ public abstract class ParserModuleImpl extends JavaModuleImpl implements ParserM
 
 	@Override
 	public void addOtuNode( final OtuNode node ) throws Exception {
+		MetricsUtil.addCount( MetricsUtil.RECORDS, 1 );
 		if( isValid( node ) ) {
 			final ParsedSample sample = getParsedSample( node.getSampleId() );
 			if( sample == null ) addParsedSample( new ParsedSample( node ) );
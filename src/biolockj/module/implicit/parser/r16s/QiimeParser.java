@@ -18,9 +18,11 @@ import biolockj.Constants;
 import biolockj.Log;
 import biolockj.module.implicit.parser.ParserModuleImpl;
 import biolockj.node.OtuNode;
+import biolockj.node.ParsedSample;
 import biolockj.node.r16s.QiimeNode;
 import biolockj.util.BioLockJUtil;
 import biolockj.util.MetaUtil;
+import biolockj.util.MetricsUtil;
 
 /**
  * This BioModules parses QiimeClassifier output reports to build standard OTU abundance tables.
@@ -62,6 +64,11 @@ public class QiimeParser extends ParserModuleImpl {
 	 * column header. For each line, build a {@link biolockj.node.r16s.QiimeNode} for each sample with a positive OTU
 	 * count.
 	 * <p>
+	 * QIIME OTU tables are sparse, so each line is scanned in place and zero count cells are skipped without creating
+	 * any objects. The taxonomy of each line is parsed only once, the same {@link biolockj.node.r16s.QiimeNode} is
+	 * reused for every positive count in the row and added directly to the {@link biolockj.node.ParsedSample} cached
+	 * for the column.
+	 * <p>
 	 * {@link biolockj.node.r16s.QiimeNode}s will be created using QiimeID (not SampleID) in order to match the metadata
 	 * file #SampleID
 	 * <p>
@@ -76,25 +83,48 @@ public class QiimeParser extends ParserModuleImpl {
 	public void parseSamples() throws Exception {
 		final File file = getInputFiles().get( 0 );
 		Log.info( getClass(), "Parse file: " + file.getName() );
+		final ParsedSample[] columnSamples = new ParsedSample[ this.orderedQiimeIDs.size() ];
 		final BufferedReader reader = BioLockJUtil.getFileReader( file );
+		long numNodes = 0L;
 		try {
 			for( String line = reader.readLine(); line != null; line = reader.readLine() ) {
 				if( line.startsWith( "#" ) ) continue;
-
-				final StringTokenizer st = new StringTokenizer( line, TAB_DELIM );
+				int start = line.indexOf( TAB_DELIM );
+				if( start < 0 ) continue;
+				final String taxas = line.substring( 0, start++ );
+				QiimeNode node = null;
 				int index = 0;
-				final String taxas = st.nextToken();
+				while( start <= line.length() ) {
+					int end = line.indexOf( TAB_DELIM, start );
+					if( end < 0 ) end = line.length();
+					final long count = parseCount( line, start, end );
+					if( count > 0 ) {
+						numNodes++;
+						final String id = this.orderedQiimeIDs.get( index );
+						if( node == null ) {
+							node = new QiimeNode( id, taxas, (int) count );
+							if( !isValid( node ) ) break;
+						} else {
+							node.setSampleId( id );
+							node.setCount( count );
+						}
 
-				while( st.hasMoreTokens() ) {
-					final Integer count = Double.valueOf( st.nextToken() ).intValue();
-					final String id = orderedQiimeIDs.get( index++ );
-					addOtuNode( new QiimeNode( id, taxas, count ) );
+						if( columnSamples[ index ] == null ) {
+							columnSamples[ index ] = getParsedSample( id );
+							if( columnSamples[ index ] == null ) {
+								columnSamples[ index ] = new ParsedSample( node );
+								addParsedSample( columnSamples[ index ] );
+							} else columnSamples[ index ].addNode( node );
+						} else columnSamples[ index ].addNode( node );
+					}
+					index++;
+					start = end + 1;
 				}
 			}
 		} finally {
+			MetricsUtil.addCount( MetricsUtil.RECORDS, numNodes );
 			if( reader != null ) reader.close();
 		}
-
 	}
 
 	/**
@@ -175,8 +205,8 @@ public class QiimeParser extends ParserModuleImpl {
 			} else {
 				final String sampleId = getSampleIdFromMappingFile( qiimeId, fileNameCol );
 				Log.info( getClass(), "[Id-Map Entry] QIIME_ID(" + qiimeId + ")<=>SAMPLE_ID(" + sampleId + ")" );
-				qiimeIdToSampleIdMap.put( qiimeId, sampleId );
-				sampleIdToQiimeIdMap.put( sampleId, qiimeId );
+				this.qiimeIdToSampleIdMap.put( qiimeId, sampleId );
+				this.sampleIdToQiimeIdMap.put( sampleId, qiimeId );
 			}
 		}
 
@@ -193,6 +223,7 @@ public class QiimeParser extends ParserModuleImpl {
 	protected void setOrderedQiimeIDs( final File file ) throws Exception {
 		Log.info( getClass(),
 			"Configure ordered list of Qiime IDs based on the 1st taxonomy report: " + file.getAbsolutePath() );
+		this.orderedQiimeIDs.clear();
 		final BufferedReader reader = BioLockJUtil.getFileReader( file );
 
 		final String commenLine = reader.readLine(); // skip first line (its a comment)
@@ -207,12 +238,13 @@ public class QiimeParser extends ParserModuleImpl {
 		for( final String qiimeId: parts )
 			if( qiimeId.trim().length() > 0 ) {
 				Log.debug( getClass(), "Add QiimeID: " + qiimeId );
-				orderedQiimeIDs.add( qiimeId );
+				this.orderedQiimeIDs.add( qiimeId );
 			}
 
 		reader.close();
 
-		Log.info( getClass(), "List QIIME IDs( total#" + orderedQiimeIDs.size() + " ) = " + orderedQiimeIDs );
+		Log.info( getClass(),
+			"List QIIME IDs( total#" + this.orderedQiimeIDs.size() + " ) = " + this.orderedQiimeIDs );
 	}
 
 	/**
@@ -223,7 +255,7 @@ public class QiimeParser extends ParserModuleImpl {
 	 * @return formatted Sample ID
 	 * @throws Exception If any QIIME ID does not have a corresponding Sample ID
 	 */
-	protected static String getOtuTableRowId( final String id ) throws Exception {
+	protected String getOtuTableRowId( final String id ) throws Exception {
 		final StringBuffer sb = new StringBuffer();
 		final String valWithoutQuotes = id.replaceAll( "'", "" ).replaceAll( "\"", "" );
 		final StringTokenizer st = new StringTokenizer( valWithoutQuotes, TAB_DELIM );
@@ -246,8 +278,8 @@ public class QiimeParser extends ParserModuleImpl {
 	 * @return sampleId Original sample ID from metadata file
 	 * @throws Exception if the qiimeId is not found in {@link #qiimeIdToSampleIdMap}
 	 */
-	protected static String getSampleId( final String qiimeId ) throws Exception {
-		final String sampleId = qiimeIdToSampleIdMap.get( qiimeId );
+	protected String getSampleId( final String qiimeId ) throws Exception {
+		final String sampleId = this.qiimeIdToSampleIdMap.get( qiimeId );
 		if( sampleId == null ) throw new Exception( "QIIME ID: " + qiimeId + " not cached in qiimeIdToSampleIdMap" );
 		return sampleId;
 	}
@@ -270,21 +302,46 @@ public class QiimeParser extends ParserModuleImpl {
 		return qiimeId;
 	}
 
+	/**
+	 * Parse the count stored in line between the start and end index without creating any objects. QIIME reports
+	 * counts as decimal values (such as 419.0) so any fractional part is truncated, as done by
+	 * {@link Double#intValue()}. Values in scientific notation are passed to {@link Double#parseDouble(String)}.
+	 *
+	 * @param line OTU table line
+	 * @param start Index of the first character of the count
+	 * @param end Index after the last character of the count
+	 * @return count
+	 */
+	protected static long parseCount( final String line, final int start, final int end ) {
+		long count = 0L;
+		for( int i = start; i < end; i++ ) {
+			final char c = line.charAt( i );
+			if( c >= '0' && c <= '9' ) count = count * 10 + c - '0';
+			else if( c == '.' ) {
+				for( int j = i + 1; j < end; j++ )
+					if( line.charAt( j ) < '0' || line.charAt( j ) > '9' )
+						return (long) Double.parseDouble( line.substring( start, end ) );
+				return count;
+			} else return (long) Double.parseDouble( line.substring( start, end ).trim() );
+		}
+		return count;
+	}
+
 	/**
 	 * Qiime IDs are listed in the same order in each taxonomy level report. The values are cached here after being read
 	 * from the first report.
 	 */
-	protected static final List<String> orderedQiimeIDs = new ArrayList<>();
+	protected final List<String> orderedQiimeIDs = new ArrayList<>();
 
 	/**
 	 * Convenience map, to convert Qiime ID to Sample ID
 	 */
-	protected static final Map<String, String> qiimeIdToSampleIdMap = new HashMap<>();
+	protected final Map<String, String> qiimeIdToSampleIdMap = new HashMap<>();
 
 	/**
 	 * Convenience map, to convert Sample ID to Qiime ID
 	 */
-	protected static final Map<String, String> sampleIdToQiimeIdMap = new HashMap<>();
+	protected final Map<String, String> sampleIdToQiimeIdMap = new HashMap<>();
 
 	private static final String OTU_ID = "#OTU ID";
 }
@@ -9,6 +9,7 @@ import biolockj.module.JavaModuleImpl;
 import biolockj.module.classifier.ClassifierModule;
 import biolockj.module.classifier.wgs.Humann2Classifier;
 import biolockj.module.report.otu.CompileOtuCounts;
+import biolockj.module.report.r.CalculateStats;
 import biolockj.module.report.r.R_CalculateStats;
 import biolockj.node.JsonNode;
 import biolockj.util.*;
@@ -246,7 +247,8 @@ public class JsonReport extends JavaModuleImpl {
 	}
 
 	private boolean hasStats() throws Exception {
-		return ModuleUtil.getModule( this, R_CalculateStats.class.getName(), false ) != null;
+		return ModuleUtil.getModule( this, R_CalculateStats.class.getName(), false ) != null ||
+			ModuleUtil.getModule( this, CalculateStats.class.getName(), false ) != null;
 	}
 
 	/**
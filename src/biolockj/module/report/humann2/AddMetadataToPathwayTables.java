@@ -13,6 +13,7 @@ package biolockj.module.report.humann2;
 
 import java.io.*;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 import biolockj.*;
 import biolockj.util.*;
 
@@ -67,35 +68,30 @@ public class AddMetadataToPathwayTables extends Humann2CountModule {
 	}
 
 	/**
-	 * Create the merged metadata tables.
+	 * Create the merged metadata tables. The metadata fields are joined once per sample by
+	 * {@link biolockj.util.MetaUtil#getMergeSuffixes()}, then each HumanN2 table is merged on its own thread with up
+	 * to {@link biolockj.Config}.{@value biolockj.Constants#SCRIPT_NUM_THREADS} tables merged at the same time.
 	 *
 	 * @throws Exception if unable to build tables
 	 */
 	protected void generateMergedTables() throws Exception {
+		this.metaSuffixes = MetaUtil.getMergeSuffixes();
 		final String outDir = getOutputDir().getAbsolutePath() + File.separator;
-		for( final File file: getInputFiles() ) {
-			final String name = file.getName().replaceAll( TSV_EXT, "" ) + META_MERGED;
+		for( final File file: getInputFiles() )
 			this.types.add( PathwayUtil.getHn2Type( file ) );
-			Log.info( getClass(),
-				"Merge HumanN2 " + PathwayUtil.getHn2Type( file ) + " table with metadata: " + outDir + name );
-			BufferedReader reader = null;
-			BufferedWriter writer = null;
-			try {
-				reader = BioLockJUtil.getFileReader( file );
-				writer = new BufferedWriter( new FileWriter( outDir + name ) );
-				for( String line = reader.readLine(); line != null; line = reader.readLine() ) {
-					final String mergedLine = getMergedLine( line );
-					if( mergedLine != null ) writer.write( mergedLine + RETURN );
 
+		final ForkJoinPool pool = new ForkJoinPool( Config.requirePositiveInteger( this, Constants.SCRIPT_NUM_THREADS ) );
+		try {
+			pool.submit( () -> getInputFiles().parallelStream().forEach( file -> {
+				try {
+					mergeTable( file, new File( outDir + file.getName().replaceAll( TSV_EXT, "" ) + META_MERGED ) );
+				} catch( final Exception ex ) {
+					throw new IllegalStateException( "Failed to merge metadata into " + file.getName(), ex );
 				}
-			} finally {
-				if( reader != null ) reader.close();
-				if( writer != null ) writer.close();
-			}
-
-			Log.info( getClass(), "Done merging table: " + file.getAbsolutePath() );
+			} ) ).get();
+		} finally {
+			pool.shutdown();
 		}
-
 	}
 
 	/**
@@ -106,27 +102,46 @@ public class AddMetadataToPathwayTables extends Humann2CountModule {
 	 * @throws Exception if unable to create merged line
 	 */
 	protected String getMergedLine( final String line ) throws Exception {
-		final StringBuffer sb = new StringBuffer();
 		final String sampleId = new StringTokenizer( line, TAB_DELIM ).nextToken();
-		if( sampleId.equals( MetaUtil.getID() ) || MetaUtil.getSampleIds().contains( sampleId ) ) {
-			sb.append( BioLockJUtil.removeQuotes( line ) );
-			for( final String field: MetaUtil.getRecord( sampleId ) )
-				sb.append( TAB_DELIM ).append( BioLockJUtil.removeQuotes( field ) );
-		} else {
+		final String suffix = this.metaSuffixes.get( sampleId );
+		if( suffix == null ) {
 			Log.warn( getClass(), "Missing record for: " + sampleId + " in metadata: " + MetaUtil.getPath() );
 			return null;
 		}
 
+		final String mergedLine = BioLockJUtil.removeQuotes( line ) + suffix;
+		if( this.mergeSampleLine == null ) setExampleLine( sampleId, mergedLine );
+		return mergedLine;
+	}
+
+	private void mergeTable( final File file, final File mergedTable ) throws Exception {
+		Log.info( getClass(), "Merge HumanN2 " + PathwayUtil.getHn2Type( file ) + " table with metadata: " +
+			mergedTable.getAbsolutePath() );
+		final BufferedReader reader = BioLockJUtil.getFileReader( file );
+		final BufferedWriter writer = new BufferedWriter( new FileWriter( mergedTable ) );
+		try {
+			for( String line = reader.readLine(); line != null; line = reader.readLine() ) {
+				final String mergedLine = getMergedLine( line );
+				if( mergedLine != null ) writer.write( mergedLine + RETURN );
+			}
+		} finally {
+			reader.close();
+			writer.close();
+		}
+
+		Log.info( getClass(), "Done merging table: " + file.getAbsolutePath() );
+	}
+
+	private synchronized void setExampleLine( final String sampleId, final String mergedLine ) {
 		if( this.mergeHeaderLine == null )
-			this.mergeHeaderLine = "Merged OTU table header [" + sampleId + "] = " + sb.toString();
+			this.mergeHeaderLine = "Merged OTU table header [" + sampleId + "] = " + mergedLine;
 		else if( this.mergeSampleLine == null )
-			this.mergeSampleLine = "Example Merged OTU table row [" + sampleId + "] = " + sb.toString();
-
-		return sb.toString();
+			this.mergeSampleLine = "Example Merged OTU table row [" + sampleId + "] = " + mergedLine;
 	}
 
-	private String mergeHeaderLine = null;
-	private String mergeSampleLine = null;
+	private volatile String mergeHeaderLine = null;
+	private volatile String mergeSampleLine = null;
+	private Map<String, String> metaSuffixes = null;
 
 	private final List<String> types = new ArrayList<>();
 
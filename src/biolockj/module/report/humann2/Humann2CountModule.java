@@ -80,4 +80,16 @@ public abstract class Humann2CountModule extends JavaModuleImpl {
 		}
 		return false;
 	}
+
+	/**
+	 * Parse a pathway count table cell. Zero counts, by far the most common value in these tables, are matched without
+	 * parsing.
+	 * 
+	 * @param cell Table cell
+	 * @return Count
+	 */
+	protected static double parseCount( final String cell ) {
+		if( cell.equals( "0" ) || cell.equals( "0.0" ) ) return 0.0;
+		return Double.parseDouble( cell );
+	}
 }
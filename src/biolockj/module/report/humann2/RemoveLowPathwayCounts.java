@@ -49,152 +49,104 @@ public class RemoveLowPathwayCounts extends Humann2CountModule {
 	@Override
 	public void runModule() throws Exception {
 		this.sampleIds.addAll( MetaUtil.getSampleIds() );
-		for( final File file: getInputFiles() ) {
-			logLowCountPathways( removeLowPathwayCounts( file ) );
-			if( Config.getBoolean( this, Constants.REPORT_NUM_HITS ) &&
-				!Config.getBoolean( this, Constants.HN2_DISABLE_PATH_ABUNDANCE ) &&
-				file.getName().contains( Constants.HN2_PATH_ABUND_SUM ) ) {
-				MetaUtil.addColumn( getMetaColName() + "_" + Constants.HN2_UNIQUE_PATH_COUNT,
-					this.uniquePathwaysPerSample, getTempDir(), true );
-				MetaUtil.addColumn( getMetaColName() + "_" + Constants.HN2_TOTAL_PATH_COUNT,
-					this.totalPathwaysPerSample, getOutputDir(), true );
-			}
-		}
-	}
-
-	/**
-	 * Save a list of low count pathways to the module temp directory.
-	 *
-	 * @param map TreeMap(sampleId, TreeSet(Pathway)) of Pathways found in too few samples
-	 * @throws Exception if errors occur
-	 */
-	protected void logLowCountPathways( final TreeMap<String, TreeSet<String>> map ) throws Exception {
-		if( map == null || map.isEmpty() ) {
-			Log.info( getClass(), "No low-count pathways detected" );
-			return;
-		}
-		final BufferedWriter writer = new BufferedWriter( new FileWriter( getLowCountPathwayLogFile() ) );
+		int numLowCountSamples = 0;
+		final BufferedWriter log = new BufferedWriter( new FileWriter( getLowCountPathwayLogFile() ) );
 		try {
-			for( final String id: map.keySet() ) {
-				final TreeSet<String> pathways = map.get( id );
-
-				for( final String pathway: pathways )
-					writer.write( id + ": " + pathway + RETURN );
+			for( final File file: getInputFiles() ) {
+				numLowCountSamples += removeLowPathwayCounts( file, log );
+				if( Config.getBoolean( this, Constants.REPORT_NUM_HITS ) &&
+					!Config.getBoolean( this, Constants.HN2_DISABLE_PATH_ABUNDANCE ) &&
+					file.getName().contains( Constants.HN2_PATH_ABUND_SUM ) ) {
+					MetaUtil.addColumn( getMetaColName() + "_" + Constants.HN2_UNIQUE_PATH_COUNT,
+						this.uniquePathwaysPerSample, getTempDir(), true );
+					MetaUtil.addColumn( getMetaColName() + "_" + Constants.HN2_TOTAL_PATH_COUNT,
+						this.totalPathwaysPerSample, getOutputDir(), true );
+				}
 			}
 		} finally {
-			writer.close();
+			log.close();
 		}
 
-		Log.info( getClass(),
-			"Found " + map.size() + " samples with low count pathways removed - Pathway list saved to --> " +
-				getLowCountPathwayLogFile().getAbsolutePath() );
+		if( numLowCountSamples == 0 ) Log.info( getClass(), "No low-count pathways detected" );
+		else Log.info( getClass(), "Found " + numLowCountSamples +
+			" samples with low count pathways removed - Pathway list saved to --> " +
+			getLowCountPathwayLogFile().getAbsolutePath() );
 	}
 
 	/**
-	 * Remove Pathway Counts below the {@link biolockj.Config}.{@value biolockj.Constants#REPORT_MIN_COUNT}
+	 * Remove Pathway Counts below the {@link biolockj.Config}.{@value biolockj.Constants#REPORT_MIN_COUNT}. The table
+	 * is streamed twice so only 1 row is held in memory: the 1st pass finds the pathways with at least 1 valid count,
+	 * the 2nd pass writes the output table without the pathways that have no valid counts.
 	 *
 	 * @param file Input file
-	 * @return TreeMap(SampleId, TreeMap(Pathway)) Map removed pathways to sample ID
+	 * @param log Writer for the low count pathway log, each removed count is logged as "sampleId: pathway"
+	 * @return Number of samples with low counts removed
 	 * @throws Exception if errors occur
 	 */
-	protected TreeMap<String, TreeSet<String>> removeLowPathwayCounts( final File file ) throws Exception {
+	protected int removeLowPathwayCounts( final File file, final BufferedWriter log ) throws Exception {
 		Log.info( getClass(), "Inspecting for Low Pathway count: " + file.getAbsolutePath() );
-		final TreeMap<String, TreeSet<String>> lowCountPathways = new TreeMap<>();
-		final List<List<String>> table = BioLockJUtil.parseCountTable( file );
-		final List<List<String>> output = new ArrayList<>();
-		List<String> pathways = null;
-		final TreeSet<String> validPathways = new TreeSet<>();
-		final Set<String> foundSamplePathways = new TreeSet<>();
-		int totalPathwayCount = 0;
-		for( final List<String> record: table ) {
-			final String sampleId = record.get( 0 );
-
-			if( pathways == null ) {
-				output.add( record );
-				validPathways.addAll( record.subList( 1, record.size() ) );
-				pathways = record;
-				continue;
-			}
-
-			final TreeSet<String> validSamplePathways = new TreeSet<>();
-
-			final List<String> line = new ArrayList<>();
-			line.add( sampleId );
-			for( int i = 1; i < record.size(); i++ ) {
-				final Double count = Double.valueOf( record.get( i ) );
-				final String pathway = pathways.get( i - 1 );
-				if( count < getMinCount() ) {
-					line.add( "0.0" );
-					Log.debug( getClass(), sampleId + ": Remove Low Pathway count: " + pathway + "=" + count );
-				} else {
-					validSamplePathways.add( pathway );
-					line.add( count.toString() );
-					totalPathwayCount += count;
-					validPathways.add( pathway );
-				}
-			}
-
-			output.add( line );
-
-			final TreeSet<String> badSamplePathways = new TreeSet<>( validPathways );
-			badSamplePathways.removeAll( validSamplePathways );
-			foundSamplePathways.addAll( validSamplePathways );
-			if( file.getName().contains( Constants.HN2_PATH_ABUND_SUM ) ) {
-				Log.info( getClass(), "Set totalPathwaysPerSample: " + sampleId + "=" + totalPathwayCount );
-				Log.info( getClass(), "Set uniquePathwaysPerSample: " + sampleId + "=" + foundSamplePathways.size() );
-				this.totalPathwaysPerSample.put( sampleId, String.valueOf( totalPathwayCount ) );
-				this.uniquePathwaysPerSample.put( sampleId, String.valueOf( foundSamplePathways.size() ) );
-			}
-
-			if( !badSamplePathways.isEmpty() ) {
-				lowCountPathways.put( sampleId, badSamplePathways );
-				Log.warn( getClass(), sampleId + ": Remove " + badSamplePathways.size() +
-					" Pathways with #counts below threshold: " + getMinCount() );
-				Log.debug( getClass(), sampleId + ": Removed Pathways: " + badSamplePathways );
-			}
-		}
-
-		final TreeSet<String> allRemovedPathways = new TreeSet<>( validPathways );
-		allRemovedPathways.removeAll( foundSamplePathways );
-		if( !allRemovedPathways.isEmpty() ) {
-			Log.warn( getClass(),
-				"Remove " + allRemovedPathways.size() + " Pathways with #counts below threshold: " + getMinCount() );
-			Log.debug( getClass(), "Removed Pathways: " + allRemovedPathways );
-		}
-
-		buildOutputTable( output, file, allRemovedPathways );
-
-		return lowCountPathways;
-	}
-
-	private void buildOutputTable( final List<List<String>> data, final File file, final Set<String> badPathways )
-		throws Exception {
+		final int minCount = getMinCount();
+		final boolean isAbundFile = file.getName().contains( Constants.HN2_PATH_ABUND_SUM );
+		final boolean[] validPathways = getValidPathways( file, minCount );
 		final File outTable = PathwayUtil.getPathwayCountFile( getOutputDir(), file, getMetaColName() );
+		final BufferedReader reader = BioLockJUtil.getFileReader( file );
 		final BufferedWriter writer = new BufferedWriter( new FileWriter( outTable ) );
+		int numLowCountSamples = 0;
 		try {
-			final Set<Integer> badIndex = new HashSet<>();
-			boolean firstRecord = true;
-			for( final List<String> record: data ) {
-				boolean newRecord = true;
-				if( firstRecord && !badPathways.isEmpty() ) for( final String pathway: record ) {
-					if( badPathways.contains( pathway ) ) badIndex.add( record.indexOf( pathway ) );
-					else writer.write( ( !newRecord ? TAB_DELIM: "" ) + pathway );
-					newRecord = false;
+			final String[] pathways = reader.readLine().split( TAB_DELIM, -1 );
+			writer.write( MetaUtil.getID() );
+			int numRemoved = 0;
+			for( int i = 1; i < pathways.length; i++ )
+				if( validPathways[ i ] ) writer.write( TAB_DELIM + pathways[ i ] );
+				else numRemoved++;
+			writer.write( RETURN );
+
+			if( numRemoved > 0 )
+				Log.warn( getClass(), "Remove " + numRemoved + " Pathways with #counts below threshold: " + minCount );
+
+			for( String line = reader.readLine(); line != null; line = reader.readLine() ) {
+				if( line.isEmpty() ) continue;
+				final String[] record = line.split( TAB_DELIM, -1 );
+				final String sampleId = record[ 0 ];
+				long totalPathwayCount = 0L;
+				int uniquePathwayCount = 0;
+				int numLowCounts = 0;
+				writer.write( sampleId );
+				for( int i = 1; i < record.length; i++ ) {
+					final double count = parseCount( record[ i ] );
+					if( count < minCount ) {
+						if( count > 0 ) {
+							log.write( sampleId + ": " + pathways[ i ] + RETURN );
+							numLowCounts++;
+						}
+						if( validPathways[ i ] ) writer.write( TAB_DELIM + "0.0" );
+					} else {
+						writer.write( TAB_DELIM + Double.toString( count ) );
+						totalPathwayCount += count;
+						uniquePathwayCount++;
+					}
 				}
-				else if( !firstRecord ) for( int i = 0; i < record.size(); i++ ) {
-					if( !badIndex.contains( i ) ) writer.write( ( !newRecord ? TAB_DELIM: "" ) + record.get( i ) );
-					newRecord = false;
+				writer.write( RETURN );
+
+				if( isAbundFile ) {
+					Log.info( getClass(), "Set totalPathwaysPerSample: " + sampleId + "=" + totalPathwayCount );
+					Log.info( getClass(), "Set uniquePathwaysPerSample: " + sampleId + "=" + uniquePathwayCount );
+					this.totalPathwaysPerSample.put( sampleId, String.valueOf( totalPathwayCount ) );
+					this.uniquePathwaysPerSample.put( sampleId, String.valueOf( uniquePathwayCount ) );
 				}
-				else for( final String pathway: record ) {
-					writer.write( ( !newRecord ? TAB_DELIM: "" ) + pathway );
-					newRecord = false;
+
+				if( numLowCounts > 0 ) {
+					numLowCountSamples++;
+					Log.warn( getClass(), sampleId + ": Remove " + numLowCounts +
+						" Pathways with #counts below threshold: " + minCount );
 				}
-				firstRecord = false;
-				writer.write( RETURN );
 			}
 		} finally {
+			reader.close();
 			writer.close();
 		}
+
+		return numLowCountSamples;
 	}
 
 	private void freeMemory() {
@@ -214,6 +166,26 @@ public class RemoveLowPathwayCounts extends Humann2CountModule {
 		return Config.requirePositiveInteger( this, Constants.REPORT_MIN_COUNT );
 	}
 
+	/**
+	 * Find the pathways with at least 1 count above the minCount threshold. Indexes match the table columns, so
+	 * index 0 (the sample ID column) is always FALSE.
+	 */
+	private static boolean[] getValidPathways( final File file, final int minCount ) throws Exception {
+		final BufferedReader reader = BioLockJUtil.getFileReader( file );
+		try {
+			final boolean[] validPathways = new boolean[ reader.readLine().split( TAB_DELIM, -1 ).length ];
+			for( String line = reader.readLine(); line != null; line = reader.readLine() ) {
+				if( line.isEmpty() ) continue;
+				final String[] record = line.split( TAB_DELIM, -1 );
+				for( int i = 1; i < record.length; i++ )
+					if( !validPathways[ i ] && parseCount( record[ i ] ) >= minCount ) validPathways[ i ] = true;
+			}
+			return validPathways;
+		} finally {
+			reader.close();
+		}
+	}
+
 	private final Set<String> sampleIds = new HashSet<>();
 	private Map<String, String> totalPathwaysPerSample = new HashMap<>();
 	private Map<String, String> uniquePathwaysPerSample = new HashMap<>();
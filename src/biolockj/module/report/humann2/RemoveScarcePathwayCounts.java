@@ -14,7 +14,6 @@ package biolockj.module.report.humann2;
 import java.io.*;
 import java.util.*;
 import org.apache.commons.io.FileUtils;
-import org.apache.commons.lang.math.NumberUtils;
 import biolockj.*;
 import biolockj.exception.*;
 import biolockj.util.*;
@@ -48,7 +47,6 @@ public class RemoveScarcePathwayCounts extends Humann2CountModule {
 		// summary += "Removed empty metadata records: " + this.sampleIds;
 		// }
 		// }
-		freeMemory();
 		return super.getSummary() + summary;
 	}
 
@@ -58,13 +56,7 @@ public class RemoveScarcePathwayCounts extends Humann2CountModule {
 		final int cutoff = getCutoff();
 		for( final File file: getInputFiles() )
 			if( cutoff < 1 ) FileUtils.copyFileToDirectory( file, getOutputDir() );
-			else {
-				final List<List<String>> table = BioLockJUtil.parseCountTable( file );
-				logScarceData( removeScarcePathwayCounts( file, getScarcePathways( table ) ),
-					getScarcePathwayLogFile() );
-				logScarceData( removeScarceSamples( file, getScarceSampleIds( file, table ) ),
-					getScarceSampleLogFile() );
-			}
+			else removeScarceData( file );
 	}
 
 	/**
@@ -90,76 +82,77 @@ public class RemoveScarcePathwayCounts extends Humann2CountModule {
 
 		Log.info( getClass(),
 			"Found " + map.size() + " samples with scarce pathways to removed- Pathway list saved to --> " +
-				getScarcePathwayLogFile().getAbsolutePath() );
+				file.getAbsolutePath() );
 	}
 
 	/**
-	 * Remove Pathway Counts below the {@link biolockj.Config}.{@value biolockj.Constants#REPORT_MIN_COUNT}
+	 * Remove scarce pathways found in too few samples and scarce samples with too few pathways. The table is streamed
+	 * twice so only 1 row is held in memory: the 1st pass counts the samples per pathway and the pathways per sample,
+	 * the 2nd pass writes the output table without the scarce pathways and samples.
 	 *
 	 * @param file input file
-	 * @param scarcePathways Set of pathway names to be eliminated
-	 * @return TreeMap(SampleId, TreeMap(Pathway)) Map removed pathways to sample ID
 	 * @throws Exception if errors occur
 	 */
-	protected TreeMap<String, TreeSet<String>> removeScarcePathwayCounts( final File file,
-		final Set<String> scarcePathways ) throws Exception {
-		if( scarcePathways.isEmpty() ) return null;
+	protected void removeScarceData( final File file ) throws Exception {
+		final int cutoff = getCutoff();
+		final boolean isAbundFile = file.getName().contains( Constants.HN2_PATH_ABUND_SUM );
 		final TreeMap<String, TreeSet<String>> scarcePathMap = new TreeMap<>();
-		final List<List<String>> table = BioLockJUtil.parseCountTable( file );
-		final List<List<String>> output = new ArrayList<>();
-
-		List<String> pathways = null;
-
-		final List<String> validPathways = new ArrayList<>();
-		int totalPathwayCount = 0;
-		for( final List<String> record: table ) {
-			final List<String> line = new ArrayList<>();
-			final String id = record.get( 0 );
-			line.add( id );
-			if( pathways == null ) {
-				for( int i = 1; i < record.size(); i++ ) {
-					final String pathway = record.get( i );
-					if( !scarcePathways.contains( pathway ) ) {
-						line.add( pathway );
-						validPathways.add( pathway );
-					}
-				}
-				pathways = record;
-				output.add( line );
-				continue;
+		final TreeMap<String, TreeSet<String>> scarceSampleMap = new TreeMap<>();
+		final Set<String> scarceIds = new HashSet<>();
+		final int[] prevalence = getPrevalence( file, isAbundFile, scarceIds );
+
+		final boolean[] scarcePathways = new boolean[ prevalence.length ];
+		int numScarce = 0;
+		for( int i = 1; i < prevalence.length; i++ )
+			if( prevalence[ i ] > 0 && prevalence[ i ] < cutoff ) {
+				scarcePathways[ i ] = true;
+				numScarce++;
 			}
 
-			final TreeSet<String> validSamplePathways = new TreeSet<>();
-
-			for( int i = 1; i < record.size(); i++ ) {
-				final String pathway = pathways.get( i );
-				if( !scarcePathways.contains( pathway ) ) {
-					final Double count = Double.valueOf( record.get( i ) );
-					line.add( count.toString() );
-					totalPathwayCount += count;
-					if( count > 0 ) validSamplePathways.add( pathway );
+		final String cutoffLabel = getMetaColName().replaceAll( "%", "per" );
+		final File outFile = PathwayUtil.getPathwayCountFile( getOutputDir(), file, cutoffLabel );
+		final BufferedReader reader = BioLockJUtil.getFileReader( file );
+		final BufferedWriter writer = new BufferedWriter( new FileWriter( outFile ) );
+		try {
+			final String[] pathways = reader.readLine().split( TAB_DELIM, -1 );
+			writer.write( MetaUtil.getID() );
+			for( int i = 1; i < pathways.length; i++ )
+				if( !scarcePathways[ i ] ) writer.write( TAB_DELIM + pathways[ i ] );
+			writer.write( RETURN );
+
+			for( String line = reader.readLine(); line != null; line = reader.readLine() ) {
+				if( line.isEmpty() ) continue;
+				final String[] record = line.split( TAB_DELIM, -1 );
+				final String id = record[ 0 ];
+				if( scarceIds.contains( id ) ) {
+					final TreeSet<String> samplePathways = new TreeSet<>();
+					for( int i = 1; i < record.length; i++ )
+						if( parseCount( record[ i ] ) > 0 ) samplePathways.add( pathways[ i ] );
+					scarceSampleMap.put( id, samplePathways );
+					continue;
 				}
-			}
 
-			output.add( line );
-
-			final TreeSet<String> badSamplePathways = new TreeSet<>( validPathways );
-			badSamplePathways.removeAll( validSamplePathways );
-
-			this.totalPathwaysPerSample.put( id, String.valueOf( totalPathwayCount ) );
-			this.uniquePathwaysPerSample.put( id, String.valueOf( validSamplePathways.size() ) );
+				final TreeSet<String> removedPathways = new TreeSet<>();
+				writer.write( id );
+				for( int i = 1; i < record.length; i++ )
+					if( !scarcePathways[ i ] ) writer.write( TAB_DELIM + record[ i ] );
+					else if( parseCount( record[ i ] ) > 0 ) removedPathways.add( pathways[ i ] );
+				writer.write( RETURN );
 
-			if( !badSamplePathways.isEmpty() ) {
-				scarcePathMap.put( id, badSamplePathways );
-				Log.warn( getClass(), id + ": Remove " + badSamplePathways.size() +
-					" Pathways found in % samples below threshold: " + getMetaColName() );
-				Log.debug( getClass(), id + ": Removed Pathways: " + badSamplePathways );
+				if( !removedPathways.isEmpty() ) {
+					scarcePathMap.put( id, removedPathways );
+					Log.debug( getClass(), id + ": Removed Pathways: " + removedPathways );
+				}
 			}
+		} finally {
+			reader.close();
+			writer.close();
 		}
 
-		buildOutputTable( file, output );
-
-		return scarcePathMap;
+		if( numScarce > 0 ) Log.warn( getClass(),
+			"Remove " + numScarce + " Pathways found in % samples below threshold: " + getMetaColName() );
+		logScarceData( scarcePathMap, getScarcePathwayLogFile() );
+		logScarceData( scarceSampleMap, getScarceSampleLogFile() );
 	}
 
 	@SuppressWarnings("unused")
@@ -169,31 +162,6 @@ public class RemoveScarcePathwayCounts extends Humann2CountModule {
 			file.getName().contains( Constants.HN2_PATH_ABUND_SUM );
 	}
 
-	private void buildOutputTable( final File file, final List<List<String>> data )
-		throws ConfigNotFoundException, ConfigFormatException, ConfigViolationException, IOException {
-		final String cutoff = getMetaColName().replaceAll( "%", "per" );
-		final File outFile = PathwayUtil.getPathwayCountFile( getOutputDir(), file, cutoff );
-		final BufferedWriter writer = new BufferedWriter( new FileWriter( outFile ) );
-		try {
-			for( final List<String> record: data ) {
-				boolean newRecord = true;
-				for( int i = 0; i < record.size(); i++ ) {
-					writer.write( ( !newRecord ? TAB_DELIM: "" ) + record.get( i ) );
-					newRecord = false;
-				}
-
-				writer.write( RETURN );
-			}
-		} finally {
-			writer.close();
-		}
-	}
-
-	private void freeMemory() {
-		this.uniquePathwaysPerSample = null;
-		this.totalPathwaysPerSample = null;
-	}
-
 	private int getCutoff() throws Exception {
 		if( this.scarceCountCutoff == null ) this.scarceCountCutoff =
 			new Double( Math.ceil( MetaUtil.getSampleIds().size() * getScarceCountCutoff() ) ).intValue();
@@ -204,11 +172,36 @@ public class RemoveScarcePathwayCounts extends Humann2CountModule {
 		return "scarce" + new Double( getScarceCountCutoff() * 100 ).intValue() + "%";
 	}
 
-	private int getSampleCutoff() throws Exception {
-		if( this.scarceSampleCutoff == null ) this.scarceSampleCutoff =
-			new Double( Math.ceil( MetaUtil.getFieldNames().size() * getScarceSampleCutoff() ) ).intValue();
+	/**
+	 * Count the number of samples with a non-zero count for each pathway. Indexes match the table columns, so index 0
+	 * (the sample ID column) is always 0. Samples with too few pathways in the pathway abundance table are added to
+	 * scarceIds.
+	 */
+	private int[] getPrevalence( final File file, final boolean isAbundFile, final Set<String> scarceIds )
+		throws Exception {
+		final BufferedReader reader = BioLockJUtil.getFileReader( file );
+		try {
+			final int[] prevalence = new int[ reader.readLine().split( TAB_DELIM, -1 ).length ];
+			final int sampleCutoff = getSampleCutoff( prevalence.length - 1 );
+			for( String line = reader.readLine(); line != null; line = reader.readLine() ) {
+				if( line.isEmpty() ) continue;
+				final String[] record = line.split( TAB_DELIM, -1 );
+				int count = 0;
+				for( int i = 1; i < record.length; i++ )
+					if( parseCount( record[ i ] ) > 0 ) {
+						prevalence[ i ]++;
+						count++;
+					}
+				if( isAbundFile && count < sampleCutoff ) scarceIds.add( record[ 0 ] );
+			}
+			return prevalence;
+		} finally {
+			reader.close();
+		}
+	}
 
-		return this.scarceSampleCutoff;
+	private int getSampleCutoff( final int numPathways ) throws Exception {
+		return new Double( Math.ceil( numPathways * getScarceSampleCutoff() ) ).intValue();
 	}
 
 	private Double getScarceCountCutoff() throws ConfigNotFoundException, ConfigFormatException {
@@ -219,84 +212,14 @@ public class RemoveScarcePathwayCounts extends Humann2CountModule {
 		return new File( getTempDir().getAbsolutePath() + File.separator + "scarcePathways" + TXT_EXT );
 	}
 
-	private Set<String> getScarcePathways( final List<List<String>> table ) throws Exception {
-		final Set<String> scarcePathways = new HashSet<>();
-		final Map<String, Double> pathMap = new HashMap<>();
-		final List<String> pathways = table.get( 0 ).subList( 1, table.get( 0 ).size() - 1 );
-		for( final String pathway: pathways )
-			pathMap.put( pathway, 0.0 );
-
-		for( final List<String> record: table.subList( 1, table.size() - 1 ) )
-			for( int i = 0; i < pathways.size(); i++ ) {
-				final Double count = Double.valueOf( record.get( i + 1 ) );
-				final String pathway = pathways.get( i );
-				if( count > 0 ) pathMap.put( pathway, pathMap.get( pathway ) + 1 );
-			}
-
-		for( final String pathway: pathways ) {
-			final Double count = pathMap.get( pathway );
-			if( count > 0 && count < getCutoff() ) scarcePathways.add( pathway );
-		}
-
-		return scarcePathways;
-	}
-
 	private Double getScarceSampleCutoff() throws ConfigNotFoundException, ConfigFormatException {
 		return Config.requirePositiveDouble( this, Constants.REPORT_SAMPLE_CUTOFF );
 	}
 
-	private Set<String> getScarceSampleIds( final File file, final List<List<String>> table ) throws Exception {
-		final Set<String> scarceIds = new HashSet<>();
-		table.remove( 0 );
-		for( final List<String> record: table ) {
-			String id = null;
-			int count = 0;
-			boolean newRecord = true;
-			for( final String cell: record ) {
-				if( newRecord ) id = cell;
-				else if( NumberUtils.isNumber( cell ) && Double.valueOf( cell ) > 0 ) count++;
-				newRecord = false;
-			}
-
-			if( count < getSampleCutoff() && file.getName().contains( Constants.HN2_PATH_ABUND_SUM ) ) {
-				scarceIds.add( id );
-				this.totalPathwaysPerSample.remove( id );
-				this.uniquePathwaysPerSample.remove( id );
-			}
-		}
-
-		return scarceIds;
-	}
-
 	private File getScarceSampleLogFile() {
 		return new File( getTempDir().getAbsolutePath() + File.separator + "scarceSamples" + TXT_EXT );
 	}
 
-	private TreeMap<String, TreeSet<String>> removeScarceSamples( final File file, final Set<String> scarceIds )
-		throws ConfigNotFoundException, ConfigFormatException, ConfigViolationException, FileNotFoundException,
-		IOException {
-		final TreeMap<String, TreeSet<String>> scarceSampleMap = new TreeMap<>();
-		final List<List<String>> table = BioLockJUtil.parseCountTable( file );
-		final List<List<String>> output = new ArrayList<>();
-		List<String> pathways = null;
-		for( final List<String> record: table ) {
-			final String id = record.get( 0 );
-			if( id.equals( MetaUtil.getID() ) ) pathways = record.subList( 1, record.size() );
-			if( scarceIds.contains( id ) && pathways != null ) {
-				scarceSampleMap.put( id, new TreeSet<>() );
-				for( int i = 1; i < record.size(); i++ )
-					if( !record.get( i ).equals( "0" ) && !record.get( i ).equals( "0.0" ) )
-						scarceSampleMap.get( id ).add( pathways.get( i - 1 ) );
-			} else output.add( record );
-		}
-
-		buildOutputTable( file, output );
-		return scarceSampleMap;
-	}
-
 	private final Set<String> sampleIds = new HashSet<>();
 	private Integer scarceCountCutoff = null;
-	private Integer scarceSampleCutoff = null;
-	private Map<String, String> totalPathwaysPerSample = new HashMap<>();
-	private Map<String, String> uniquePathwaysPerSample = new HashMap<>();
 }
@@ -14,6 +14,7 @@ package biolockj.module.report.otu;
 import java.io.*;
 import java.util.*;
 import biolockj.Log;
+import biolockj.exception.OtuFileException;
 import biolockj.util.*;
 
 /**
@@ -32,22 +33,24 @@ public class CompileOtuCounts extends OtuCountModule {
 		String msg = "# Samples:     " +
 			BioLockJUtil.formatNumericOutput( new Integer( MetaUtil.getSampleIds().size() ).longValue(), false ) +
 			RETURN;
-		long uniqueOtus = 0;
-		long totalOtus = 0;
-		BufferedReader reader = null;
-		try {
-			reader = BioLockJUtil.getFileReader( getSummaryOtuFile() );
-			for( String line = reader.readLine(); line != null; line = reader.readLine() ) {
-				final OtuUtil.OtuCountLine otuLine = new OtuUtil.OtuCountLine( line );
-				uniqueOtus++;
-				totalOtus += otuLine.getCount();
+
+		// Detached modules run in a separate JVM, so the counts from the merge are only found in-process
+		if( this.uniqueOtus == null ) {
+			this.uniqueOtus = 0L;
+			this.totalOtus = 0L;
+			final BufferedReader reader = BioLockJUtil.getFileReader( getSummaryOtuFile() );
+			try {
+				for( String line = reader.readLine(); line != null; line = reader.readLine() ) {
+					this.uniqueOtus++;
+					this.totalOtus += new OtuUtil.OtuCountLine( line ).getCount();
+				}
+			} finally {
+				reader.close();
 			}
-		} finally {
-			if( reader != null ) reader.close();
 		}
 
-		msg += "# Unique OTUs: " + BioLockJUtil.formatNumericOutput( uniqueOtus, false ) + RETURN;
-		msg += "# Total OTUs:  " + BioLockJUtil.formatNumericOutput( totalOtus, false ) + RETURN;
+		msg += "# Unique OTUs: " + BioLockJUtil.formatNumericOutput( this.uniqueOtus, false ) + RETURN;
+		msg += "# Total OTUs:  " + BioLockJUtil.formatNumericOutput( this.totalOtus, false ) + RETURN;
 		msg += getMinOtusPerSample() + RETURN;
 		msg += getMaxOtusPerSample() + RETURN;
 		return super.getSummary() + msg;
@@ -55,50 +58,43 @@ public class CompileOtuCounts extends OtuCountModule {
 
 	@Override
 	public void runModule() throws Exception {
-		buildSummaryOtuCountFile( compileOtuCounts( getInputFiles() ) );
+		buildSummaryOtuCountFile( getInputFiles() );
 	}
 
 	/**
-	 * Build Summary OTU count file for all samples.
+	 * Build Summary OTU count file for all samples with a k-way merge of the sample OTU count files, which are sorted
+	 * by OTU. Only 1 line per sample is held in memory, the summary counts are calculated in the same pass.
 	 *
-	 * @param otuCounts OTU-count mapping
+	 * @param files Sample OTU count files
 	 * @throws Exception if errors occur
 	 */
-	protected void buildSummaryOtuCountFile( final TreeMap<String, Long> otuCounts ) throws Exception {
-		final File otuCountFile = OtuUtil.getOtuCountFile( getOutputDir(), null, SUMMARY );
-		Log.info( getClass(),
-			"Build " + otuCountFile.getAbsolutePath() + " from " + otuCounts.size() + " unqiue OTU strings" );
+	protected void buildSummaryOtuCountFile( final List<File> files ) throws Exception {
+		final File otuCountFile = getSummaryOtuFile();
+		Log.info( getClass(), "Merge " + files.size() + " sorted OTU count files into: " +
+			otuCountFile.getAbsolutePath() );
+		long uniqueOtus = 0L;
+		long totalOtus = 0L;
+		final SpillUtil.SortedFileMerge otuCounts = new SpillUtil.SortedFileMerge( files, getTempDir() );
 		final BufferedWriter writer = new BufferedWriter( new FileWriter( otuCountFile ) );
 		try {
-			for( final String otu: otuCounts.keySet() )
-				writer.write( otu + TAB_DELIM + otuCounts.get( otu ) + RETURN );
+			while( otuCounts.hasNext() ) {
+				final Map.Entry<String, Long> entry = otuCounts.next();
+				writer.write( entry.getKey() + TAB_DELIM + entry.getValue() + RETURN );
+				uniqueOtus++;
+				totalOtus += entry.getValue();
+			}
+		} catch( final UncheckedIOException ex ) {
+			throw new OtuFileException( "Unable to merge OTU count files --> " + ex.getCause().getMessage() );
 		} finally {
 			writer.close();
+			otuCounts.close();
 		}
-	}
-
-	/**
-	 * Compile OTU counts from the individual sample OTU count files
-	 *
-	 * @param files Collection of OTU count files
-	 * @return TreeMap(OTU, count)
-	 * @throws Exception if errors occur
-	 */
-	protected TreeMap<String, Long> compileOtuCounts( final Collection<File> files ) throws Exception {
-		final TreeMap<String, Long> combinedOtuCounts = new TreeMap<>();
-		for( final File file: files ) {
-			final TreeMap<String, Long> otuCounts = OtuUtil.compileSampleOtuCounts( file );
-			this.uniqueOtuPerSample.put( OtuUtil.getSampleId( file ), new Integer( otuCounts.size() ).longValue() );
-			for( final String otu: otuCounts.keySet() ) {
-				final Long count = otuCounts.get( otu );
 
-				if( !combinedOtuCounts.keySet().contains( otu ) ) combinedOtuCounts.put( otu, 0L );
-
-				combinedOtuCounts.put( otu, combinedOtuCounts.get( otu ) + count );
-			}
-
-		}
-		return combinedOtuCounts;
+		for( int i = 0; i < files.size(); i++ )
+			this.uniqueOtuPerSample.put( OtuUtil.getSampleId( files.get( i ) ), otuCounts.getNumKeys( i ) );
+		this.uniqueOtus = uniqueOtus;
+		this.totalOtus = totalOtus;
+		Log.info( getClass(), "Wrote " + uniqueOtus + " unique OTU strings" );
 	}
 
 	/**
@@ -150,6 +146,8 @@ public class CompileOtuCounts extends OtuCountModule {
 		return OtuUtil.getOtuCountFile( getOutputDir(), null, SUMMARY );
 	}
 
+	private Long totalOtus = null;
+	private Long uniqueOtus = null;
 	private final Map<String, Long> uniqueOtuPerSample = new HashMap<>();
 
 	/**
@@ -12,9 +12,13 @@ package biolockj.module.report.otu;
  * PARTICULAR PURPOSE. See the GNU General Public License for more details at http://www.gnu.org *
  */
 import java.io.*;
+import java.nio.file.Files;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
 import org.apache.commons.io.FileUtils;
 import biolockj.*;
+import biolockj.exception.OtuFileException;
 import biolockj.module.implicit.parser.ParserModuleImpl;
 import biolockj.util.*;
 
@@ -26,6 +30,20 @@ import biolockj.util.*;
  */
 public class RemoveLowOtuCounts extends OtuCountModule {
 
+	/**
+	 * This inner class holds the filter results of 1 sample.
+	 */
+	private static final class SampleResult {
+		private SampleResult( final String sampleId ) {
+			this.sampleId = sampleId;
+		}
+
+		private boolean hasDuplicates = false;
+		private final TreeMap<String, Long> lowCountOtus = new TreeMap<>();
+		private long numOtus = 0L;
+		private final String sampleId;
+	}
+
 	@Override
 	public void checkDependencies() throws Exception {
 		super.checkDependencies();
@@ -62,9 +80,7 @@ public class RemoveLowOtuCounts extends OtuCountModule {
 	@Override
 	public void runModule() throws Exception {
 		this.sampleIds.addAll( MetaUtil.getSampleIds() );
-		final TreeMap<String, TreeMap<String, Long>> sampleOtuCounts = OtuUtil.getSampleOtuCounts( getInputFiles() );
-
-		final TreeMap<String, TreeSet<String>> lowCountOtus = removeLowOtuCounts( sampleOtuCounts );
+		final TreeMap<String, TreeSet<String>> lowCountOtus = removeLowOtuCounts( getInputFiles() );
 		logLowCountOtus( lowCountOtus );
 		if( Config.getBoolean( this, Constants.REPORT_NUM_HITS ) ) MetaUtil
 			.addColumn( getMetaColName() + "_" + Constants.OTU_COUNT, this.hitsPerSample, getOutputDir(), true );
@@ -99,73 +115,111 @@ public class RemoveLowOtuCounts extends OtuCountModule {
 	}
 
 	/**
-	 * Remove OTUs below the {@link biolockj.Config}.{@value biolockj.Constants#REPORT_MIN_COUNT }
+	 * Remove OTUs below the {@link biolockj.Config}.{@value biolockj.Constants#REPORT_MIN_COUNT } from each sample OTU
+	 * count file. Samples are independent, so each file is streamed on its own thread with up to
+	 * {@link biolockj.Config}.{@value biolockj.Constants#SCRIPT_NUM_THREADS} samples filtered at the same time. Files
+	 * must be sorted by OTU, counts of duplicate OTU lines are summed before they are compared to the minimum count.
+	 * Files without low count OTUs or duplicate OTU lines are hard-linked into the output directory (or copied if
+	 * linking is not supported).
 	 *
-	 * @param sampleOtuCounts TreeMap(SampleId, TreeMap(OTU, count)) OTU counts for every sample
-	 * @return TreeMap(SampleId, TreeMap(OTU, count)) Updated sampleOtuCounts after removal of low counts.
+	 * @param files Sample OTU count files
+	 * @return TreeMap(SampleId, TreeSet(OTU)) Low count OTUs removed from each sample
 	 * @throws Exception if errors occur
 	 */
-	protected TreeMap<String, TreeSet<String>>
-		removeLowOtuCounts( final TreeMap<String, TreeMap<String, Long>> sampleOtuCounts ) throws Exception {
+	protected TreeMap<String, TreeSet<String>> removeLowOtuCounts( final List<File> files ) throws Exception {
+		final int minCount = getMinCount();
+		final String colName = getMetaColName();
+		Log.debug( getClass(), "Build low count files for total # files: " + files.size() );
+		final ForkJoinPool pool = new ForkJoinPool( Config.requirePositiveInteger( this, Constants.SCRIPT_NUM_THREADS ) );
+		final List<SampleResult> results;
+		try {
+			results = pool.submit( () -> files.parallelStream().map( file -> {
+				try {
+					return removeLowOtuCounts( file, minCount, colName );
+				} catch( final Exception ex ) {
+					throw new IllegalStateException( "Failed to remove low OTU counts from " + file.getName(), ex );
+				}
+			} ).collect( Collectors.toList() ) ).get();
+		} finally {
+			pool.shutdown();
+		}
+
 		final TreeMap<String, TreeSet<String>> lowCountOtus = new TreeMap<>();
-		Log.debug( getClass(), "Build low count files for total # files: " + sampleOtuCounts.size() );
-		for( final String sampleId: sampleOtuCounts.keySet() ) {
-			final Set<String> badOtus = new TreeSet<>();
-			Log.debug( getClass(), "Check for low OTU counts in: " + sampleId );
-			long numOtus = 0;
-			final TreeMap<String, Long> otuCounts = sampleOtuCounts.get( sampleId );
-
-			final Set<String> validOtus = new TreeSet<>( otuCounts.keySet() );
-			long numOtuRemoved = 0;
-			for( final String otu: otuCounts.keySet() ) {
-				final long count = otuCounts.get( otu );
-				if( count < getMinCount() ) {
-					this.uniqueOtuRemoved.add( otu );
-					this.totalOtuRemoved += count;
-					badOtus.add( otu );
-					Log.debug( getClass(), sampleId + ": Remove Low OTU count: " + otu + "=" + count );
-					validOtus.remove( otu );
-					if( lowCountOtus.get( sampleId ) == null ) lowCountOtus.put( sampleId, new TreeSet<>() );
-					lowCountOtus.get( sampleId ).add( otu );
-					numOtuRemoved += count;
-				} else numOtus += count;
-				// Log.debug( getClass(),
-				// sampleId + ": update OTU count to " + numOtus + " after adding: " + otu + "=" + count );
-			}
+		for( final SampleResult result: results ) {
+			if( !result.lowCountOtus.isEmpty() )
+				lowCountOtus.put( result.sampleId, new TreeSet<>( result.lowCountOtus.keySet() ) );
+			this.uniqueOtuRemoved.addAll( result.lowCountOtus.keySet() );
+			for( final long count: result.lowCountOtus.values() )
+				this.totalOtuRemoved += count;
+			if( result.numOtus > 0 ) this.hitsPerSample.put( result.sampleId, String.valueOf( result.numOtus ) );
+		}
 
-			if( numOtus > 0 ) {
-				Log.debug( getClass(), sampleId + ": Reduce total OTU count by: " + numOtuRemoved );
-				this.hitsPerSample.put( sampleId, String.valueOf( numOtus ) );
-
-				if( numOtuRemoved == 0 ) FileUtils.copyFileToDirectory( getFileMap().get( sampleId ), getOutputDir() );
-				else {
-					Log.warn( getClass(), sampleId + ": Removed " + badOtus.size() + " low OTU counts (below " +
-						getMinCount() + ") --> " + badOtus );
-
-					final File otuFile = OtuUtil.getOtuCountFile( getOutputDir(), sampleId, getMetaColName() );
-					final BufferedWriter writer = new BufferedWriter( new FileWriter( otuFile ) );
-					try {
-						for( final String otu: validOtus )
-							writer.write( otu + TAB_DELIM + otuCounts.get( otu ) + RETURN );
-					} finally {
-						writer.close();
-						getFileMap().put( sampleId, otuFile );
-					}
-				}
+		return lowCountOtus;
+	}
 
+	// Write the OTU count to the filtered sample file, or save it as a low count OTU
+	private void filterOtu( final SampleResult result, final BufferedWriter writer, final String otu, final long count,
+		final int minCount ) throws IOException {
+		if( count < minCount ) {
+			Log.debug( getClass(), result.sampleId + ": Remove Low OTU count: " + otu + "=" + count );
+			result.lowCountOtus.put( otu, count );
+		} else {
+			result.numOtus += count;
+			writer.write( otu + TAB_DELIM + count + RETURN );
+		}
+	}
+
+	// Stream 1 sample, only low count OTUs are held in memory. Duplicate OTU lines are adjacent in the sorted file.
+	private SampleResult removeLowOtuCounts( final File file, final int minCount, final String colName )
+		throws Exception {
+		final SampleResult result = new SampleResult( OtuUtil.getSampleId( file ) );
+		Log.debug( getClass(), "Check for low OTU counts in: " + result.sampleId );
+		final File otuFile = OtuUtil.getOtuCountFile( getOutputDir(), result.sampleId, colName );
+		final BufferedReader reader = BioLockJUtil.getFileReader( file );
+		final BufferedWriter writer = new BufferedWriter( new FileWriter( otuFile ) );
+		try {
+			String otu = null;
+			long count = 0L;
+			for( String line = reader.readLine(); line != null; line = reader.readLine() ) {
+				final OtuUtil.OtuCountLine otuLine = new OtuUtil.OtuCountLine( line );
+				if( otuLine.getOtu().equals( otu ) ) {
+					result.hasDuplicates = true;
+					count += otuLine.getCount();
+					continue;
+				}
+				if( otu != null && otu.compareTo( otuLine.getOtu() ) > 0 ) throw new OtuFileException(
+					"OTU count file not sorted by OTU: \"" + otu + "\" found before \"" + otuLine.getOtu() + "\"" );
+				if( otu != null ) filterOtu( result, writer, otu, count, minCount );
+				otu = otuLine.getOtu();
+				count = otuLine.getCount();
 			}
+			if( otu != null ) filterOtu( result, writer, otu, count, minCount );
+		} finally {
+			reader.close();
+			writer.close();
 		}
 
-		return lowCountOtus;
+		final boolean unchanged = result.lowCountOtus.isEmpty() && !result.hasDuplicates;
+		if( result.numOtus == 0 || unchanged ) Files.delete( otuFile.toPath() );
+		if( result.numOtus > 0 ) {
+			if( unchanged ) linkToOutputDir( file );
+			else if( result.lowCountOtus.isEmpty() )
+				Log.info( getClass(), result.sampleId + ": Merged duplicate OTU lines" );
+			else Log.warn( getClass(), result.sampleId + ": Removed " + result.lowCountOtus.size() +
+				" low OTU counts (below " + minCount + ") --> " + result.lowCountOtus.keySet() );
+		}
+		return result;
 	}
 
-	private Map<String, File> getFileMap() throws Exception {
-		if( this.fileMap == null ) {
-			this.fileMap = new HashMap<>();
-			for( final File f: getInputFiles() )
-				this.fileMap.put( OtuUtil.getSampleId( f ), f );
+	private void linkToOutputDir( final File file ) throws IOException {
+		final File target = new File( getOutputDir().getAbsolutePath() + File.separator + file.getName() );
+		try {
+			Files.createLink( target.toPath(), file.toPath() );
+		} catch( final IOException | UnsupportedOperationException ex ) {
+			Log.debug( getClass(), "Unable to hard-link, copy instead: " + file.getAbsolutePath() + " --> " +
+				ex.getMessage() );
+			FileUtils.copyFileToDirectory( file, getOutputDir() );
 		}
-		return this.fileMap;
 	}
 
 	private File getLowCountOtuLogFile() {
@@ -180,7 +234,6 @@ public class RemoveLowOtuCounts extends OtuCountModule {
 		return Config.requirePositiveInteger( this, Constants.REPORT_MIN_COUNT );
 	}
 
-	private Map<String, File> fileMap = null;
 	private Map<String, String> hitsPerSample = new HashMap<>();
 	private final Set<String> sampleIds = new HashSet<>();
 	private long totalOtuRemoved = 0;
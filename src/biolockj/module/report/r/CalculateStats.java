@@ -0,0 +1,383 @@
+/**
+ * @UNCC Fodor Lab
+ * @author agent
+ * @email agent@local
+ * @date Oct 19, 2026
+ * @disclaimer This code is free software; you can redistribute it and/or modify it under the terms of the GNU General
+ * Public License as published by the Free Software Foundation; either version 2 of the License, or (at your option) any
+ * later version, provided that any use properly credits the author. This program is distributed in the hope that it
+ * will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License for more details at http://www.gnu.org *
+ */
+package biolockj.module.report.r;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import biolockj.*;
+import biolockj.module.JavaModuleImpl;
+import biolockj.module.report.humann2.AddMetadataToPathwayTables;
+import biolockj.module.report.taxa.AddMetadataToTaxaTables;
+import biolockj.util.*;
+
+/**
+ * This BioModule calculates the same taxonomy statistics as {@link biolockj.module.report.r.R_CalculateStats} in Java.
+ * The tests run in parallel over taxonomy levels and taxa, the output tables match the format read by BioLockJ_Lib.R
+ * getStatsTable() so the R plot modules can use either module. Set
+ * {@link biolockj.Config}.{@value biolockj.Constants#DEFAULT_STATS_MODULE} to this class to add it automatically.
+ *
+ * @blj.web_desc Java Statistics Calculator
+ */
+public class CalculateStats extends JavaModuleImpl {
+
+	/**
+	 * This inner class holds the statistics calculated for each taxa in 1 count table.
+	 */
+	protected static final class LevelStats {
+		private LevelStats( final String level, final List<String> taxa, final List<String> fields ) {
+			this.level = level;
+			this.taxa = taxa;
+			this.fields = fields;
+			this.parPvals = new double[ fields.size() ][ taxa.size() ];
+			this.npPvals = new double[ fields.size() ][ taxa.size() ];
+			this.rSquaredVals = new double[ fields.size() ][ taxa.size() ];
+		}
+
+		private double[][] adjNpPvals = null;
+		private double[][] adjParPvals = null;
+		private final List<String> fields;
+		private final String level;
+		private final double[][] npPvals;
+		private final double[][] parPvals;
+		private final double[][] rSquaredVals;
+		private final List<String> taxa;
+	}
+
+	/**
+	 * Validate configuration file properties used to calculate the statistics:
+	 * <ul>
+	 * <li>super.checkDependencies()
+	 * <li>Require {@value biolockj.module.report.r.R_CalculateStats#R_ADJ_PVALS_SCOPE}
+	 * <li>Require {@value biolockj.module.report.r.R_CalculateStats#R_PVAL_ADJ_METHOD}
+	 * <li>Require positive {@value biolockj.Constants#SCRIPT_NUM_THREADS}
+	 * </ul>
+	 */
+	@Override
+	public void checkDependencies() throws Exception {
+		super.checkDependencies();
+		Config.requireString( this, R_CalculateStats.R_ADJ_PVALS_SCOPE );
+		Config.requireString( this, R_CalculateStats.R_PVAL_ADJ_METHOD );
+		Config.getPositiveDoubleVal( this, R_Module.R_RARE_OTU_THRESHOLD );
+		Config.requirePositiveInteger( this, Constants.SCRIPT_NUM_THREADS );
+	}
+
+	/**
+	 * Only the count tables merged with metadata are used as input.
+	 */
+	@Override
+	public List<File> getInputFiles() {
+		if( getFileCache().isEmpty() ) {
+			final List<File> files = new ArrayList<>();
+			for( final File f: findModuleInputFiles() )
+				if( RMetaUtil.isMetaMergeTable( f ) ) files.add( f );
+			cacheInputFiles( files );
+		}
+		return getFileCache();
+	}
+
+	/**
+	 * Require combined count-metadata tables as input.
+	 */
+	@Override
+	public List<String> getPreRequisiteModules() throws Exception {
+		final List<String> preReqs = new ArrayList<>();
+		if( !BioLockJUtil.pipelineInputType( BioLockJUtil.PIPELINE_R_INPUT_TYPE ) )
+			preReqs.add( PathwayUtil.useHumann2RawCount( this ) ? AddMetadataToPathwayTables.class.getName()
+				: AddMetadataToTaxaTables.class.getName() );
+		preReqs.addAll( super.getPreRequisiteModules() );
+		return preReqs;
+	}
+
+	/**
+	 * Produce summary message with the number of taxa tested at each level.
+	 */
+	@Override
+	public String getSummary() throws Exception {
+		final StringBuffer sb = new StringBuffer();
+		for( final String level: this.numTaxaTested.keySet() )
+			sb.append( "# " + level + " taxa tested: " + this.numTaxaTested.get( level ) + RETURN );
+		return super.getSummary() + sb.toString();
+	}
+
+	/**
+	 * Calculate the statistics for each level in parallel, adjust the p-values, and write the 5 summary tables for
+	 * each level.
+	 */
+	@Override
+	public void runModule() throws Exception {
+		final List<String> fields = new ArrayList<>();
+		fields.addAll( RMetaUtil.getBinaryFields( this ) );
+		fields.addAll( RMetaUtil.getNominalFields( this ) );
+		fields.addAll( RMetaUtil.getNumericFields( this ) );
+		Log.info( getClass(), "binaryCols: " + RMetaUtil.getBinaryFields( this ) );
+		Log.info( getClass(), "nominalCols: " + RMetaUtil.getNominalFields( this ) );
+		Log.info( getClass(), "numericCols: " + RMetaUtil.getNumericFields( this ) );
+		if( fields.isEmpty() ) {
+			Log.warn( getClass(), "No reportable metadata fields found - statistics will not be calculated" );
+			return;
+		}
+
+		final Map<String, File> tables = getCountTables();
+		final List<String> levels = new ArrayList<>( tables.keySet() );
+		final ForkJoinPool pool = new ForkJoinPool( Config.requirePositiveInteger( this, Constants.SCRIPT_NUM_THREADS ) );
+		try {
+			final List<LevelStats> results = pool.submit( () -> levels.parallelStream().map( level -> {
+				try {
+					return calculateStats( level, tables.get( level ), fields );
+				} catch( final Exception ex ) {
+					throw new IllegalStateException( "Failed to calculate " + level + " statistics", ex );
+				}
+			} ).collect( Collectors.toList() ) ).get();
+
+			for( int i = 0; i < levels.size(); i++ ) {
+				final LevelStats stats = results.get( i );
+				if( stats == null ) Log.info( getClass(), levels.get( i ) + " table is empty" );
+				else {
+					adjustPvals( stats, levels.size() );
+					buildSummaryTables( stats );
+					this.numTaxaTested.put( stats.level, stats.taxa.size() );
+				}
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * Adjust the p-values for each field with {@link biolockj.util.StatsUtil#adjustPvals(double[], String, int)}
+	 * using the number of tests defined by {@value biolockj.module.report.r.R_CalculateStats#R_ADJ_PVALS_SCOPE}.
+	 *
+	 * @param stats Level statistics
+	 * @param numLevels Number of levels tested
+	 * @throws Exception if the adjustment method is not supported
+	 */
+	protected void adjustPvals( final LevelStats stats, final int numLevels ) throws Exception {
+		final String method = Config.requireString( this, R_CalculateStats.R_PVAL_ADJ_METHOD );
+		final String scope = Config.requireString( this, R_CalculateStats.R_ADJ_PVALS_SCOPE );
+		int n = stats.taxa.size();
+		if( scope.equals( R_CalculateStats.ADJ_PVAL_GLOBAL ) ) n *= numLevels * stats.fields.size();
+		else if( scope.equals( R_CalculateStats.ADJ_PVAL_ATTRIBUTE ) ) n *= numLevels;
+		else if( scope.equals( R_CalculateStats.ADJ_PVAL_TAXA ) ) n *= stats.fields.size();
+
+		stats.adjParPvals = new double[ stats.fields.size() ][];
+		stats.adjNpPvals = new double[ stats.fields.size() ][];
+		for( int i = 0; i < stats.fields.size(); i++ ) {
+			stats.adjParPvals[ i ] = StatsUtil.adjustPvals( stats.parPvals[ i ], method, n );
+			stats.adjNpPvals[ i ] = StatsUtil.adjustPvals( stats.npPvals[ i ], method, n );
+		}
+	}
+
+	/**
+	 * Write the parametric, non-parametric, adjusted parametric, adjusted non-parametric, and R^2 tables for the
+	 * level, named as expected by {@link biolockj.module.report.r.R_CalculateStats#getStatsFile}.
+	 *
+	 * @param stats Level statistics
+	 * @throws Exception if unable to write the tables
+	 */
+	protected void buildSummaryTables( final LevelStats stats ) throws Exception {
+		writeTable( stats, R_CalculateStats.getSuffix( true, false ), stats.parPvals );
+		writeTable( stats, R_CalculateStats.getSuffix( false, false ), stats.npPvals );
+		writeTable( stats, R_CalculateStats.getSuffix( true, true ), stats.adjParPvals );
+		writeTable( stats, R_CalculateStats.getSuffix( false, true ), stats.adjNpPvals );
+		writeTable( stats, R_CalculateStats.getSuffix( null, null ), stats.rSquaredVals );
+	}
+
+	/**
+	 * Read the count-metadata table and test each taxa with enough non-zero counts against each field. Taxa are tested
+	 * in parallel.
+	 *
+	 * @param level Taxonomy level
+	 * @param table Count table with metadata columns
+	 * @param fields Report fields (binary, nominal, numeric)
+	 * @return LevelStats, or null if no taxa have enough counts
+	 * @throws Exception if unable to read the table
+	 */
+	protected LevelStats calculateStats( final String level, final File table, final List<String> fields )
+		throws Exception {
+		Log.info( getClass(), "Calculate " + level + " statistics for: " + table.getAbsolutePath() );
+		final List<String> header = new ArrayList<>();
+		final List<String[]> rows = new ArrayList<>();
+		final BufferedReader reader = BioLockJUtil.getFileReader( table );
+		try {
+			for( String line = reader.readLine(); line != null; line = reader.readLine() )
+				if( header.isEmpty() ) header.addAll( Arrays.asList( line.split( TAB_DELIM, -1 ) ) );
+				else if( !line.trim().isEmpty() ) rows.add( line.split( TAB_DELIM, -1 ) );
+		} finally {
+			reader.close();
+		}
+
+		final int numCountCols = header.size() - 1 - RMetaUtil.getNumMetaCols( this );
+		final int numSamples = rows.size();
+		double cutoff = Config.getPositiveDoubleVal( this, R_Module.R_RARE_OTU_THRESHOLD ) == null ? 1
+			: Config.getPositiveDoubleVal( this, R_Module.R_RARE_OTU_THRESHOLD );
+		if( cutoff < 1 ) cutoff *= numSamples;
+
+		final List<String> taxa = new ArrayList<>();
+		final List<double[]> counts = new ArrayList<>();
+		for( int col = 1; col <= numCountCols; col++ ) {
+			final double[] vals = new double[ numSamples ];
+			int numPositive = 0;
+			for( int row = 0; row < numSamples; row++ ) {
+				vals[ row ] = parseValue( rows.get( row ), col );
+				if( vals[ row ] > 0 ) numPositive++;
+			}
+			if( numPositive >= cutoff ) {
+				taxa.add( header.get( col ) );
+				counts.add( vals );
+			}
+		}
+
+		if( taxa.isEmpty() ) return null;
+
+		final Set<String> binaryFields = RMetaUtil.getBinaryFields( this );
+		final Set<String> numericFields = RMetaUtil.getNumericFields( this );
+		final LevelStats stats = new LevelStats( level, taxa, fields );
+		for( int i = 0; i < fields.size(); i++ ) {
+			final int col = header.indexOf( fields.get( i ) );
+			if( col < 0 ) throw new Exception( "Metadata field [ " + fields.get( i ) + " ] not found in " +
+				table.getAbsolutePath() );
+			final int fieldNum = i;
+			if( numericFields.contains( fields.get( i ) ) ) {
+				final double[] att = new double[ numSamples ];
+				for( int row = 0; row < numSamples; row++ )
+					att[ row ] = parseValue( rows.get( row ), col );
+				IntStream.range( 0, taxa.size() ).parallel()
+					.forEach( t -> testNumericField( stats, fieldNum, t, counts.get( t ), att ) );
+			} else {
+				final List<String> groups = new ArrayList<>();
+				final int[] group = new int[ numSamples ];
+				for( int row = 0; row < numSamples; row++ ) {
+					final String val = col < rows.get( row ).length ? rows.get( row )[ col ]: null;
+					if( val == null || val.isEmpty() || val.equals( MetaUtil.getNullValue( this ) ) ) group[ row ] = -1;
+					else {
+						if( !groups.contains( val ) ) groups.add( val );
+						group[ row ] = groups.indexOf( val );
+					}
+				}
+				final boolean isBinary = binaryFields.contains( fields.get( i ) );
+				IntStream.range( 0, taxa.size() ).parallel().forEach(
+					t -> testGroupField( stats, fieldNum, t, counts.get( t ), group, groups.size(), isBinary ) );
+			}
+		}
+
+		return stats;
+	}
+
+	private Map<String, File> getCountTables() throws Exception {
+		final List<String> levels = R_Module.getReportLevels( this );
+		final Map<String, File> tables = new LinkedHashMap<>();
+		for( final String level: levels )
+			for( final File file: getInputFiles() )
+				if( file.getName().endsWith( "_" + level + AddMetadataToTaxaTables.META_MERGED ) )
+					tables.put( level, file );
+
+		if( tables.isEmpty() ) throw new Exception( "No count tables found for levels: " + levels );
+		return tables;
+	}
+
+	private double parseValue( final String[] row, final int col ) {
+		if( col >= row.length || row[ col ].isEmpty() || row[ col ].equals( MetaUtil.getNullValue( this ) ) )
+			return Double.NaN;
+		try {
+			return Double.parseDouble( row[ col ] );
+		} catch( final NumberFormatException ex ) {
+			return Double.NaN;
+		}
+	}
+
+	private void writeTable( final LevelStats stats, final String suffix, final double[][] vals ) throws Exception {
+		final File file = new File( getOutputDir().getAbsolutePath() + File.separator + Config.pipelineName() + "_" +
+			stats.level + "_" + suffix + TSV_EXT );
+		Log.info( getClass(), "Saving output file " + file.getAbsolutePath() );
+		final BufferedWriter writer = new BufferedWriter( new FileWriter( file ) );
+		try {
+			writer.write( "\"OTU\"" );
+			for( final String field: stats.fields )
+				writer.write( TAB_DELIM + "\"" + field + "\"" );
+			writer.write( RETURN );
+			for( int t = 0; t < stats.taxa.size(); t++ ) {
+				writer.write( "\"" + stats.taxa.get( t ) + "\"" );
+				for( int f = 0; f < stats.fields.size(); f++ )
+					writer.write( TAB_DELIM + formatValue( vals[ f ][ t ] ) );
+				writer.write( RETURN );
+			}
+		} finally {
+			writer.close();
+		}
+	}
+
+	/**
+	 * Format the value as R write.table: 15 significant digits, NA for missing values, and scientific notation only
+	 * if shorter than the fixed notation.
+	 *
+	 * @param val Value
+	 * @return Formatted value
+	 */
+	protected static String formatValue( final double val ) {
+		if( Double.isNaN( val ) || Double.isInfinite( val ) ) return NA;
+		if( val == 0 ) return "0";
+		final BigDecimal num = new BigDecimal( val ).round( SIG_DIGITS ).stripTrailingZeros();
+		final String fixed = num.toPlainString();
+		final String digits = num.unscaledValue().abs().toString();
+		final int exp = num.precision() - num.scale() - 1;
+		final String sci = ( num.signum() < 0 ? "-": "" ) + digits.charAt( 0 ) +
+			( digits.length() > 1 ? "." + digits.substring( 1 ): "" ) + "e" + ( exp < 0 ? "-": "+" ) +
+			( Math.abs( exp ) < 10 ? "0": "" ) + Math.abs( exp );
+		return sci.length() < fixed.length() ? sci: fixed;
+	}
+
+	private static void testGroupField( final LevelStats stats, final int field, final int taxa, final double[] counts,
+		final int[] group, final int numGroups, final boolean isBinary ) {
+		final int[] groupSize = new int[ numGroups ];
+		for( int i = 0; i < counts.length; i++ )
+			if( group[ i ] >= 0 && !Double.isNaN( counts[ i ] ) ) groupSize[ group[ i ] ]++;
+		for( final int size: groupSize )
+			if( size == 0 ) {
+				stats.parPvals[ field ][ taxa ] = 1;
+				stats.npPvals[ field ][ taxa ] = 1;
+				stats.rSquaredVals[ field ][ taxa ] = 0;
+				return;
+			}
+
+		final double[] anova = StatsUtil.anova( counts, group, numGroups );
+		stats.rSquaredVals[ field ][ taxa ] = anova[ 1 ];
+		if( isBinary && numGroups == 2 ) {
+			final double[] x = new double[ groupSize[ 0 ] ];
+			final double[] y = new double[ groupSize[ 1 ] ];
+			for( int i = 0, a = 0, b = 0; i < counts.length; i++ )
+				if( group[ i ] == 0 && !Double.isNaN( counts[ i ] ) ) x[ a++ ] = counts[ i ];
+				else if( group[ i ] == 1 && !Double.isNaN( counts[ i ] ) ) y[ b++ ] = counts[ i ];
+			stats.parPvals[ field ][ taxa ] = StatsUtil.tTest( x, y );
+			stats.npPvals[ field ][ taxa ] = StatsUtil.wilcoxon( x, y );
+		} else {
+			stats.parPvals[ field ][ taxa ] = anova[ 0 ];
+			stats.npPvals[ field ][ taxa ] = StatsUtil.kruskalWallis( counts, group, numGroups );
+		}
+	}
+
+	private static void testNumericField( final LevelStats stats, final int field, final int taxa,
+		final double[] counts, final double[] att ) {
+		final double[] kendall = StatsUtil.kendall( counts, att );
+		stats.parPvals[ field ][ taxa ] = kendall[ 0 ];
+		stats.npPvals[ field ][ taxa ] = StatsUtil.correlationTest( counts, att );
+		stats.rSquaredVals[ field ][ taxa ] = kendall[ 1 ] * kendall[ 1 ];
+	}
+
+	private final Map<String, Integer> numTaxaTested = new TreeMap<>();
+	private static final String NA = "NA";
+	private static final MathContext SIG_DIGITS = new MathContext( 15 );
+}
@@ -108,7 +108,8 @@ public class R_CalculateStats extends R_Module {
 	}
 
 	private static List<File> getStatsFileDirs( final BioModule module ) throws Exception {
-		final BioModule statsModule = ModuleUtil.getModule( module, R_CalculateStats.class.getName(), false );
+		BioModule statsModule = ModuleUtil.getModule( module, R_CalculateStats.class.getName(), false );
+		if( statsModule == null ) statsModule = ModuleUtil.getModule( module, CalculateStats.class.getName(), false );
 		if( statsModule != null ) {
 			final List<File> dirs = new ArrayList<>();
 			dirs.add( statsModule.getOutputDir() );
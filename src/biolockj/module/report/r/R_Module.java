@@ -19,6 +19,7 @@ import org.apache.commons.io.filefilter.WildcardFileFilter;
 import biolockj.*;
 import biolockj.exception.ConfigPathException;
 import biolockj.exception.ConfigViolationException;
+import biolockj.module.BioModule;
 import biolockj.module.ScriptModuleImpl;
 import biolockj.module.report.humann2.AddMetadataToPathwayTables;
 import biolockj.module.report.taxa.AddMetadataToTaxaTables;
@@ -56,6 +57,7 @@ public abstract class R_Module extends ScriptModuleImpl {
 		Config.getPositiveInteger( this, R_TIMEOUT );
 		Config.getBoolean( this, R_DEBUG );
 		Config.getBoolean( this, R_SAVE_R_DATA );
+		Config.getBoolean( this, R_PARALLEL_LEVELS );
 		verifyColorFileFormat();
 
 	}
@@ -73,12 +75,15 @@ public abstract class R_Module extends ScriptModuleImpl {
 	/**
 	 * If running Docker, run the Docker bash script, otherwise:<br>
 	 * Run {@link biolockj.Config}.{@value #EXE_RSCRIPT} command on the generated R Script:
-	 * {@link ScriptModuleImpl#getMainScript()}.
+	 * {@link ScriptModuleImpl#getMainScript()}.<br>
+	 * If {@link biolockj.Config}.{@value #R_PARALLEL_LEVELS} is enabled, run the level scripts in a pool of up to
+	 * {@link biolockj.Config}.{@value biolockj.Constants#SCRIPT_NUM_THREADS} concurrent Rscript processes.
 	 */
 	@Override
 	public String[] getJobParams() {
 		Log.info( getClass(), "Run MAIN Script: " + getMainScript().getName() );
 		if( DockerUtil.inDockerEnv() ) return super.getJobParams();
+		if( runLevelsInParallel() ) return getLevelJobParams();
 		final String[] cmd = new String[ 2 ];
 		cmd[ 0 ] = getRscriptCmd();
 		cmd[ 1 ] = getMainScript().getAbsolutePath();
@@ -119,6 +124,20 @@ public abstract class R_Module extends ScriptModuleImpl {
 			getScriptDir().getAbsolutePath() + File.separator + MAIN_SCRIPT_PREFIX + getModuleScriptName() );
 	}
 
+	/**
+	 * Get the R scripts run by this module: 1 script per level if {@value #R_PARALLEL_LEVELS} is enabled, otherwise
+	 * the {@link #getPrimaryScript()}.
+	 * 
+	 * @return List of MAIN R scripts
+	 */
+	public List<File> getPrimaryScripts() {
+		final List<File> scripts = new ArrayList<>();
+		if( runLevelsInParallel() ) for( final String level: getLevelsOrEmpty() )
+			scripts.add( getLevelScript( level ) );
+		else scripts.add( getPrimaryScript() );
+		return scripts;
+	}
+
 	/**
 	 * Produce summary file counts for each file extension in the output directory and the number of log files in the
 	 * temp directory. Any R Script errors detected during execution will also be printed. also contain details of R
@@ -143,12 +162,15 @@ public abstract class R_Module extends ScriptModuleImpl {
 					map.put( "none", map.get( "none" ) + 1 );
 				}
 
-			final File rScript = getPrimaryScript();
-			if( DockerUtil.inAwsEnv() && ( rScript == null || !rScript.isFile() ) )
-				sb.append( "Failed to generate R Script!" + RETURN );
+			final List<File> rScripts = getPrimaryScripts();
+			boolean foundScripts = true;
+			for( final File rScript: rScripts )
+				foundScripts = foundScripts && rScript.isFile();
+			if( DockerUtil.inAwsEnv() && !foundScripts ) sb.append( "Failed to generate R Script!" + RETURN );
 			else {
-				sb.append( getClass().getSimpleName() + ( getErrors().isEmpty() ? " successful": " failed" ) + ": " +
-					rScript.getAbsolutePath() + RETURN );
+				for( final File rScript: rScripts )
+					sb.append( getClass().getSimpleName() + ( getErrors().isEmpty() ? " successful": " failed" ) +
+						": " + rScript.getAbsolutePath() + RETURN );
 
 				for( final String ext: map.keySet() )
 					sb.append( "Generated " + map.get( ext ) + " " + ext + " files" + RETURN );
@@ -231,7 +253,8 @@ public abstract class R_Module extends ScriptModuleImpl {
 	protected void writePrimaryScript() throws Exception {
 		getTempDir();
 		getOutputDir();
-		FileUtils.copyFile( getMainR(), getPrimaryScript() );
+		if( runLevelsInParallel() ) writeLevelScripts();
+		else FileUtils.copyFile( getMainR(), getPrimaryScript() );
 		FileUtils.copyFileToDirectory( getFunctionLib(), getScriptDir() );
 		FileUtils.copyFileToDirectory( getModuleScript(), getScriptDir() );
 	}
@@ -256,6 +279,42 @@ public abstract class R_Module extends ScriptModuleImpl {
 		return errors.toString();
 	}
 
+	private String[] getLevelJobParams() {
+		final List<String> levels = getLevelsOrEmpty();
+		final StringBuffer scripts = new StringBuffer();
+		for( final String level: levels )
+			scripts.append( " '" + getLevelScript( level ).getAbsolutePath() + "'" );
+		int numWorkers = levels.size();
+		try {
+			numWorkers = Math.min( numWorkers, Config.requirePositiveInteger( this, Constants.SCRIPT_NUM_THREADS ) );
+		} catch( final Exception ex ) {
+			Log.warn( getClass(), "Run 1 R process per level: " + ex.getMessage() );
+		}
+		Log.info( getClass(), "Run " + levels.size() + " level scripts with " + numWorkers + " Rscript processes" );
+		return new String[] { "/bin/bash", "-c", "printf '%s\\0'" + scripts + " | xargs -0 -n 1 -P " +
+			Math.max( 1, numWorkers ) + " " + getRscriptCmd() };
+	}
+
+	/**
+	 * Get the MAIN script that only processes the given level.
+	 * 
+	 * @param level Taxonomy level or HumanN2 report type
+	 * @return Level MAIN script
+	 */
+	private File getLevelScript( final String level ) {
+		return new File( getScriptDir().getAbsolutePath() + File.separator + MAIN_SCRIPT_PREFIX +
+			getClass().getSimpleName() + "_" + level + Constants.R_EXT );
+	}
+
+	private List<String> getLevelsOrEmpty() {
+		try {
+			return getReportLevels( this );
+		} catch( final Exception ex ) {
+			Log.error( getClass(), "Unable to determine report levels", ex );
+		}
+		return new ArrayList<>();
+	}
+
 	private String getModuleScriptName() {
 		return getClass().getSimpleName() + Constants.R_EXT;
 	}
@@ -269,6 +328,16 @@ public abstract class R_Module extends ScriptModuleImpl {
 		return Constants.RSCRIPT;
 	}
 
+	private boolean runLevelsInParallel() {
+		try {
+			return Config.getBoolean( this, R_PARALLEL_LEVELS ) && !DockerUtil.inDockerEnv() &&
+				getLevelsOrEmpty().size() > 1;
+		} catch( final Exception ex ) {
+			Log.warn( getClass(), R_PARALLEL_LEVELS + " property misconfigured: " + ex.getMessage() );
+		}
+		return false;
+	}
+
 	private void verifyColorFileFormat() throws ConfigPathException, IOException, ConfigViolationException {
 		final File colorFile = Config.getExistingFile( this, R_COLOR_FILE );
 		if( colorFile != null ) {
@@ -283,6 +352,18 @@ public abstract class R_Module extends ScriptModuleImpl {
 		}
 	}
 
+	/**
+	 * Write 1 MAIN script per level, each sets R_LEVEL so the module script only processes its level.
+	 * 
+	 * @throws Exception if unable to write the scripts
+	 */
+	private void writeLevelScripts() throws Exception {
+		final String mainR = FileUtils.readFileToString( getMainR(), "UTF-8" );
+		for( final String level: getReportLevels( this ) )
+			FileUtils.writeStringToFile( getLevelScript( level ),
+				mainR.replace( R_LEVEL_UNDEFINED, "R_LEVEL = \"" + level + "\"" ), "UTF-8" );
+	}
+
 	/**
 	 * Get the main R script
 	 * 
@@ -295,6 +376,28 @@ public abstract class R_Module extends ScriptModuleImpl {
 		return rFile;
 	}
 
+	/**
+	 * Get the levels reported by the R scripts (BioLockJ_Lib.R taxaLevels()): the HumanN2 report types if
+	 * {@link biolockj.Config}.{@value biolockj.Constants#R_INTERNAL_RUN_HN2} is enabled, otherwise the configured
+	 * taxonomy levels.
+	 * 
+	 * @param module BioModule
+	 * @return List of levels
+	 * @throws Exception if errors occur
+	 */
+	public static List<String> getReportLevels( final BioModule module ) throws Exception {
+		final List<String> levels = new ArrayList<>();
+		if( Config.getBoolean( module, Constants.R_INTERNAL_RUN_HN2 ) ) {
+			if( !Config.getBoolean( module, Constants.HN2_DISABLE_PATH_ABUNDANCE ) )
+				levels.add( Constants.HN2_PATH_ABUND_SUM );
+			if( !Config.getBoolean( module, Constants.HN2_DISABLE_PATH_COVERAGE ) )
+				levels.add( Constants.HN2_PATH_COVG_SUM );
+			if( !Config.getBoolean( module, Constants.HN2_DISABLE_GENE_FAMILIES ) )
+				levels.add( Constants.HN2_GENE_FAM_SUM );
+		} else levels.addAll( TaxaUtil.getTaxaLevels() );
+		return levels;
+	}
+
 	/**
 	 * Get the BioLockJ resource R directory.
 	 * 
@@ -405,6 +508,12 @@ public abstract class R_Module extends ScriptModuleImpl {
 	 */
 	protected static final String R_MAIN_SCRIPT = "BioLockJ_MAIN.R";
 
+	/**
+	 * {@link biolockj.Config} boolean property {@value #R_PARALLEL_LEVELS} runs each taxonomy level in a separate R
+	 * process, up to {@link biolockj.Config}.{@value biolockj.Constants#SCRIPT_NUM_THREADS} at a time.
+	 */
+	protected static final String R_PARALLEL_LEVELS = "r.parallelLevels";
+
 	/**
 	 * {@link biolockj.Config} property {@value #R_PCH} defines the plot point shape for PDF plots
 	 */
@@ -429,4 +538,5 @@ public abstract class R_Module extends ScriptModuleImpl {
 
 	private static final String FUNCTION_RUN_R = "runScript";
 	private static final String INDENT = "   ";
+	private static final String R_LEVEL_UNDEFINED = "R_LEVEL = NULL";
 }
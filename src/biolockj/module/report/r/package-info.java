@@ -1,5 +1,6 @@
 /**
  * This package contains {@link biolockj.module.BioModule}s that build pipeline reports from the standard OTU abundance
  * tables by generating R scripts to produce the summary statistics and data visualizations output to PDF files.<br>
+ * Summary statistics can also be calculated in Java by {@link biolockj.module.report.r.CalculateStats}.
  */
 package biolockj.module.report.r;
@@ -13,6 +13,7 @@ package biolockj.module.report.taxa;
 
 import java.io.*;
 import java.util.*;
+import biolockj.Constants;
 import biolockj.Log;
 import biolockj.module.report.otu.OtuCountModule;
 import biolockj.util.*;
@@ -32,55 +33,81 @@ public class BuildTaxaTables extends OtuCountModule {
 
 	@Override
 	public void runModule() throws Exception {
-		buildTaxonomyTables( OtuUtil.getSampleOtuCounts( getInputFiles() ) );
+		buildTaxonomyTables( getInputFiles() );
 	}
 
 	/**
-	 * Build taxonomy tables from the sampleTaxaCounts.
+	 * Build taxonomy tables from the sample OTU count files. The unique taxa at each level are found in a 1st pass over
+	 * the files, then each sample is read again and written as 1 row of every level table, so only 1 sample is held in
+	 * memory at a time.
 	 *
-	 * @param sampleOtuCounts TreeMap(SampleId, TreeMap(OTU, count)) OTU counts for every sample
+	 * @param files Collection of sample OTU count files
 	 * @throws Exception if errors occur
 	 */
-	protected void buildTaxonomyTables( final TreeMap<String, TreeMap<String, Long>> sampleOtuCounts )
-		throws Exception {
+	protected void buildTaxonomyTables( final Collection<File> files ) throws Exception {
 		final String label = "OTUs";
 		final int pad = SummaryUtil.getPad( label ) + 4;
+		final TreeMap<String, File> sampleFiles = getSampleFiles( files );
+		final Map<String, TreeSet<String>> levelTaxa = new LinkedHashMap<>();
+		for( final String level: TaxaUtil.getTaxaLevels() )
+			levelTaxa.put( level, new TreeSet<>() );
+
+		long numOtus = 0L;
+		final SpillUtil.SortedCountMap otus = new SpillUtil.SortedCountMap( getTempDir(), "uniqueOtus" );
+		try {
+			for( final File file: sampleFiles.values() ) {
+				final TreeMap<String, Long> otuCounts = OtuUtil.compileSampleOtuCounts( file );
+				report( "OTU Count", OtuUtil.getSampleId( file ), otuCounts );
+				for( final Map.Entry<String, Long> entry: otuCounts.entrySet() )
+					otus.add( entry.getKey(), entry.getValue() );
+			}
+			for( final Map.Entry<String, Long> otu: otus ) {
+				for( final String level: levelTaxa.keySet() ) {
+					final String taxa = TaxaUtil.getTaxaName( otu.getKey(), level );
+					if( taxa != null ) levelTaxa.get( level ).add( taxa );
+				}
+				if( Log.doDebug() ) Log.debug( getClass(), "REPORT [ Unique OTU ]:" + otu.getKey() );
+				numOtus++;
+			}
+		} finally {
+			otus.close();
+		}
 
-		final TreeSet<String> otus = OtuUtil.findUniqueOtus( sampleOtuCounts );
-		Log.info( getClass(), "Write " + otus.size() + " unique OTUs for: " + sampleOtuCounts.size() + " samples" );
-		report( "OTU Count", sampleOtuCounts );
-		report( "Unique OTU", otus );
+		Log.info( getClass(), "Write " + numOtus + " unique OTUs for: " + sampleFiles.size() + " samples" );
 		this.summary += BioLockJUtil.addTrailingSpaces( "# Samples:", pad ) +
-			BioLockJUtil.formatNumericOutput( new Integer( sampleOtuCounts.size() ).longValue(), false ) + RETURN;
-		long totalOtus = 0;
-		boolean topLevel = true;
-		for( final String level: TaxaUtil.getTaxaLevels() ) {
-			final TreeSet<String> levelTaxa = TaxaUtil.findUniqueTaxa( otus, level );
-			final TreeMap<String, TreeMap<String, Long>> levelTaxaCounts =
-				TaxaUtil.getLevelTaxaCounts( sampleOtuCounts, level );
-			final Map<String, Long> uniqueOtus = new HashMap<>();
-
-			uniqueOtus.put( level, new Integer( levelTaxa.size() ).longValue() );
-			report( "Taxonomy Counts @" + level, levelTaxaCounts );
-			final File table = TaxaUtil.getTaxonomyTableFile( getOutputDir(), level, null );
-			Log.info( getClass(), "Building: " + table.getAbsolutePath() );
-
-			final BufferedWriter writer = new BufferedWriter( new FileWriter( table ) );
-			try {
+			BioLockJUtil.formatNumericOutput( new Integer( sampleFiles.size() ).longValue(), false ) + RETURN;
+
+		final Map<String, BufferedWriter> writers = new LinkedHashMap<>();
+		long totalOtus = 0L;
+		try {
+			for( final String level: levelTaxa.keySet() ) {
+				final File table = TaxaUtil.getTaxonomyTableFile( getOutputDir(), level, null );
+				Log.info( getClass(), "Building: " + table.getAbsolutePath() );
+				final BufferedWriter writer = new BufferedWriter( new FileWriter( table ) );
+				writers.put( level, writer );
 				writer.write( MetaUtil.getID() );
-				for( final String taxa: levelTaxa )
+				for( final String taxa: levelTaxa.get( level ) )
 					writer.write( TAB_DELIM + taxa );
 				writer.write( RETURN );
+			}
 
-				for( final String sampleId: sampleOtuCounts.keySet() ) {
-					final TreeMap<String, Long> taxaCounts = levelTaxaCounts.get( sampleId );
-					if( taxaCounts.isEmpty() ) {
+			for( final String sampleId: sampleFiles.keySet() ) {
+				final TreeMap<String, TreeMap<String, Long>> sampleOtuCounts = new TreeMap<>();
+				sampleOtuCounts.put( sampleId, OtuUtil.compileSampleOtuCounts( sampleFiles.get( sampleId ) ) );
+				boolean topLevel = true;
+				for( final String level: levelTaxa.keySet() ) {
+					final TreeMap<String, Long> taxaCounts =
+						TaxaUtil.getLevelTaxaCounts( sampleOtuCounts, level ).get( sampleId );
+					report( "Taxonomy Counts @" + level, sampleId, taxaCounts );
+					if( taxaCounts == null || taxaCounts.isEmpty() ) {
 						Log.warn( getClass(), "No " + level + " taxa found: " + sampleId );
+						topLevel = false;
 						continue;
 					}
-					writer.write( sampleId );
 
-					for( final String taxa: levelTaxa ) {
+					final BufferedWriter writer = writers.get( level );
+					writer.write( sampleId );
+					for( final String taxa: levelTaxa.get( level ) ) {
 						Long count = 0L;
 						if( taxaCounts.keySet().contains( taxa ) ) {
 							count = taxaCounts.get( taxa );
@@ -92,31 +119,37 @@ public class BuildTaxaTables extends OtuCountModule {
 					}
 
 					writer.write( RETURN );
+					topLevel = false;
 				}
-
-				this.summary += BioLockJUtil.addTrailingSpaces( "# Unique " + level + " OTUs:", pad ) +
-					BioLockJUtil.formatNumericOutput( uniqueOtus.get( level ), false ) + RETURN;
-			} finally {
-				writer.close();
 			}
-			topLevel = false;
+		} finally {
+			for( final BufferedWriter writer: writers.values() )
+				writer.close();
 		}
 
+		for( final String level: levelTaxa.keySet() )
+			this.summary += BioLockJUtil.addTrailingSpaces( "# Unique " + level + " OTUs:", pad ) +
+				BioLockJUtil.formatNumericOutput( new Integer( levelTaxa.get( level ).size() ).longValue(), false ) +
+				RETURN;
+
 		this.summary += BioLockJUtil.addTrailingSpaces( "# Total OTUs:", pad ) +
 			BioLockJUtil.formatNumericOutput( totalOtus, false );
 	}
 
-	private void report( final String label, final Collection<String> col ) {
-		if( Log.doDebug() ) for( final String item: col )
-			Log.debug( getClass(), "REPORT [ " + label + " ]:" + item );
+	private TreeMap<String, File> getSampleFiles( final Collection<File> files ) throws Exception {
+		final TreeMap<String, File> sampleFiles = new TreeMap<>();
+		for( final File file: files ) {
+			if( !file.getName().contains( "_" + Constants.OTU_COUNT + "_" ) )
+				throw new Exception( "Module input files must contain sample OTU counts with \"_" + Constants.OTU_COUNT +
+					"_\" as part of the file name.  Found file: " + file.getAbsolutePath() );
+			sampleFiles.put( OtuUtil.getSampleId( file ), file );
+		}
+		return sampleFiles;
 	}
 
-	private void report( final String label, final TreeMap<String, TreeMap<String, Long>> map ) {
-		if( Log.doDebug() ) for( final String id: map.keySet() ) {
-			final TreeMap<String, Long> innerMap = map.get( id );
-			for( final String otu: innerMap.keySet() )
-				Log.debug( getClass(), "REPORT [ " + id + " " + label + " ]: " + otu + "=" + innerMap.get( otu ) );
-		}
+	private void report( final String label, final String id, final TreeMap<String, Long> counts ) {
+		if( Log.doDebug() && counts != null ) for( final String otu: counts.keySet() )
+			Log.debug( getClass(), "REPORT [ " + id + " " + label + " ]: " + otu + "=" + counts.get( otu ) );
 	}
 
 	private String summary = "";
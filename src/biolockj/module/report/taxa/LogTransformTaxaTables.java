@@ -11,9 +11,9 @@
  */
 package biolockj.module.report.taxa;
 
-import java.io.BufferedReader;
-import java.io.File;
-import java.util.*;
+import java.io.*;
+import java.util.List;
+import java.util.function.DoubleUnaryOperator;
 import biolockj.Log;
 import biolockj.util.*;
 
@@ -24,76 +24,86 @@ import biolockj.util.*;
  */
 public class LogTransformTaxaTables extends NormalizeTaxaTables {
 	/**
-	 * Log transform the data
+	 * Log transform the data in a single pass, 1 row at a time. Each row is parsed into a reused array, the log
+	 * function is selected once per table, and the formatted values of small counts are cached since most cells in a
+	 * taxonomy table hold the same few counts.
 	 *
 	 * @param otuTable OTU raw count table
 	 * @throws Exception if unable to construct LogTransformTaxaTables
 	 */
 	@Override
 	protected void transform( final File otuTable ) throws Exception {
-		final List<List<String>> dataPointsLogged = new ArrayList<>();
-		final List<List<Long>> dataPointsUnnormalized = new ArrayList<>();
-		final List<String> sampleIDs = new ArrayList<>();
-		final List<String> otuNames = new ArrayList<>();
+		final String level = TaxaUtil.getTaxonomyTableLevel( otuTable );
+		Log.debug( getClass(), "Transforming table for level: " + level );
+		final DoubleUnaryOperator logFunction = getLogBase().equalsIgnoreCase( LOG_E ) ? Math::log: Math::log10;
+		final String[] formatted = new String[ CACHE_SIZE ];
 		final BufferedReader reader = BioLockJUtil.getFileReader( otuTable );
+		final BufferedWriter writer = new BufferedWriter( new FileWriter( getLogTransformedFile( level ) ) );
 		try {
-			otuNames.addAll( getOtuNames( reader.readLine() ) );
-			String nextLine = reader.readLine();
-			while( nextLine != null ) {
-				final StringTokenizer st = new StringTokenizer( nextLine, TAB_DELIM );
-				final String sampleID = st.nextToken();
-				final List<Long> innerList = new ArrayList<>();
-				sampleIDs.add( sampleID );
-				dataPointsUnnormalized.add( innerList );
-				dataPointsLogged.add( new ArrayList<String>() );
+			final List<String> otuNames = getOtuNames( reader.readLine() );
+			writer.write( MetaUtil.getID() );
+			for( final String otu: otuNames )
+				writer.write( TAB_DELIM + otu );
+			writer.write( RETURN );
 
-				while( st.hasMoreTokens() ) {
-					final String nextToken = st.nextToken();
-					long d = 0;
-					if( nextToken.length() > 0 ) d = Long.parseLong( nextToken );
-					innerList.add( d );
+			final long[] counts = new long[ otuNames.size() ];
+			boolean firstRow = true;
+			for( String line = reader.readLine(); line != null; line = reader.readLine() ) {
+				final String sampleID = parseRow( line, counts );
+				if( !firstRow ) writer.write( RETURN );
+				firstRow = false;
+				writer.write( sampleID );
+				for( final long count: counts ) {
+					writer.write( TAB_DELIM );
+					if( count < CACHE_SIZE ) {
+						final int i = (int) count;
+						if( formatted[ i ] == null )
+							formatted[ i ] = Double.toString( logFunction.applyAsDouble( count + 1L ) );
+						writer.write( formatted[ i ] );
+					} else writer.write( Double.toString( logFunction.applyAsDouble( count + 1L ) ) );
 				}
-
-				final long rowSum = innerList.stream().mapToLong( Long::longValue ).sum();
-				if( rowSum == 0 ) throw new Exception( sampleID + " has all zeros for table counts." );
-				nextLine = reader.readLine();
 			}
 		} finally {
-			if( reader != null ) reader.close();
-		}
-
-		final Set<Integer> allZeroIndex = findAllZeroIndex( dataPointsUnnormalized );
-		final List<String> filteredSampleIDs = filterZeroSampleIDs( sampleIDs, allZeroIndex );
-
-		Log.debug( getClass(), "# samples with all zeros (to be removed)  = " + allZeroIndex.size() );
-
-		for( int x = 0; x < dataPointsUnnormalized.size(); x++ ) {
-			final List<String> loggedInnerList = dataPointsLogged.get( x );
-			for( int y = 0; y < dataPointsUnnormalized.get( x ).size(); y++ ) {
-				final long val = dataPointsUnnormalized.get( x ).get( y ) + 1L;
-				if( allZeroIndex.contains( x ) ) {
-					// index 0 = col headers, so add + 1
-					final String id = MetaUtil.getSampleIds().get( x + 1 );
-					Log.warn( getClass(), "All zero row will not be transformed - ID ommitted: " + id );
-				} else if( getLogBase().equalsIgnoreCase( LOG_E ) ) {
-					final String res = new Double( Math.log( val ) ).toString();
-					loggedInnerList.add( res );
-				} else if( getLogBase().equalsIgnoreCase( LOG_10 ) ) {
-					final String res = new Double( Math.log10( val ) ).toString();
-					Log.debug( getClass(), "Math.log10( " + val + ") = " + Math.log10( val ) + " ==> " + res );
-					loggedInnerList.add( res );
-				}
-			}
+			reader.close();
+			writer.close();
 		}
-
-		final String level = TaxaUtil.getTaxonomyTableLevel( otuTable );
-		Log.debug( getClass(), "Transforming table for level: " + level );
-		final File logNormTable = getLogTransformedFile( level );
-		writeDataToFile( logNormTable, filteredSampleIDs, otuNames, dataPointsLogged );
 	}
 
 	private File getLogTransformedFile( final String level ) throws Exception {
 		return TaxaUtil.getTaxonomyTableFile( getOutputDir(), level, "_Log" + getLogBase() );
 	}
 
+	/**
+	 * Parse the counts of 1 table row into the counts array.
+	 * 
+	 * @param line Table row
+	 * @param counts Array sized to the number of columns, overwritten with the row counts
+	 * @return Sample ID
+	 * @throws Exception if the row has the wrong number of columns, a negative count, or all zero counts
+	 */
+	private static String parseRow( final String line, final long[] counts ) throws Exception {
+		int start = line.indexOf( TAB_DELIM );
+		final String sampleID = start < 0 ? line: line.substring( 0, start );
+		long rowSum = 0L;
+		int col = 0;
+		while( start >= 0 ) {
+			final int end = line.indexOf( TAB_DELIM, start + 1 );
+			final String token = end < 0 ? line.substring( start + 1 ): line.substring( start + 1, end );
+			if( !token.isEmpty() ) {
+				if( col == counts.length ) throw new Exception( sampleID + " has more than " + counts.length +
+					" table counts." );
+				counts[ col ] = Long.parseLong( token );
+				if( counts[ col ] < 0 ) throw new Exception( sampleID + " has a negative table count [ " + token +
+					" ] in column " + ( col + 1 ) + ", log transform requires counts >= 0" );
+				rowSum += counts[ col++ ];
+			}
+			start = end;
+		}
+		if( col != counts.length )
+			throw new Exception( sampleID + " has " + col + " table counts, expected " + counts.length );
+		if( rowSum == 0 ) throw new Exception( sampleID + " has all zeros for table counts." );
+		return sampleID;
+	}
+
+	private static final int CACHE_SIZE = 4096;
 }
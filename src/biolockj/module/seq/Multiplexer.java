@@ -13,13 +13,15 @@ package biolockj.module.seq;
 
 import java.io.*;
 import java.util.*;
-import java.util.zip.GZIPOutputStream;
 import biolockj.*;
 import biolockj.exception.SequnceFormatException;
 import biolockj.module.*;
 import biolockj.module.classifier.ClassifierModule;
 import biolockj.module.report.Email;
 import biolockj.util.*;
+import biolockj.util.SeqRecordUtil.SeqRecord;
+import biolockj.util.SeqRecordUtil.SeqRecordReader;
+import biolockj.util.SeqRecordUtil.SeqRecordWriter;
 
 /**
  * This BioModule will merge sequence files into a single combined sequence file, with either the sample ID or an
@@ -99,19 +101,20 @@ public class Multiplexer extends JavaModuleImpl implements SeqModule {
 	// }
 
 	/**
-	 * Execute {@link #multiplex(File)} on each input file
+	 * Execute {@link #multiplex(File)} on each input file. If {@value #DO_GZIP} is enabled the multiplexed files are
+	 * gzipped as they are written by {@link biolockj.util.GzipUtil}.
 	 */
 	@Override
 	public void runModule() throws Exception {
 		Log.info( getClass(), "Multiplexing file type = " + Config.requireString( this, Constants.INTERNAL_SEQ_TYPE ) );
 
-		for( final File f: getInputFiles() )
-			multiplex( f );
-
-		if( Config.getBoolean( this, DO_GZIP ) ) {
-			Log.warn( getClass(), "BioLockJ gzip data in: " + this.muxFiles );
-			compressData();
-			removeDecompressedFiles();
+		try {
+			for( final File f: getInputFiles() )
+				multiplex( f );
+		} finally {
+			for( final SeqRecordWriter writer: this.muxWriters.values() )
+				writer.close();
+			this.muxWriters.clear();
 		}
 	}
 
@@ -119,12 +122,12 @@ public class Multiplexer extends JavaModuleImpl implements SeqModule {
 	 * Get the header for the sequence.
 	 *
 	 * @param file Sequence file in fasta or fastq format
-	 * @param seqLines Sequence lines for 1 read
+	 * @param record Sequence record for 1 read
 	 * @return the header row for the sequence
 	 * @throws Exception if errors occur while obtaining header
 	 */
-	protected String getHeader( final File file, final List<String> seqLines ) throws Exception {
-		final String header = seqLines.get( 0 ).trim();
+	protected String getHeader( final File file, final SeqRecord record ) throws Exception {
+		final String header = record.getHeader().trim();
 		final String headerChar = header.substring( 0, 1 );
 		final String sampleId = SeqUtil.getSampleId( file.getName() );
 		final long numReads = incrementNumReads( file );
@@ -133,7 +136,11 @@ public class Multiplexer extends JavaModuleImpl implements SeqModule {
 		else if( DemuxUtil.hasValidBarcodes() ) {
 			final String barcode =
 				MetaUtil.getField( sampleId, Config.getString( this, MetaUtil.META_BARCODE_COLUMN ) );
-			final String rc = SeqUtil.reverseComplement( barcode );
+			String rc = this.rcBarcodes.get( barcode );
+			if( rc == null ) {
+				rc = SeqUtil.reverseComplement( barcode );
+				this.rcBarcodes.put( barcode, rc );
+			}
 
 			if( header.contains( barcode ) ) return header;
 			else if( header.contains( rc ) ) {
@@ -153,26 +160,16 @@ public class Multiplexer extends JavaModuleImpl implements SeqModule {
 	 */
 	protected void multiplex( final File sample ) throws Exception {
 		Log.info( getClass(), "Multiplexing file  = " + sample.getAbsolutePath() );
-		final File muxFile = new File( getMutliplexeFileName( sample ) );
-		final List<String> seqLines = new ArrayList<>();
-		BufferedReader reader = null;
-		BufferedWriter writer = null;
+		final SeqRecordWriter writer = getMuxWriter( sample );
+		final SeqRecordReader reader = new SeqRecordReader( sample );
 		try {
-			reader = BioLockJUtil.getFileReader( sample );
-			writer = new BufferedWriter( new FileWriter( muxFile, true ) );
-			for( String line = reader.readLine(); line != null; line = reader.readLine() ) {
-				seqLines.add( line );
-				if( seqLines.size() == SeqUtil.getNumLinesPerRead() ) // full read
-				{
-					writer.write( getHeader( sample, seqLines ) + RETURN );
-					for( int i = 1; i < seqLines.size(); i++ )
-						writer.write( seqLines.get( i ) + RETURN );
-					seqLines.clear();
-				}
+			final SeqRecord record = new SeqRecord();
+			while( reader.next( record ) ) {
+				record.setHeader( getHeader( sample, record ) );
+				writer.write( record );
 			}
 		} finally {
-			if( writer != null ) writer.close();
-			if( reader != null ) reader.close();
+			reader.close();
 		}
 	}
 
@@ -198,32 +195,13 @@ public class Multiplexer extends JavaModuleImpl implements SeqModule {
 			"All other BioLockJ modules require demultiplexed data." );
 	}
 
-	private void compressData() throws Exception {
-		for( final String path: this.muxFiles ) {
-			FileInputStream fis = null;
-			FileOutputStream fos = null;
-			GZIPOutputStream gzipOS = null;
-			try {
-				fis = new FileInputStream( path );
-				fos = new FileOutputStream( path + Constants.GZIP_EXT );
-				gzipOS = new GZIPOutputStream( fos );
-				final byte[] buffer = new byte[ 1024 ];
-				int len;
-				while( ( len = fis.read( buffer ) ) != -1 )
-					gzipOS.write( buffer, 0, len );
-			} finally {
-				if( gzipOS != null ) gzipOS.close();
-				if( fos != null ) fos.close();
-				if( fis != null ) fis.close();
-			}
-		}
-	}
-
-	private String getMutliplexeFileName( final File file ) throws Exception {
+	// Get the writer of the multiplexed file for the read direction, kept open until all samples are written
+	private SeqRecordWriter getMuxWriter( final File file ) throws Exception {
 		final String path = getOutputDir().getAbsolutePath() + File.separator + Config.pipelineName() +
-			SeqUtil.getReadDirectionSuffix( file ) + "." + SeqUtil.getSeqType();
-		this.muxFiles.add( path );
-		return path;
+			SeqUtil.getReadDirectionSuffix( file ) + "." + SeqUtil.getSeqType() +
+			( Config.getBoolean( this, DO_GZIP ) ? Constants.GZIP_EXT: "" );
+		if( !this.muxWriters.containsKey( path ) ) this.muxWriters.put( path, new SeqRecordWriter( new File( path ) ) );
+		return this.muxWriters.get( path );
 	}
 
 	private long getNumReads( final File file ) {
@@ -251,13 +229,9 @@ public class Multiplexer extends JavaModuleImpl implements SeqModule {
 		return numReads;
 	}
 
-	private void removeDecompressedFiles() {
-		for( final String path: this.muxFiles )
-			new File( path ).delete();
-	}
-
 	private final Map<String, Long> fwMap = new HashMap<>();
-	private final Set<String> muxFiles = new HashSet<>();
+	private final Map<String, SeqRecordWriter> muxWriters = new HashMap<>();
+	private final Map<String, String> rcBarcodes = new HashMap<>();
 	private int rcCount = 0;
 	private final Map<String, Long> rvMap = new HashMap<>();
 	private long totalNumFwReads = 0L;
@@ -22,6 +22,9 @@ import biolockj.module.JavaModuleImpl;
 import biolockj.module.SeqModule;
 import biolockj.module.implicit.RegisterNumReads;
 import biolockj.util.*;
+import biolockj.util.SeqRecordUtil.SeqRecord;
+import biolockj.util.SeqRecordUtil.SeqRecordReader;
+import biolockj.util.SeqRecordUtil.SeqRecordWriter;
 
 /**
  * This BioModule imposes a minimum and/or maximum number of reads per sample. Samples below the minimum are discarded.
@@ -128,25 +131,22 @@ public class RarefySeqs extends JavaModuleImpl implements SeqModule {
 		final String name =
 			getOutputDir().getAbsolutePath() + File.separator + SeqUtil.getSampleId( input.getName() ) + fileExt;
 		final File output = new File( name );
-		final BufferedReader reader = BioLockJUtil.getFileReader( input );
-		final BufferedWriter writer = new BufferedWriter( new FileWriter( output ) );
+		final SeqRecordReader reader = new SeqRecordReader( input );
+		final SeqRecordWriter writer = new SeqRecordWriter( output );
 		Log.info( getClass(),
 			"Building file [#lines/read=" + SeqUtil.getNumLinesPerRead() + "]: " + output.getAbsolutePath() );
 
 		try {
-			long index = 0;
-			int i = 0;
+			final Set<Long> keepIndexes = new HashSet<>( indexes );
 			final Set<Long> usedIndexes = new HashSet<>();
-			for( String line = reader.readLine(); line != null; line = reader.readLine() ) {
-				if( indexes.contains( index ) ) {
-					if( !usedIndexes.contains( index ) ) Log.debug( getClass(), "Add to usedIndexes: " + index );
+			final SeqRecord record = new SeqRecord();
+			for( long index = 0; reader.next( record ); index++ )
+				if( keepIndexes.contains( index ) ) {
+					Log.debug( getClass(), "Add to usedIndexes: " + index );
 					usedIndexes.add( index );
-					writer.write( line + RETURN );
+					writer.write( record );
 				}
 
-				if( ++i % SeqUtil.getNumLinesPerRead() == 0 ) index++;
-			}
-
 			this.readsPerSample.put( SeqUtil.getSampleId( input.getName() ), Integer.toString( indexes.size() ) );
 
 			if( !usedIndexes.containsAll( indexes ) ) {
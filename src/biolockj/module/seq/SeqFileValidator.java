@@ -21,6 +21,9 @@ import biolockj.module.JavaModuleImpl;
 import biolockj.module.SeqModule;
 import biolockj.module.implicit.RegisterNumReads;
 import biolockj.util.*;
+import biolockj.util.SeqRecordUtil.SeqRecord;
+import biolockj.util.SeqRecordUtil.SeqRecordReader;
+import biolockj.util.SeqRecordUtil.SeqRecordWriter;
 
 /**
  * This BioModule validates fasta/fastq file formats are valid and enforces min/max read lengths.
@@ -144,79 +147,71 @@ public class SeqFileValidator extends JavaModuleImpl implements SeqModule {
 		long combinedReadLen = 0;
 		int seqNum = 0;
 
-		final List<String> seqLines = new ArrayList<>();
 		final List<String> badLines = new ArrayList<>();
 		final File outputFile = new File( getFileName( getOutputDir(), file.getName() ) );
-		final BufferedReader reader = BioLockJUtil.getFileReader( file );
-		final BufferedWriter writer = new BufferedWriter( new FileWriter( outputFile ) );
+		final SeqRecordReader reader = new SeqRecordReader( file, true );
+		final SeqRecordWriter writer = new SeqRecordWriter( outputFile );
 		try {
-			String line = null;
-
-			try {
-				line = SeqUtil.scanFirstLine( reader, file );
-			} catch( final Exception ex ) {
+			final SeqRecord record = new SeqRecord();
+			if( !reader.next( record ) ) {
 				this.badFiles.add( outputFile );
-				Log.debug( getClass(), "Error scanning input file: " + ex.getMessage() );
+				Log.debug( getClass(), "Error scanning input file: Input dir contains empty file: " +
+					file.getAbsolutePath() );
 				return;
 			}
 
+			final List<String> headerChars = SeqUtil.getSeqHeaderChars();
+			final String sampleId = SeqUtil.getSampleId( file.getName() );
+			final int minLen = minReadLen();
+			final Integer seqMax = Config.getPositiveInteger( this, INPUT_SEQ_MAX );
 			do {
-				seqLines.add( line.trim() );
-				if( seqLines.size() == SeqUtil.getNumLinesPerRead() ) {
-					seqNum++;
-					final int headerLen = seqLines.get( 0 ).length();
-					final int seqLen = seqLines.get( 1 ).length();
-					String headerChar = "";
-					if( headerLen == 0 ) Log.warn( getClass(), "Sequence #" + seqNum +
-						" has an empty header & seq len = " + seqLen + " in ---> " + file.getAbsolutePath() );
-					else headerChar = seqLines.get( 0 ).substring( 0, 1 );
-
-					if( !SeqUtil.getSeqHeaderChars().contains( headerChar ) ) {
-						stats[ INDEX_NUM_READS_INVALID_FORMAT ]++;
-						badLines.addAll( seqLines );
-						Log.warn( getClass(),
-							"Sequence #" + seqNum + " format invalid.  Must begin with a valid header char (" +
-								SeqUtil.getSeqHeaderChars() + ")  --> header line = " + seqLines.get( 0 ) );
-					} else if( seqLen < minReadLen() ) {
-						stats[ INDEX_NUM_READS_TOO_SHORT ]++;
-						badLines.addAll( seqLines );
-						Log.warn( getClass(),
-							"Sequence #" + seqNum + " format invalid.  Must have a minimum number of bases (" +
-								minReadLen() + ")  --> \n" + seqLines.get( 0 ) + "\n" + seqLines.get( 1 ) );
-					} else if( SeqUtil.isFastQ() && seqLen != seqLines.get( 3 ).length() ) {
-						stats[ INDEX_NUM_READS_INVALID_FORMAT ]++;
-						badLines.addAll( seqLines );
-						Log.warn( getClass(), "Sequence #" + seqNum + " fastq format invalid.  Must have equal " +
-							" number of bases and quality scores: " + seqLines.get( 0 ) );
-					} else {
-						stats[ INDEX_NUM_VALID_READS ]++;
-						setMaxSeq( SeqUtil.getSampleId( file.getName() ), seqLen );
-						final Integer seqMax = Config.getPositiveInteger( this, INPUT_SEQ_MAX );
-						if( seqMax != null && seqMax > 0 && seqLen > seqMax ) {
-							stats[ INDEX_NUM_TRIMMED_READS ]++;
-							seqLines.set( 1, seqLines.get( 1 ).substring( 0, seqMax ) );
-							if( SeqUtil.isFastQ() ) seqLines.set( 3, seqLines.get( 3 ).substring( 0, seqMax ) );
-						}
-
-						final long readLen = seqLines.get( 1 ).length();
-						combinedReadLen += readLen;
-
-						if( readLen > 0 && stats[ INDEX_MIN_READS ] == 0 || readLen < stats[ INDEX_MIN_READS ] )
-							stats[ INDEX_MIN_READS ] = readLen;
-						if( readLen > stats[ INDEX_MAX_READS ] ) stats[ INDEX_MAX_READS ] = readLen;
-
-						for( final String seqLine: seqLines )
-							writer.write( seqLine + RETURN );
+				record.strip();
+				seqNum++;
+				final String header = record.getHeader();
+				final int seqLen = record.getSeqLength();
+				String headerChar = "";
+				if( header.isEmpty() ) Log.warn( getClass(), "Sequence #" + seqNum +
+					" has an empty header & seq len = " + seqLen + " in ---> " + file.getAbsolutePath() );
+				else headerChar = header.substring( 0, 1 );
+
+				if( !headerChars.contains( headerChar ) ) {
+					stats[ INDEX_NUM_READS_INVALID_FORMAT ]++;
+					badLines.addAll( record.getLines() );
+					Log.warn( getClass(), "Sequence #" + seqNum +
+						" format invalid.  Must begin with a valid header char (" + headerChars +
+						")  --> header line = " + header );
+				} else if( seqLen < minLen ) {
+					stats[ INDEX_NUM_READS_TOO_SHORT ]++;
+					badLines.addAll( record.getLines() );
+					Log.warn( getClass(), "Sequence #" + seqNum +
+						" format invalid.  Must have a minimum number of bases (" + minLen + ")  --> \n" + header +
+						"\n" + record.getSeq() );
+				} else if( record.isFastQ() && seqLen != record.getQualLength() ) {
+					stats[ INDEX_NUM_READS_INVALID_FORMAT ]++;
+					badLines.addAll( record.getLines() );
+					Log.warn( getClass(), "Sequence #" + seqNum + " fastq format invalid.  Must have equal " +
+						" number of bases and quality scores: " + header );
+				} else {
+					stats[ INDEX_NUM_VALID_READS ]++;
+					setMaxSeq( sampleId, seqLen );
+					if( seqMax != null && seqMax > 0 && seqLen > seqMax ) {
+						stats[ INDEX_NUM_TRIMMED_READS ]++;
+						record.trim( 0, seqMax );
 					}
 
-					seqLines.clear();
-				}
+					final long readLen = record.getSeqLength();
+					combinedReadLen += readLen;
 
-				line = reader.readLine();
-			} while( line != null );
+					if( readLen > 0 && stats[ INDEX_MIN_READS ] == 0 || readLen < stats[ INDEX_MIN_READS ] )
+						stats[ INDEX_MIN_READS ] = readLen;
+					if( readLen > stats[ INDEX_MAX_READS ] ) stats[ INDEX_MAX_READS ] = readLen;
+
+					writer.write( record );
+				}
+			} while( reader.next( record ) );
 		} finally {
 			writer.close();
-			if( reader != null ) reader.close();
+			reader.close();
 		}
 		Log.info( BioLockJUtil.class, "Output file: " + outputFile.getAbsolutePath() );
 
@@ -20,6 +20,10 @@ import biolockj.module.JavaModuleImpl;
 import biolockj.module.SeqModule;
 import biolockj.module.implicit.RegisterNumReads;
 import biolockj.util.*;
+import biolockj.util.DnaUtil.IupacPrimer;
+import biolockj.util.SeqRecordUtil.SeqRecord;
+import biolockj.util.SeqRecordUtil.SeqRecordReader;
+import biolockj.util.SeqRecordUtil.SeqRecordWriter;
 
 /**
  * This BioModule removes sequence primers from demultiplexed files.<br>
@@ -315,6 +319,20 @@ public class TrimPrimers extends JavaModuleImpl implements SeqModule {
 		return primers;
 	}
 
+	/**
+	 * Compile the primers returned by {@link #getPrimers()} so each read is matched base by base instead of running the
+	 * primer regex for every read.
+	 *
+	 * @return List of compiled primers
+	 * @throws Exception if unable to read the file
+	 */
+	protected List<IupacPrimer> getCompiledPrimers() throws Exception {
+		final List<IupacPrimer> primers = new ArrayList<>();
+		for( final String primer: getPrimers() )
+			primers.add( DnaUtil.compilePrimer( primer ) );
+		return primers;
+	}
+
 	private List<File> getFwReads( final Map<File, File> pairedReads ) {
 		if( pairedReads != null ) return new ArrayList<>( pairedReads.keySet() );
 		return getInputFiles();
@@ -331,31 +349,28 @@ public class TrimPrimers extends JavaModuleImpl implements SeqModule {
 			SeqUtil.getReadDirectionSuffix( file ) + "." + SeqUtil.getSeqType();
 	}
 
-	private Set<String> getValidHeaders( final File file, final Set<String> primers ) throws Exception {
+	private Set<String> getValidHeaders( final File file, final List<IupacPrimer> primers ) throws Exception {
 		final Set<String> validHeaders = new HashSet<>();
-		final BufferedReader reader = BioLockJUtil.getFileReader( file );
-		int lineCounter = 1;
-		String header = null;
+		final SeqRecordReader reader = new SeqRecordReader( file );
 		try {
-			for( String line = reader.readLine(); line != null; line = reader.readLine() ) {
-				line = line.trim();
-				if( lineCounter % SeqUtil.getNumLinesPerRead() == 1 ) header = SeqUtil.getHeader( line );
-				else if( lineCounter % SeqUtil.getNumLinesPerRead() == 2 ) {
-					boolean foundHeader = false;
-					for( final String seq: primers ) {
-						final int seqLength = line.length();
-						line = line.replaceFirst( seq, "" );
-						if( seqLength != line.length() ) foundHeader = true;
-					}
+			final SeqRecord record = new SeqRecord();
+			while( reader.next( record ) ) {
+				record.strip();
+				final String header = SeqUtil.getHeader( record.getHeader() );
+				String seq = record.getSeq();
+				boolean foundHeader = false;
+				for( final IupacPrimer primer: primers ) {
+					final int seqLength = seq.length();
+					seq = primer.trim( seq );
+					if( seqLength != seq.length() ) foundHeader = true;
+				}
 
-					if( foundHeader ) {
-						if( validHeaders.contains( header ) )
-							throw new Exception( "NON-FATAL Exception: Duplicate header: " + header );
+				if( foundHeader ) {
+					if( validHeaders.contains( header ) )
+						throw new Exception( "NON-FATAL Exception: Duplicate header: " + header );
 
-						validHeaders.add( header );
-					}
+					validHeaders.add( header );
 				}
-				lineCounter++;
 			}
 
 			Log.info( getClass(), file.getName() + " # valid headers = " + validHeaders.size() );
@@ -398,11 +413,11 @@ public class TrimPrimers extends JavaModuleImpl implements SeqModule {
 		else if( this.mergedReadTwoPrimers ) Log.warn( getClass(), "TrimPrimers # " + reportLabel + " = 0" );
 	}
 
-	private void processFile( final File file, final Set<String> primers ) throws Exception {
+	private void processFile( final File file, final List<IupacPrimer> primers ) throws Exception {
 		processFile( file, new HashSet<>(), primers );
 	}
 
-	private void processFile( final File file, final Set<String> validHeaders, final Set<String> primers )
+	private void processFile( final File file, final Set<String> validHeaders, final List<IupacPrimer> primers )
 		throws Exception {
 		Log.info( getClass(), "Processing file = " + file.getAbsolutePath() );
 		this.seqs.add( file );
@@ -412,92 +427,81 @@ public class TrimPrimers extends JavaModuleImpl implements SeqModule {
 		final File trimmedFile = new File( getTrimFilePath( file ) );
 		Log.info( getClass(), "Create trimmed file = " + trimmedFile.getAbsolutePath() );
 
-		final BufferedReader reader = BioLockJUtil.getFileReader( file );
-		final BufferedWriter writer = new BufferedWriter( new FileWriter( trimmedFile ) );
+		final SeqRecordReader reader = new SeqRecordReader( file );
+		final SeqRecordWriter writer = new SeqRecordWriter( trimmedFile );
 		try {
-			int fwPrimerLength = 0;
-			int rvPrimerLength = 0;
-			final List<String> seqLines = new ArrayList<>();
-			boolean found = false;
-
-			String origSequence = "";
-			for( String line = reader.readLine(); line != null; line = reader.readLine() ) {
-				if( seqLines.size() == 1 ) {
-					origSequence = line;
-					found = false;
-					for( final String seq: primers )
-						if( line.replaceFirst( seq, "" ).length() != line.length() ) {
-							if( seq.startsWith( "^" ) ) {
-								if( fwPrimerLength != 0 ) throw new Exception(
-									"INVALID SEQ!  Read contains 2 forward primers!  " + origSequence );
-
-								fwPrimerLength = line.length() - line.replaceFirst( seq, "" ).length();
-							} else if( seq.endsWith( "$" ) ) {
-								if( rvPrimerLength != 0 ) throw new Exception(
-									"INVALID SEQ!  Read contains 2 reverse primers!  " + origSequence );
-
-								rvPrimerLength = line.length() - line.replaceFirst( seq, "" ).length();
-							} else throw new Exception(
-								"INVALID PRIMER!  Primers must start with \"^\" or end with \"$\"" );
-
-							line = line.replaceFirst( seq, "" );
-
-							if( this.mergedReadTwoPrimers && fwPrimerLength < 1 && rvPrimerLength < 1 ) {
-								// Log.warn( getClass(), "Read missing BOTH primers " + origSequence );
-								if( this.missingBothPrimers.get( file.getName() ) == null ) {
-									final Map<String, String> m = new HashMap<>();
-									m.put( seqLines.get( 0 ), origSequence );
-									this.missingBothPrimers.put( file.getName(), m );
-								} else this.missingBothPrimers.get( file.getName() ).put( seqLines.get( 0 ),
-									origSequence );
-							} else if( this.mergedReadTwoPrimers && fwPrimerLength < 1 ) {
-								Log.debug( getClass(), "Read missing forward primer " + origSequence );
-								if( this.missingFwPrimers.get( file.getName() ) == null ) {
-									final Map<String, String> m = new HashMap<>();
-									m.put( seqLines.get( 0 ), origSequence );
-									this.missingFwPrimers.put( file.getName(), m );
-								} else
-									this.missingFwPrimers.get( file.getName() ).put( seqLines.get( 0 ), origSequence );
-
-							} else if( this.mergedReadTwoPrimers && rvPrimerLength < 1 ) {
-								Log.debug( getClass(), "Read missing reverse primer " + origSequence );
-								if( this.missingRvPrimers.get( file.getName() ) == null ) {
-									final Map<String, String> m = new HashMap<>();
-									m.put( seqLines.get( 0 ), origSequence );
-									this.missingRvPrimers.put( file.getName(), m );
-								} else
-									this.missingRvPrimers.get( file.getName() ).put( seqLines.get( 0 ), origSequence );
-							} else found = true;
-						}
-
-					if( found ) {
-						final Long x = this.numLinesWithPrimer.get( file.getAbsolutePath() );
-						this.numLinesWithPrimer.put( file.getAbsolutePath(), x == null ? 1L: x + 1L );
-					} else {
-						final Long x = this.numLinesNoPrimer.get( file.getAbsolutePath() );
-						this.numLinesNoPrimer.put( file.getAbsolutePath(), x == null ? 1L: x + 1L );
+			final SeqRecord record = new SeqRecord();
+			while( reader.next( record ) ) {
+				final String header = record.getHeader();
+				final String origSequence = record.getSeq();
+				String seq = origSequence;
+				int fwPrimerLength = 0;
+				int rvPrimerLength = 0;
+				boolean found = false;
+				for( final IupacPrimer primer: primers ) {
+					final int primerLength = primer.matchLength( seq );
+					if( primerLength > 0 ) {
+						if( primer.isForward() ) {
+							if( fwPrimerLength != 0 ) throw new Exception(
+								"INVALID SEQ!  Read contains 2 forward primers!  " + origSequence );
+
+							fwPrimerLength = primerLength;
+						} else if( primer.isReverse() ) {
+							if( rvPrimerLength != 0 ) throw new Exception(
+								"INVALID SEQ!  Read contains 2 reverse primers!  " + origSequence );
+
+							rvPrimerLength = primerLength;
+						} else throw new Exception(
+							"INVALID PRIMER!  Primers must start with \"^\" or end with \"$\"" );
+
+						seq = primer.trim( seq );
+
+						if( this.mergedReadTwoPrimers && fwPrimerLength < 1 && rvPrimerLength < 1 ) {
+							// Log.warn( getClass(), "Read missing BOTH primers " + origSequence );
+							if( this.missingBothPrimers.get( file.getName() ) == null ) {
+								final Map<String, String> m = new HashMap<>();
+								m.put( header, origSequence );
+								this.missingBothPrimers.put( file.getName(), m );
+							} else this.missingBothPrimers.get( file.getName() ).put( header, origSequence );
+						} else if( this.mergedReadTwoPrimers && fwPrimerLength < 1 ) {
+							Log.debug( getClass(), "Read missing forward primer " + origSequence );
+							if( this.missingFwPrimers.get( file.getName() ) == null ) {
+								final Map<String, String> m = new HashMap<>();
+								m.put( header, origSequence );
+								this.missingFwPrimers.put( file.getName(), m );
+							} else this.missingFwPrimers.get( file.getName() ).put( header, origSequence );
+
+						} else if( this.mergedReadTwoPrimers && rvPrimerLength < 1 ) {
+							Log.debug( getClass(), "Read missing reverse primer " + origSequence );
+							if( this.missingRvPrimers.get( file.getName() ) == null ) {
+								final Map<String, String> m = new HashMap<>();
+								m.put( header, origSequence );
+								this.missingRvPrimers.put( file.getName(), m );
+							} else this.missingRvPrimers.get( file.getName() ).put( header, origSequence );
+						} else found = true;
 					}
-				} else if( seqLines.size() == 3 ) {
-					if( fwPrimerLength > 0 ) line = line.substring( fwPrimerLength );
-					if( rvPrimerLength > 0 ) line = line.substring( 0, line.length() - rvPrimerLength );
 				}
 
-				seqLines.add( line );
+				if( found ) {
+					final Long x = this.numLinesWithPrimer.get( file.getAbsolutePath() );
+					this.numLinesWithPrimer.put( file.getAbsolutePath(), x == null ? 1L: x + 1L );
+				} else {
+					final Long x = this.numLinesNoPrimer.get( file.getAbsolutePath() );
+					this.numLinesNoPrimer.put( file.getAbsolutePath(), x == null ? 1L: x + 1L );
+				}
 
-				if( seqLines.size() == SeqUtil.getNumLinesPerRead() ) {
-					final boolean validRecord =
-						found && ( SeqUtil.hasPairedReads() ? validHeaders.contains( seqLines.get( 0 ) ): true );
+				if( !seq.equals( origSequence ) ) record.setSeq( seq );
+				if( record.isFastQ() && ( fwPrimerLength > 0 || rvPrimerLength > 0 ) ) {
+					final String qual = record.getQual();
+					record.setQual( qual.substring( fwPrimerLength, qual.length() - rvPrimerLength ) );
+				}
 
-					if( !Config.getBoolean( this, INPUT_REQUIRE_PRIMER ) || validRecord ) {
-						final Long x = this.seqsWithPrimersTrimmed.get( file );
-						this.seqsWithPrimersTrimmed.put( file, x == null ? 1L: x + 1L );
+				final boolean validRecord = found && ( SeqUtil.hasPairedReads() ? validHeaders.contains( header ): true );
 
-						for( int j = 0; j < SeqUtil.getNumLinesPerRead(); j++ )
-							writer.write( seqLines.get( j ) + RETURN );
-					}
-					fwPrimerLength = 0;
-					rvPrimerLength = 0;
-					seqLines.clear();
+				if( !Config.getBoolean( this, INPUT_REQUIRE_PRIMER ) || validRecord ) {
+					final Long x = this.seqsWithPrimersTrimmed.get( file );
+					this.seqsWithPrimersTrimmed.put( file, x == null ? 1L: x + 1L );
+					writer.write( record );
 				}
 			}
 		} catch( final Exception ex ) {
@@ -509,7 +513,7 @@ public class TrimPrimers extends JavaModuleImpl implements SeqModule {
 	}
 
 	private void trimSeqs() throws Exception {
-		final Set<String> primers = getPrimers();
+		final List<IupacPrimer> primers = getCompiledPrimers();
 		final boolean hasPairedReads = SeqUtil.hasPairedReads();
 		final Map<File, File> pairedReads = hasPairedReads ? SeqUtil.getPairedReads( getInputFiles() ): null;
 		final List<File> files = getFwReads( pairedReads );
@@ -522,7 +526,7 @@ public class TrimPrimers extends JavaModuleImpl implements SeqModule {
 			if( pairedReads != null ) {
 				validReads.retainAll( getValidHeaders( pairedReads.get( file ), primers ) );
 				processFile( file, validReads, primers );
-				processFile( pairedReads.get( file ), validReads );
+				processFile( pairedReads.get( file ), validReads, primers );
 			} else processFile( file, primers );
 
 			if( ( i++ + 1 ) % 25 == 0 ) Log.info( getClass(),
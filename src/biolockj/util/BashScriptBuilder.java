@@ -12,6 +12,7 @@
 package biolockj.util;
 
 import java.io.*;
+import java.nio.file.Files;
 import java.util.*;
 import java.util.regex.Matcher;
 import biolockj.*;
@@ -59,6 +60,39 @@ public class BashScriptBuilder {
 		}
 	}
 
+	/**
+	 * Build the job array script submitted once by the MAIN script in place of 1 job per worker script. Each array task
+	 * runs the worker script selected by its task index, so each worker still saves its own status indicator files.
+	 * The task index is read from the SLURM, PBS/Torque, PBS Pro, SGE or LSF array task variable. If retries or resume
+	 * are enabled, tasks exit immediately if the worker script already started.
+	 * 
+	 * @param module ScriptModule
+	 * @return Job array script
+	 * @throws ConfigFormatException if retry or resume properties are invalid
+	 * @throws IOException if errors occur writing the script
+	 */
+	protected static File buildArrayScript( final ScriptModule module ) throws ConfigFormatException, IOException {
+		final String path = getMainScriptPath( module ).replace( Constants.SH_EXT, ARRAY_EXT );
+		final List<String> lines = new ArrayList<>();
+		final String header = Config.getString( module, SCRIPT_JOB_HEADER );
+		final String defaultHeader = Config.getString( module, Constants.SCRIPT_DEFAULT_HEADER );
+		if( header != null ) lines.add( header );
+		else if( defaultHeader != null ) lines.add( defaultHeader );
+		lines.add( "" );
+		lines.add( "# BioLockJ." + BioLockJUtil.getVersion() + ": " + path + RETURN );
+		lines.add( SCRIPT_DIR + "=\"" + module.getScriptDir().getAbsolutePath() + "\"" );
+		lines.add( "workers=(" );
+		for( final File worker: workerScripts )
+			lines.add( "\"" + worker.getAbsolutePath() + "\"" );
+		lines.add( ")" );
+		lines.add( "taskId=${SLURM_ARRAY_TASK_ID:-${PBS_ARRAYID:-${PBS_ARRAY_INDEX:-${SGE_TASK_ID:-${LSB_JOBINDEX}}}}}" );
+		lines.add( "worker=\"${workers[$(( taskId - 1 ))]}\"" );
+		if( skipStartedWorkers( module ) )
+			lines.add( "[ -f \"${worker}_" + Constants.SCRIPT_STARTED + "\" ] && exit 0" );
+		lines.add( "\"${worker}\"" );
+		return createScript( module, path, lines );
+	}
+
 	/**
 	 * Create bash worker script function: executeLine<br>
 	 * Capture status code of the payload script line. Call scriptFailed function to capture all failure info (if any
@@ -77,7 +111,24 @@ public class BashScriptBuilder {
 	}
 
 	/**
-	 * Build the MIAN script.
+	 * Create bash MAIN script function: waitForWorker<br>
+	 * Block until fewer than $1 worker containers are running in the background.
+	 * 
+	 * @return Bash script lines
+	 */
+	protected static List<String> buildWaitForWorkerFunction() {
+		final List<String> lines = new ArrayList<>();
+		lines.add( "function " + FUNCTION_WAIT_FOR_WORKER + "() {" );
+		lines.add( "while [ $(jobs -rp | wc -l) -ge ${1} ]; do" );
+		lines.add( "wait -n 2> /dev/null || sleep 1" );
+		lines.add( "done" );
+		lines.add( "}" + RETURN );
+		return lines;
+	}
+
+	/**
+	 * Build the MIAN script. If failed workers are retried, each worker line runs in a subshell so a failed worker does
+	 * not stop the MAIN script before the remaining workers run, and the MAIN script exits with an error at the end.
 	 * 
 	 * @param module ScriptModule
 	 * @throws IOException if errors occur writing the MAIN script lines
@@ -86,8 +137,24 @@ public class BashScriptBuilder {
 	protected static void buildMainScript( final ScriptModule module ) throws ConfigException, IOException {
 
 		final List<String> mainScriptLines = initMainScript( module );
-		for( final File worker: workerScripts )
-			mainScriptLines.add( getMainScriptExecuteWorkerLine( worker.getAbsolutePath() ) );
+		final int numContainers = DockerUtil.inDockerEnv() ? DockerUtil.getNumContainers( module ): 1;
+		final boolean skipStarted = skipStartedWorkers( module );
+		final boolean retry = RetryUtil.isEnabled( module );
+		if( useJobArray( module ) ) mainScriptLines.add( FUNCTION_EXECUTE_LINE + " \"" + FUNCTION_RUN_JOB + " " +
+			buildArrayScript( module ).getAbsolutePath() + "\" ${LINENO}" );
+		else for( final File worker: workerScripts ) {
+			final String line = ( skipStarted ? "[ -f \"" + worker.getAbsolutePath() + "_" + Constants.SCRIPT_STARTED +
+				"\" ] || ": "" ) + getMainScriptExecuteWorkerLine( worker.getAbsolutePath() );
+			if( numContainers > 1 ) {
+				mainScriptLines.add( FUNCTION_WAIT_FOR_WORKER + " " + numContainers );
+				mainScriptLines.add( line + " &" );
+			} else if( retry ) mainScriptLines.add( "( " + line + " )" );
+			else mainScriptLines.add( line );
+		}
+
+		if( numContainers > 1 ) mainScriptLines.add( "wait" );
+		if( numContainers > 1 || retry && !useJobArray( module ) ) mainScriptLines.add(
+			"[ -f \"" + getMainScriptPath( module ) + "_" + Constants.SCRIPT_FAILURES + "\" ] && exit 1" );
 
 		mainScriptLines
 			.add( RETURN + "touch \"" + getMainScriptPath( module ) + "_" + Constants.SCRIPT_SUCCESS + "\"" );
@@ -118,7 +185,8 @@ public class BashScriptBuilder {
 
 	/**
 	 * Create the script. Leading zeros added if needed so all worker scripts have same number of digits. Print the
-	 * worker script as DEBUG to the log file.
+	 * worker script as DEBUG to the log file. If a resumed module rewrites an existing script with new content, the
+	 * script status indicator files are deleted so the script runs again.
 	 * 
 	 * @param module ScriptModule 
 	 * @param scriptPath Worker script path
@@ -129,12 +197,17 @@ public class BashScriptBuilder {
 	protected static File createScript( final ScriptModule module, final String scriptPath, final List<String> lines ) throws IOException {
 		Log.info( BashScriptBuilder.class, "Write new script: " + scriptPath );
 		final File workerScript = new File( scriptPath );
+		final byte[] prevScript = workerScript.isFile() ? Files.readAllBytes( workerScript.toPath() ): null;
 		final BufferedWriter writer = new BufferedWriter( new FileWriter( workerScript ) );
 		try {
 			writeScript( module, writer, lines );
 		} finally {
 			writer.close();
 		}
+		if( prevScript != null && !Arrays.equals( prevScript, Files.readAllBytes( workerScript.toPath() ) ) ) {
+			Log.info( BashScriptBuilder.class, "Script changed since last run, reset status: " + scriptPath );
+			RetryUtil.clearStatus( workerScript );
+		}
 		return workerScript;
 	}
 
@@ -202,11 +275,21 @@ public class BashScriptBuilder {
 		lines.add( SCRIPT_DIR + "=\"" + module.getScriptDir().getAbsolutePath() + "\"" + RETURN );
 		lines.add( "touch \"" + mainScriptPath + "_" + Constants.SCRIPT_STARTED + "\"" + RETURN );
 		lines.add( "cd " + module.getScriptDir().getAbsolutePath() + RETURN );
-		if( DockerUtil.inDockerEnv() ) lines.addAll( DockerUtil.buildSpawnDockerContainerFunction( module ) );
-		else if( Config.isOnCluster() ) {
+		if( DockerUtil.inDockerEnv() ) {
+			lines.addAll( DockerUtil.buildSpawnDockerContainerFunction( module ) );
+			if( DockerUtil.getNumContainers( module ) > 1 ) lines.addAll( buildWaitForWorkerFunction() );
+		} else if( Config.isOnCluster() ) {
+			final String retryCommand = Config.getString( module, CLUSTER_RETRY_BATCH_COMMAND );
 			lines.add( "# Submit job script" );
 			lines.add( "function " + FUNCTION_RUN_JOB + "() {" );
-			lines.add( Config.requireString( module, CLUSTER_BATCH_COMMAND ) + " $1" );
+			if( useJobArray( module ) ) lines.add( getArrayCommand( module ) + " $1" );
+			else if( retryCommand != null ) {
+				lines.add( "if [ -f \"${1}_" + Constants.SCRIPT_FAILURES + "_1\" ]; then" );
+				lines.add( retryCommand + " $1" );
+				lines.add( "else" );
+				lines.add( Config.requireString( module, CLUSTER_BATCH_COMMAND ) + " $1" );
+				lines.add( "fi" );
+			} else lines.add( Config.requireString( module, CLUSTER_BATCH_COMMAND ) + " $1" );
 			lines.add( "}" + RETURN );
 		}
 		lines.addAll( buildScriptFailureFunction( mainScriptPath ) );
@@ -245,6 +328,11 @@ public class BashScriptBuilder {
 		if( hasTempDir( module ) ) 
 			lines.add( TEMP_DIR + "=\"" + module.getTempDir().getAbsolutePath() + "\"" );
 		lines.add( "" );
+		if( RetryUtil.canResume( module ) ) {
+			// find -newer is strict, so wait 1 second to list files written in the same second the worker starts
+			lines.add( "touch \"" + scriptPath + "_" + OUTPUT_STAMP + "\"" );
+			lines.add( "sleep 1" );
+		}
 		lines.add( "touch \"" + scriptPath + "_" + Constants.SCRIPT_STARTED  + "\"" + RETURN );
 		lines.addAll( loadModules( module ) );
 
@@ -314,7 +402,8 @@ public class BashScriptBuilder {
 				throw new PipelineScriptException( module, true, " Worker script #" + workerNum() + " is empty." );
 			workerLines.addAll( getWorkerScriptLines( lines ) );
 			if( saveWorker( module, ++sampleCount, data.size() ) || !it.hasNext() ) {
-				if( !( module instanceof JavaModule ) )
+				if( RetryUtil.canResume( module ) ) workerLines.addAll( getOutputManifestLines( workerScriptPath ) );
+				else if( !( module instanceof JavaModule ) )
 					workerLines.add( "touch \"" + workerScriptPath + "_" + Constants.SCRIPT_SUCCESS + "\"" );
 				workerScripts.add( createScript( module, workerScriptPath, workerLines ) );
 				sampleCount = 0;
@@ -331,11 +420,33 @@ public class BashScriptBuilder {
 		Log.info( BashScriptBuilder.class, Constants.LOG_SPACER );
 	}
 
+	// Replace {range} with 1-N and {max} with M (or N if unset), otherwise limit concurrent array tasks with 1-N%M
+	private static String getArrayCommand( final ScriptModule module ) throws ConfigFormatException {
+		final Integer maxTasks = Config.getPositiveInteger( module, CLUSTER_ARRAY_MAX_TASKS );
+		final String cmd = Config.getString( module, CLUSTER_ARRAY_COMMAND );
+		if( cmd.contains( ARRAY_MAX ) ) return cmd.replace( ARRAY_RANGE, "1-" + workerNum() ).replace( ARRAY_MAX,
+			String.valueOf( maxTasks == null ? workerNum(): maxTasks ) );
+		return cmd.replace( ARRAY_RANGE, "1-" + workerNum() + ( maxTasks == null ? "": "%" + maxTasks ) );
+	}
+
 	private static String getMainScriptPath( final ScriptModule module ) {
 		return new File( module.getScriptDir().getAbsolutePath() + File.separator + BioModule.MAIN_SCRIPT_PREFIX +
 			module.getModuleDir().getName() + Constants.SH_EXT ).getAbsolutePath();
 	}
 
+	// List the output files written since the worker started, so a resumed module can verify them. Workers running at
+	// the same time share the output directory, so files already listed by other workers are excluded. Files of a
+	// worker still running may be listed too, which can only cause a needless rerun, never skip an incomplete worker.
+	private static List<String> getOutputManifestLines( final String workerScriptPath ) {
+		final String success = workerScriptPath + "_" + Constants.SCRIPT_SUCCESS;
+		final List<String> lines = new ArrayList<>();
+		lines.add( "find " + OUTPUT_DIR_VAR + " -type f -newer \"" + workerScriptPath + "_" + OUTPUT_STAMP +
+			"\" | grep -vxFf <( cat " + SCRIPT_DIR_VAR + "/*_" + Constants.SCRIPT_SUCCESS + " 2> /dev/null ) > \"" +
+			success + PART_EXT + "\"" );
+		lines.add( "mv \"" + success + PART_EXT + "\" \"" + success + "\"" );
+		return lines;
+	}
+
 	private static Integer getMinSamplesPerWorker( final BioModule module, final int count )
 		throws ConfigNotFoundException, ConfigFormatException {
 		return new Double( Math.floor( (double) count / (double) ModuleUtil.getNumWorkers( module ) ) ).intValue();
@@ -369,10 +480,35 @@ public class BashScriptBuilder {
 			workerNum() >= maxWorkers && sampleCount == minSamplesPerWorker;
 	}
 
+	// Retried and resumed modules resubmit the MAIN script, which must skip workers already started
+	private static boolean skipStartedWorkers( final ScriptModule module ) throws ConfigFormatException {
+		return RetryUtil.isEnabled( module ) || RetryUtil.canResume( module );
+	}
+
+	private static boolean useJobArray( final ScriptModule module ) {
+		return Config.isOnCluster() && Config.getString( module, CLUSTER_ARRAY_COMMAND ) != null;
+	}
+
 	private static int workerNum() {
 		return workerScripts.size();
 	}
 
+	/**
+	 * {@link biolockj.Config} String property: {@value #CLUSTER_ARRAY_COMMAND}<br>
+	 * Terminal command used to submit all worker scripts as 1 job array, {@value #ARRAY_RANGE} is replaced by the task
+	 * range and {@value #ARRAY_MAX} by {@value #CLUSTER_ARRAY_MAX_TASKS}. Examples: "sbatch --array={range}",
+	 * "qsub -t {range}" or "qsub -t {range} -tc {max}"
+	 */
+	protected static final String CLUSTER_ARRAY_COMMAND = "cluster.arrayCommand";
+
+	/**
+	 * {@link biolockj.Config} Integer property: {@value #CLUSTER_ARRAY_MAX_TASKS}<br>
+	 * Max number of job array tasks run at the same time. If {@value #CLUSTER_ARRAY_COMMAND} does not include
+	 * {@value #ARRAY_MAX}, the limit is appended to the task range as "1-N%M", which only SLURM, Torque and LSF support.
+	 * For other schedulers, such as SGE "-tc {max}", put {@value #ARRAY_MAX} where the scheduler expects the limit.
+	 */
+	protected static final String CLUSTER_ARRAY_MAX_TASKS = "cluster.arrayMaxTasks";
+
 	/**
 	 * {@link biolockj.Config} String property: {@value #CLUSTER_BATCH_COMMAND}<br>
 	 * Terminal command used to submit jobs on the cluster.
@@ -396,20 +532,33 @@ public class BashScriptBuilder {
 	 */
 	protected static final String CLUSTER_PROLOGUE = "cluster.prologue";
 
+	/**
+	 * {@link biolockj.Config} String property: {@value #CLUSTER_RETRY_BATCH_COMMAND}<br>
+	 * Terminal command used to resubmit failed worker scripts, for example to request more memory. If undefined,
+	 * {@value #CLUSTER_BATCH_COMMAND} is used.
+	 */
+	protected static final String CLUSTER_RETRY_BATCH_COMMAND = "cluster.retryBatchCommand";
+
 	/**
 	 * {@link biolockj.Config} String property: {@value #SCRIPT_JOB_HEADER}<br>
 	 * Header written at top of worker scripts
 	 */
 	protected static final String SCRIPT_JOB_HEADER = "cluster.jobHeader";
 
+	private static final String ARRAY_EXT = ".array";
+	private static final String ARRAY_MAX = "{max}";
+	private static final String ARRAY_RANGE = "{range}";
 	private static final String FUNCTION_EXECUTE_LINE = "executeLine";
 	private static final String FUNCTION_RUN_JOB = "runJob";
 	private static final String FUNCTION_SCRIPT_FAILED = "scriptFailed";
+	private static final String FUNCTION_WAIT_FOR_WORKER = "waitForWorker";
 	private static final String MOD_DIR = "modDir";
 	private static final String MOD_DIR_VAR = "${" + MOD_DIR + "}";
 	private static final String OUTPUT_DIR = "outputDir";
 	private static final String OUTPUT_DIR_VAR = "${" + OUTPUT_DIR + "}";
+	private static final String OUTPUT_STAMP = "OutputStamp";
 	private static final String PIPE_DIR = "pipeDir";
+	private static final String PART_EXT = ".part";
 	private static final String PIPE_DIR_VAR = "${" + PIPE_DIR + "}";
 	private static final String SCRIPT_DIR = "scriptDir";
 	private static final String SCRIPT_DIR_VAR = "${" + SCRIPT_DIR + "}";
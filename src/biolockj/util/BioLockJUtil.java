@@ -18,8 +18,6 @@ import java.text.DecimalFormat;
 import java.util.*;
 import java.util.jar.Manifest;
 import java.util.zip.GZIPInputStream;
-import org.apache.commons.io.FileUtils;
-import org.apache.commons.io.filefilter.HiddenFileFilter;
 import biolockj.*;
 import biolockj.exception.*;
 import biolockj.module.report.r.R_CalculateStats;
@@ -272,9 +270,9 @@ public class BioLockJUtil {
 	 * @throws IOException if unable to read or write the file
 	 */
 	public static BufferedReader getFileReader( final File file ) throws FileNotFoundException, IOException {
-		return SeqUtil.isGzipped( file.getName() ) ?
-			new BufferedReader( new InputStreamReader( new GZIPInputStream( new FileInputStream( file ) ) ) ):
-			new BufferedReader( new FileReader( file ) );
+		final InputStream in = MetricsUtil.countBytesRead( new FileInputStream( file ) );
+		return new BufferedReader(
+			new InputStreamReader( SeqUtil.isGzipped( file.getName() ) ? new GZIPInputStream( in ): in ) );
 	}
 
 	/**
@@ -397,8 +395,7 @@ public class BioLockJUtil {
 		Collection<File> files = new HashSet<>();
 		for( final File dir: getInputDirs() ) {
 			Log.info( BioLockJUtil.class, "Found pipeline input dir " + dir.getAbsolutePath() );
-			files.addAll( findDups( files, removeIgnoredAndEmptyFiles(
-				FileUtils.listFiles( dir, HiddenFileFilter.VISIBLE, HiddenFileFilter.VISIBLE ) ) ) );
+			files.addAll( findDups( files, removeIgnoredAndEmptyFiles( FileCatalogUtil.listFiles( dir ) ) ) );
 		}
 		Log.info( BioLockJUtil.class, "# Initial input files found: " + files.size() );
 		files = removeIgnoredAndEmptyFiles( files );
@@ -527,7 +524,7 @@ public class BioLockJUtil {
 	public static List<File> removeIgnoredAndEmptyFiles( final Collection<File> files ) {
 		final List<File> validInputFiles = new ArrayList<>();
 		for( final File file: files ) {
-			final boolean isEmpty = FileUtils.sizeOf( file ) < 1L;
+			final boolean isEmpty = FileCatalogUtil.getSize( file ) < 1L;
 			if( isEmpty ) Log.warn( SeqUtil.class, "Skip empty file: " + file.getAbsolutePath() );
 			else if( Config.getSet( null, Constants.INPUT_IGNORE_FILES ).contains( file.getName() ) )
 				Log.debug( SeqUtil.class, "Ignore file " + file.getAbsolutePath() );
@@ -14,6 +14,7 @@ package biolockj.util;
 import java.util.*;
 import biolockj.*;
 import biolockj.exception.ConfigNotFoundException;
+import biolockj.util.SeqRecordUtil.SeqRecord;
 
 /**
  * This utility contains standard methods used to handle multiplexed data.
@@ -91,7 +92,7 @@ public class DemuxUtil {
 	}
 
 	/**
-	 * Determine Sample Id by examining the sequence lines.<br>
+	 * Determine Sample Id by examining the sequence record.<br>
 	 * If {@value #DEMUX_STRATEGY }={@value #OPTION_ID_IN_HEADER}, extract the Sample Id from the sequence header via
 	 * {@link biolockj.util.SeqUtil#getSampleId(String)}<br>
 	 * If {@value #DEMUX_STRATEGY }={@value #OPTION_BARCODE_IN_HEADER} and the sequence header contains a bar-code in
@@ -101,19 +102,21 @@ public class DemuxUtil {
 	 * If {@value #DEMUX_STRATEGY }={@value #OPTION_BARCODE_IN_SEQ} and the sequence itself begins with a bar-code in
 	 * the idMap, return the corresponding SampleID from the idMap.<br>
 	 * 
-	 * @param seqLines List of lines for one fasta or fatsq read
+	 * @param record Fasta or fastq record for one read
 	 * @return Sample ID or null
 	 * @throws Exception if propagated from {@link biolockj.util.SeqUtil} or {@link biolockj.Config}
 	 */
-	public static String getSampleId( final List<String> seqLines ) throws Exception {
+	public static String getSampleId( final SeqRecord record ) throws Exception {
+		final String header = record.getHeader();
 		if( demuxWithBarcode() ) {
 			final Map<String, String> map = getIdMap();
+			final String seq = barcodeInSeq() ? record.getSeq(): null;
 			if( map != null ) for( final String barCodeId: map.keySet() )
-				if( ( barcodeInHeader() || barcodeInMapping() ) && seqLines.get( 0 ).contains( barCodeId ) ||
-					barcodeInSeq() && seqLines.get( 1 ).startsWith( barCodeId ) ) return map.get( barCodeId );
+				if( ( barcodeInHeader() || barcodeInMapping() ) && header.contains( barCodeId ) ||
+					seq != null && seq.startsWith( barCodeId ) ) return map.get( barCodeId );
 			return null;
 		}
-		return SeqUtil.getSampleId( seqLines.get( 0 ) );
+		return SeqUtil.getSampleId( header );
 	}
 
 	/**
@@ -0,0 +1,203 @@
+/**
+ * @UNCC Fodor Lab
+ * @author agent
+ * @email agent@local
+ * @date Oct 19, 2026
+ * @disclaimer This code is free software; you can redistribute it and/or modify it under the terms of the GNU General
+ * Public License as published by the Free Software Foundation; either version 2 of the License, or (at your option) any
+ * later version, provided that any use properly credits the author. This program is distributed in the hope that it
+ * will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License for more details at http://www.gnu.org *
+ */
+package biolockj.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * This utility provides table driven operations on individual DNA sequences such as reverse complement and IUPAC
+ * primer matching, so long reads do not require regular expressions or intermediate objects.
+ */
+public class DnaUtil {
+
+	/**
+	 * This inner class holds a primer compiled from the IUPAC regex format built by
+	 * {@link biolockj.util.SeqUtil#getIupacBase(String)}. Primers anchored to the start (^) or end ($) of the sequence
+	 * are matched base by base: each character class such as [CT] is converted to a base mask, any other letter must
+	 * match exactly (as in the regex). Any other pattern falls back to a pre-compiled regular expression.
+	 */
+	public static final class IupacPrimer {
+		private IupacPrimer( final String regex ) {
+			this.regex = regex;
+			final boolean anchoredStart = regex.startsWith( "^" );
+			final boolean anchoredEnd = regex.endsWith( "$" ) && regex.length() > 1;
+			final StringBuilder literals = new StringBuilder();
+			final List<Integer> masks = new ArrayList<>();
+			boolean valid = anchoredStart || anchoredEnd;
+			final int end = anchoredEnd ? regex.length() - 1: regex.length();
+			for( int i = anchoredStart ? 1: 0; valid && i < end; i++ ) {
+				final char c = regex.charAt( i );
+				if( c == '[' ) {
+					final int close = regex.indexOf( ']', i );
+					final String group = close < 0 ? null: regex.substring( i + 1, close );
+					final int mask = group == null ? 0: getBaseMask( group );
+					if( mask == 0 ) valid = false;
+					else {
+						literals.append( c );
+						masks.add( mask );
+						i = close;
+					}
+				} else if( Character.isLetter( c ) ) {
+					literals.append( c );
+					masks.add( 0 );
+				} else valid = false;
+			}
+
+			this.anchoredStart = anchoredStart;
+			this.anchoredEnd = anchoredEnd;
+			this.literals = valid ? literals.toString().toCharArray(): null;
+			this.masks = new int[ valid ? masks.size(): 0 ];
+			for( int i = 0; i < this.masks.length; i++ )
+				this.masks[ i ] = masks.get( i );
+			this.pattern = valid ? null: Pattern.compile( regex );
+		}
+
+		/**
+		 * Find the primer in the sequence.
+		 *
+		 * @param seq DNA sequence
+		 * @return Number of bases matched by the primer, or 0 if the primer is not found
+		 */
+		public int matchLength( final CharSequence seq ) {
+			if( this.pattern != null ) {
+				final Matcher m = this.pattern.matcher( seq );
+				return m.find() ? m.end() - m.start(): 0;
+			}
+
+			final int len = this.masks.length;
+			if( len > seq.length() || this.anchoredStart && this.anchoredEnd && len != seq.length() ) return 0;
+			final int offset = this.anchoredStart ? 0: seq.length() - len;
+			for( int i = 0; i < len; i++ ) {
+				final char base = seq.charAt( offset + i );
+				if( this.masks[ i ] == 0 ? base != this.literals[ i ]
+					: base >= TABLE_SIZE || ( BASE_MASK[ base ] & this.masks[ i ] ) == 0 ) return 0;
+			}
+			return len;
+		}
+
+		/**
+		 * Get the IUPAC regex used to build this primer.
+		 *
+		 * @return Primer regex
+		 */
+		public String getRegex() {
+			return this.regex;
+		}
+
+		/**
+		 * Return TRUE if the primer is anchored to the start of the sequence (forward primer).
+		 *
+		 * @return TRUE for forward primers
+		 */
+		public boolean isForward() {
+			return this.anchoredStart;
+		}
+
+		/**
+		 * Return TRUE if the primer is anchored to the end of the sequence (reverse primer).
+		 *
+		 * @return TRUE for reverse primers
+		 */
+		public boolean isReverse() {
+			return !this.anchoredStart && this.anchoredEnd;
+		}
+
+		/**
+		 * Remove the 1st match of the primer from the sequence, equivalent to seq.replaceFirst( regex, "" ).
+		 *
+		 * @param seq DNA sequence
+		 * @return Trimmed sequence, or the original sequence if the primer is not found
+		 */
+		public String trim( final String seq ) {
+			if( this.pattern != null ) return this.pattern.matcher( seq ).replaceFirst( "" );
+			final int len = matchLength( seq );
+			if( len == 0 ) return seq;
+			return this.anchoredStart ? seq.substring( len ): seq.substring( 0, seq.length() - len );
+		}
+
+		@Override
+		public String toString() {
+			return this.regex;
+		}
+
+		private final boolean anchoredEnd;
+		private final boolean anchoredStart;
+		private final char[] literals;
+		private final int[] masks;
+		private final Pattern pattern;
+		private final String regex;
+	}
+
+	// Prevent instantiation
+	private DnaUtil() {}
+
+	/**
+	 * Compile a primer in the IUPAC regex format output by {@link biolockj.util.SeqUtil#getIupacBase(String)}.
+	 *
+	 * @param regex Primer regex
+	 * @return IupacPrimer
+	 */
+	public static IupacPrimer compilePrimer( final String regex ) {
+		return new IupacPrimer( regex );
+	}
+
+	/**
+	 * Return the reverse complement of the DNA bases in dna. Only the bases A, C, G, T are accepted.
+	 *
+	 * @param dna DNA base sequence
+	 * @return DNA reverse complement, or null if dna contains a non-standard letter
+	 */
+	public static String reverseComplement( final String dna ) {
+		final int len = dna.length();
+		final char[] out = new char[ len ];
+		for( int i = 0; i < len; i++ ) {
+			final char base = dna.charAt( len - 1 - i );
+			final char comp = base < TABLE_SIZE ? COMPLEMENT[ base ]: 0;
+			if( comp == 0 ) return null;
+			out[ i ] = comp;
+		}
+		return new String( out );
+	}
+
+	private static int getBaseMask( final String group ) {
+		int mask = 0;
+		for( int i = 0; i < group.length(); i++ ) {
+			final char c = group.charAt( i );
+			if( c >= TABLE_SIZE || BASE_MASK[ c ] == 0 ) return 0;
+			mask |= BASE_MASK[ c ];
+		}
+		return mask;
+	}
+
+	private static final int A = 1;
+	private static final int C = 2;
+	private static final int G = 4;
+	private static final int T = 8;
+	private static final int TABLE_SIZE = 128;
+	private static final int[] BASE_MASK = new int[ TABLE_SIZE ];
+	private static final char[] COMPLEMENT = new char[ TABLE_SIZE ];
+
+	static {
+		BASE_MASK[ 'A' ] = A;
+		BASE_MASK[ 'C' ] = C;
+		BASE_MASK[ 'G' ] = G;
+		BASE_MASK[ 'T' ] = T;
+
+		COMPLEMENT[ 'A' ] = 'T';
+		COMPLEMENT[ 'T' ] = 'A';
+		COMPLEMENT[ 'C' ] = 'G';
+		COMPLEMENT[ 'G' ] = 'C';
+	}
+}
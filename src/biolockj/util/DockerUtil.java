@@ -12,6 +12,8 @@
 package biolockj.util;
 
 import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
 import java.util.*;
 import org.apache.commons.lang.math.NumberUtils;
 import biolockj.*;
@@ -30,7 +32,10 @@ public class DockerUtil {
 
 	/**
 	 * Build the {@value #SPAWN_DOCKER_CONTAINER} method, which takes container name, in/out port, and optionally script
-	 * path parameters.
+	 * path parameters. If {@value #REUSE_CONTAINERS} is enabled, the script is run with docker exec in a long-lived
+	 * container (started by the 1st call) shared by every module that uses the same image and volumes. Otherwise, if
+	 * more than 1 container runs at a time (see {@link #getNumContainers(BioModule)}), each container is limited to an
+	 * equal share of the host CPUs and memory. The function returns the docker exit status.
 	 * 
 	 * @param module BioModule
 	 * @return Bash function to run docker
@@ -43,14 +48,17 @@ public class DockerUtil {
 	 */
 	public static List<String> buildSpawnDockerContainerFunction( final BioModule module )
 		throws ConfigViolationException, ConfigNotFoundException, ConfigFormatException, ConfigPathException {
+		if( Config.getBoolean( module, REUSE_CONTAINERS ) ) return buildExecDockerContainerFunction( module );
 		final List<String> lines = new ArrayList<>();
 		final String cmd = Config.getExe( module, Constants.EXE_DOCKER ) + " run " + rmFlag( module ) +
-			getDockerEnvVars() + " " + getDockerVolumes( module ) + getDockerImage( module );
+			getResourceFlags( module ) + getDockerEnvVars() + " " + getDockerVolumes( module ) + getDockerImage( module );
 		Log.debug( DockerUtil.class, "----> Docker CMD:" + cmd );
 		lines.add( "# Spawn Docker container" );
 		lines.add( "function " + SPAWN_DOCKER_CONTAINER + "() {" );
 		lines.add( cmd );
+		lines.add( "statusCode=$?" );
 		lines.add( "echo \"Docker container " + module.getClass().getSimpleName() + " execution complete\"" );
+		lines.add( "return ${statusCode}" );
 		lines.add( "}" + Constants.RETURN );
 		return lines;
 	}
@@ -120,6 +128,21 @@ public class DockerUtil {
 			Config.requireString( module, DockerUtil.DOCKER_IMG_VERSION );
 	}
 
+	/**
+	 * Get the number of worker containers the MAIN script runs at the same time: the lesser of
+	 * {@link biolockj.Config}.{@value #MAX_CONTAINERS} (default = 1) and the number of worker scripts.
+	 * 
+	 * @param module BioModule
+	 * @return Number of concurrent containers
+	 * @throws ConfigNotFoundException if {@value biolockj.Constants#SCRIPT_NUM_WORKERS} is undefined
+	 * @throws ConfigFormatException if {@value #MAX_CONTAINERS} is not a positive integer
+	 */
+	public static int getNumContainers( final BioModule module )
+		throws ConfigNotFoundException, ConfigFormatException {
+		final Integer max = Config.getPositiveInteger( module, MAX_CONTAINERS );
+		return Math.min( max == null ? 1: max, ModuleUtil.getNumWorkers( module ) );
+	}
+
 	/**
 	 * Return the Docker Hub user ID. If none configured, return biolockj.
 	 * 
@@ -259,6 +282,23 @@ public class DockerUtil {
 		return false;
 	}
 
+	/**
+	 * Remove the long-lived containers started for this pipeline if {@value #REUSE_CONTAINERS} is enabled. If
+	 * {@value #SAVE_CONTAINER_ON_EXIT} is enabled, the containers are stopped but not removed.
+	 */
+	public static void removeWarmContainers() {
+		try {
+			if( !inDockerEnv() || !Config.getBoolean( null, REUSE_CONTAINERS ) ) return;
+			final String docker = Config.getExe( null, Constants.EXE_DOCKER );
+			final String action = Config.getBoolean( null, SAVE_CONTAINER_ON_EXIT ) ? " stop": " rm -f";
+			Processor.submitJob( new String[] { "/bin/bash", "-c", docker + " ps -aq --filter label=" +
+				PIPELINE_LABEL + "=" + getContainerName( Config.pipelineName() ) + " | xargs -r " + docker + action },
+				"Remove Docker containers" );
+		} catch( final Exception ex ) {
+			Log.error( DockerUtil.class, "Unable to remove pipeline Docker containers", ex );
+		}
+	}
+
 	/**
 	 * Return TRUE if running in AWS (based on Config props).
 	 * 
@@ -277,6 +317,36 @@ public class DockerUtil {
 		return DOCKER_ENV_FLAG_FILE.isFile();
 	}
 
+	private static List<String> buildExecDockerContainerFunction( final BioModule module )
+		throws ConfigViolationException, ConfigNotFoundException, ConfigPathException {
+		final List<String> lines = new ArrayList<>();
+		final String docker = Config.getExe( module, Constants.EXE_DOCKER );
+		final String volumes = getDockerVolumes( module );
+		final String image = getDockerImage( module );
+		final String name = getContainerName( Config.pipelineName() + "_" + getImageName( module ) + "_" +
+			Integer.toHexString( ( volumes + image ).hashCode() ) );
+		final String cmd = docker + " run -d --name " + name + " --label " + PIPELINE_LABEL + "=" +
+			getContainerName( Config.pipelineName() ) + " " + volumes + image + " tail -f /dev/null";
+		Log.debug( DockerUtil.class, "----> Docker CMD:" + cmd );
+		lines.add( "# Run script in reusable Docker container" );
+		lines.add( "function " + SPAWN_DOCKER_CONTAINER + "() {" );
+		lines.add( "if [ -z \"$(" + docker + " ps -aq --filter name=^/" + name + "$)\" ]; then" );
+		lines.add( cmd + " > /dev/null || echo \"Docker container " + name + " already started\"" );
+		lines.add( "fi" );
+		lines.add( docker + " start " + name + " > /dev/null" );
+		lines.add( docker + " exec" + getDockerEnvVars() + " " + name + " /bin/bash $1" );
+		lines.add( "statusCode=$?" );
+		lines.add( "echo \"Docker container " + module.getClass().getSimpleName() + " execution complete\"" );
+		lines.add( "return ${statusCode}" );
+		lines.add( "}" + Constants.RETURN );
+		return lines;
+	}
+
+	// Docker container names only allow [a-zA-Z0-9][a-zA-Z0-9_.-]
+	private static String getContainerName( final String name ) {
+		return "blj_" + name.replaceAll( "[^a-zA-Z0-9_.-]", "_" );
+	}
+
 	private static String getDbDirPath( final DatabaseModule module )
 		throws ConfigPathException, ConfigNotFoundException {
 		if( module.getDB() == null ) return null;
@@ -342,6 +412,33 @@ public class DockerUtil {
 	// return newPath;
 	// }
 
+	// Split the host CPUs and memory evenly between the concurrent containers
+	private static String getResourceFlags( final BioModule module )
+		throws ConfigNotFoundException, ConfigFormatException {
+		final int numContainers = getNumContainers( module );
+		if( numContainers < 2 ) return "";
+		String flags = " --cpus=" + Math.max( 1, Runtime.getRuntime().availableProcessors() / numContainers );
+		final Long totalMemory = getTotalMemory();
+		if( totalMemory != null ) flags += " --memory=" + totalMemory / numContainers / BYTES_PER_MB + "m";
+		return flags + " ";
+	}
+
+	// Java 14+ getTotalMemorySize() replaces the deprecated getTotalPhysicalMemorySize(), found by name to build on 8
+	private static Long getTotalMemory() {
+		final OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+		if( !( os instanceof com.sun.management.OperatingSystemMXBean ) ) return null;
+		for( final String method: new String[] { "getTotalMemorySize", "getTotalPhysicalMemorySize" } )
+			try {
+				return (Long) com.sun.management.OperatingSystemMXBean.class.getMethod( method ).invoke( os );
+			} catch( final NoSuchMethodException ex ) {
+				continue;
+			} catch( final Exception ex ) {
+				Log.warn( DockerUtil.class, "Unable to get total memory size: " + ex.getMessage() );
+				return null;
+			}
+		return null;
+	}
+
 	private static final String rmFlag( final BioModule module ) throws ConfigFormatException {
 		return Config.getBoolean( module, SAVE_CONTAINER_ON_EXIT ) ? "": DOCK_RM_FLAG;
 	}
@@ -435,6 +532,18 @@ public class DockerUtil {
 	 */
 	static final String SAVE_CONTAINER_ON_EXIT = "docker.saveContainerOnExit";
 
+	/**
+	 * {@link biolockj.Config} Integer property - max number of worker containers the MAIN script runs at the same
+	 * time, default = 1: {@value #MAX_CONTAINERS}
+	 */
+	static final String MAX_CONTAINERS = "docker.maxContainers";
+
+	/**
+	 * {@link biolockj.Config} Boolean property - enable to run worker scripts with docker exec in 1 long-lived container
+	 * per image, removed when the pipeline shuts down: {@value #REUSE_CONTAINERS}
+	 */
+	static final String REUSE_CONTAINERS = "docker.reuseContainers";
+
 	/**
 	 * Name of the bash script function used to generate a new Docker container: {@value #SPAWN_DOCKER_CONTAINER}
 	 */
@@ -449,6 +558,7 @@ public class DockerUtil {
 	protected static final String DOCKER_HUB_USER = "docker.user";
 
 	private static final String BLJ_BASH = "blj_bash";
+	private static final long BYTES_PER_MB = 1024L * 1024L;
 	private static final String COMPUTE_SCRIPT = "COMPUTE_SCRIPT";
 	private static final String DB_FREE = "_dbfree";
 	private static final String DEFAULT_DOCKER_HUB_USER = "biolockj";
@@ -457,4 +567,5 @@ public class DockerUtil {
 	private static final String DOCKER_SOCKET = "/var/run/docker.sock";
 	private static final Set<String[]> downloadDbCmdRegister = new HashSet<>();
 	private static final String IMAGE_NAME_DELIM = "_";
+	private static final String PIPELINE_LABEL = "biolockj.pipeline";
 }
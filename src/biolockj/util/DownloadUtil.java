@@ -254,9 +254,8 @@ public final class DownloadUtil {
 		writer.write( "# Use this script to locally run R modules." + RETURN );
 
 		for( final BioModule mod: modules )
-			if( mod instanceof R_Module ) {
-				final String relPath =
-					pipeRoot.toURI().relativize( ( (R_Module) mod ).getPrimaryScript().toURI() ).toString();
+			if( mod instanceof R_Module ) for( final File rScript: ( (R_Module) mod ).getPrimaryScripts() ) {
+				final String relPath = pipeRoot.toURI().relativize( rScript.toURI() ).toString();
 				writer.write( Constants.RSCRIPT + " " + relPath + RETURN );
 			}
 
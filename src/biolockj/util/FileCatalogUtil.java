@@ -0,0 +1,326 @@
+/**
+ * @UNCC Fodor Lab
+ * @author agent
+ * @email agent@local
+ * @date Oct 19, 2026
+ * @disclaimer This code is free software; you can redistribute it and/or modify it under the terms of the GNU General
+ * Public License as published by the Free Software Foundation; either version 2 of the License, or (at your option) any
+ * later version, provided that any use properly credits the author. This program is distributed in the hope that it
+ * will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License for more details at http://www.gnu.org *
+ */
+package biolockj.util;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import biolockj.Constants;
+import biolockj.Log;
+
+/**
+ * This utility maintains a pipeline-wide catalog of the files read as module input. Each file is listed, sized, and
+ * (if needed) opened only once to detect its sequence format. Directory listings and file entries are cached until
+ * invalidated by {@link #invalidate(File)}, which must be called for any directory a module writes to.
+ */
+public class FileCatalogUtil {
+
+	/**
+	 * This inner class holds the cached attributes of a single file.
+	 */
+	public static class CatalogEntry {
+		/**
+		 * Build the entry from the file attributes returned by the file system.
+		 *
+		 * @param file File
+		 * @param size File size in bytes
+		 * @param lastModified Last modified time in milliseconds
+		 */
+		protected CatalogEntry( final File file, final long size, final long lastModified ) {
+			this.file = file;
+			this.size = size;
+			this.lastModified = lastModified;
+		}
+
+		/**
+		 * Get the file
+		 *
+		 * @return File
+		 */
+		public File getFile() {
+			return this.file;
+		}
+
+		/**
+		 * Get the 1st character of the 1st non-empty line, or null if the file is empty.
+		 *
+		 * @return Header character
+		 */
+		public String getHeaderChar() {
+			sniff();
+			return this.headerChar;
+		}
+
+		/**
+		 * Get the last modified time recorded when the file was cataloged.
+		 *
+		 * @return Last modified time in milliseconds
+		 */
+		public long getLastModified() {
+			return this.lastModified;
+		}
+
+		/**
+		 * Get the number of sequence lines found in the 1st read.
+		 *
+		 * @return Number of sequence lines
+		 */
+		public int getNumSeqLines() {
+			sniff();
+			return this.numSeqLines;
+		}
+
+		/**
+		 * Get the Sample ID for the file, as returned by {@link biolockj.util.SeqUtil#getSampleId(String)}.
+		 *
+		 * @return Sample ID
+		 * @throws Exception if unable to extract the Sample ID
+		 */
+		public String getSampleId() throws Exception {
+			return SeqUtil.getSampleId( this.file.getName() );
+		}
+
+		/**
+		 * Get the detected sequence format: {@value biolockj.Constants#FASTA}, {@value biolockj.Constants#FASTQ}, or
+		 * null if the file is not a sequence file.
+		 *
+		 * @return Sequence type
+		 */
+		public String getSeqType() {
+			sniff();
+			return this.seqType;
+		}
+
+		/**
+		 * Get the file size recorded when the file was cataloged.
+		 *
+		 * @return File size in bytes
+		 */
+		public long getSize() {
+			return this.size;
+		}
+
+		/**
+		 * Return TRUE if the file is a forward read (or reads are unpaired), as returned by
+		 * {@link biolockj.util.SeqUtil#isForwardRead(String)}.
+		 *
+		 * @return TRUE for unpaired or forward reads
+		 */
+		public boolean isForwardRead() {
+			return SeqUtil.isForwardRead( this.file.getName() );
+		}
+
+		/**
+		 * Return TRUE if the 1st read has a valid FASTA or FASTQ header and a DNA sequence.
+		 *
+		 * @return TRUE if file is a sequence file
+		 */
+		public boolean isSeqFile() {
+			sniff();
+			return this.isSeq;
+		}
+
+		/**
+		 * Read the 1st read of the file to detect its format. The file is opened at most once.
+		 */
+		protected synchronized void sniff() {
+			if( this.sniffed ) return;
+			this.sniffed = true;
+			BufferedReader reader = null;
+			try {
+				reader = BioLockJUtil.getFileReader( this.file );
+				String line = reader.readLine();
+				while( line != null && line.trim().isEmpty() )
+					line = reader.readLine();
+				if( line == null ) return;
+
+				final String header = line.trim();
+				this.headerChar = header.substring( 0, 1 );
+				final String seq = reader.readLine();
+				final boolean validHeader = SeqUtil.getFastaHeaderDelims().contains( this.headerChar ) ||
+					this.headerChar.equals( SeqUtil.getFastqHeaderDelim() );
+				this.isSeq = validHeader && seq != null && isDna( seq.trim() );
+				if( this.isSeq ) this.seqType = this.headerChar.equals( SeqUtil.getFastqHeaderDelim() ) ?
+					Constants.FASTQ: Constants.FASTA;
+
+				int numLines = 0;
+				for( line = seq; line != null && numLines < MAX_SNIFF_LINES; line = reader.readLine() ) {
+					final String testLine = line.trim();
+					if( testLine.startsWith( this.headerChar ) || testLine.startsWith( "+" ) ) break;
+					numLines++;
+				}
+				this.numSeqLines = numLines == 0 ? 1: numLines;
+			} catch( final Exception ex ) {
+				Log.error( FileCatalogUtil.class, "Failed to read file: " + this.file.getAbsolutePath(), ex );
+			} finally {
+				try {
+					if( reader != null ) reader.close();
+				} catch( final IOException ex ) {
+					Log.error( FileCatalogUtil.class, "Failed to close file reader", ex );
+				}
+			}
+		}
+
+		private final File file;
+		private String headerChar = null;
+		private boolean isSeq = false;
+		private final long lastModified;
+		private int numSeqLines = 0;
+		private final long size;
+		private String seqType = null;
+		private boolean sniffed = false;
+	}
+
+	// Prevent instantiation
+	private FileCatalogUtil() {}
+
+	/**
+	 * Get the catalog entry for the file, adding it to the catalog if not yet cataloged.
+	 *
+	 * @param file File
+	 * @return CatalogEntry
+	 */
+	public static CatalogEntry getEntry( final File file ) {
+		final String key = file.getAbsolutePath();
+		CatalogEntry entry = entries.get( key );
+		if( entry == null ) {
+			entry = new CatalogEntry( file, file.length(), file.lastModified() );
+			final CatalogEntry prev = entries.putIfAbsent( key, entry );
+			if( prev != null ) entry = prev;
+		}
+		return entry;
+	}
+
+	/**
+	 * Get the cataloged file size.
+	 *
+	 * @param file File
+	 * @return File size in bytes
+	 */
+	public static long getSize( final File file ) {
+		return getEntry( file ).getSize();
+	}
+
+	/**
+	 * Remove the file, or every file and listing under the directory, from the catalog. Listings of parent directories
+	 * are also removed since they may no longer be complete.
+	 *
+	 * @param file File or directory
+	 */
+	public static void invalidate( final File file ) {
+		final String path = file.getAbsolutePath();
+		final String dirPath = path + File.separator;
+		for( final String key: entries.keySet() )
+			if( key.equals( path ) || key.startsWith( dirPath ) ) entries.remove( key );
+		for( final String key: listings.keySet() )
+			if( key.equals( path ) || key.startsWith( dirPath ) || dirPath.startsWith( key + File.separator ) )
+				listings.remove( key );
+	}
+
+	/**
+	 * Return TRUE if the file is a sequence file, as detected by {@link CatalogEntry#isSeqFile()}.
+	 *
+	 * @param file File
+	 * @return TRUE if file is a sequence file
+	 */
+	public static boolean isSeqFile( final File file ) {
+		return getEntry( file ).isSeqFile();
+	}
+
+	/**
+	 * List the visible files in the directory and its visible sub-directories. The file system is only walked the 1st
+	 * time the directory is listed, the file sizes and modified times are cataloged from the same walk.
+	 *
+	 * @param dir Directory
+	 * @return List of files
+	 */
+	public static List<File> listFiles( final File dir ) {
+		final String key = dir.getAbsolutePath();
+		List<File> files = listings.get( key );
+		if( files == null ) {
+			files = Collections.unmodifiableList( walk( dir ) );
+			listings.put( key, files );
+		}
+		return new ArrayList<>( files );
+	}
+
+	/**
+	 * Walk the directory tree, following symbolic links, and pass each regular file to the visitor with the attributes
+	 * of the file it resolves to. Hidden files and hidden sub-directories are skipped. Broken links and link cycles are
+	 * logged and skipped.
+	 *
+	 * @param root Root directory
+	 * @param visitor Called with the path (under root) and attributes of each file
+	 * @throws IOException if unable to read the root directory
+	 */
+	protected static void walkFiles( final Path root, final BiConsumer<Path, BasicFileAttributes> visitor )
+		throws IOException {
+		Files.walkFileTree( root, EnumSet.of( FileVisitOption.FOLLOW_LINKS ), Integer.MAX_VALUE,
+			new SimpleFileVisitor<Path>() {
+				@Override
+				public FileVisitResult preVisitDirectory( final Path path, final BasicFileAttributes attrs ) {
+					if( !path.equals( root ) && path.toFile().isHidden() ) return FileVisitResult.SKIP_SUBTREE;
+					return FileVisitResult.CONTINUE;
+				}
+
+				@Override
+				public FileVisitResult visitFile( final Path path, final BasicFileAttributes attrs ) {
+					if( attrs.isRegularFile() && !path.toFile().isHidden() ) visitor.accept( path, attrs );
+					return FileVisitResult.CONTINUE;
+				}
+
+				@Override
+				public FileVisitResult visitFileFailed( final Path path, final IOException ex ) throws IOException {
+					if( path.equals( root ) ) throw ex;
+					Log.warn( FileCatalogUtil.class, "Skip unreadable file or link: " + path + " --> " + ex );
+					return FileVisitResult.CONTINUE;
+				}
+			} );
+	}
+
+	private static boolean isDna( final String seq ) {
+		if( seq.isEmpty() ) return false;
+		for( int i = 0; i < seq.length(); i++ )
+			switch( seq.charAt( i ) ) {
+				case 'a': case 'c': case 'g': case 't': case 'n':
+				case 'A': case 'C': case 'G': case 'T': case 'N':
+					continue;
+				default:
+					return false;
+			}
+		return true;
+	}
+
+	private static List<File> walk( final File dir ) {
+		final List<File> files = new ArrayList<>();
+		try {
+			walkFiles( dir.toPath(), ( path, attrs ) -> {
+				final File file = path.toFile();
+				files.add( file );
+				entries.putIfAbsent( file.getAbsolutePath(),
+					new CatalogEntry( file, attrs.size(), attrs.lastModifiedTime().toMillis() ) );
+			} );
+		} catch( final IOException ex ) {
+			Log.error( FileCatalogUtil.class, "Failed to list files in: " + dir.getAbsolutePath(), ex );
+		}
+		return files;
+	}
+
+	private static final Map<String, CatalogEntry> entries = new ConcurrentHashMap<>();
+	private static final Map<String, List<File>> listings = new ConcurrentHashMap<>();
+	private static final int MAX_SNIFF_LINES = 10000;
+}
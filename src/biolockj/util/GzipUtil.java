@@ -0,0 +1,239 @@
+/**
+ * @UNCC Fodor Lab
+ * @author agent
+ * @email agent@local
+ * @date Oct 19, 2026
+ * @disclaimer This code is free software; you can redistribute it and/or modify it under the terms of the GNU General
+ * Public License as published by the Free Software Foundation; either version 2 of the License, or (at your option) any
+ * later version, provided that any use properly credits the author. This program is distributed in the hope that it
+ * will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License for more details at http://www.gnu.org *
+ */
+package biolockj.util;
+
+import java.io.*;
+import java.util.ArrayDeque;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import biolockj.Config;
+import biolockj.Constants;
+import biolockj.Log;
+
+/**
+ * This utility writes gzip files on multiple threads, as pigz does. Output is split into blocks, each block is
+ * compressed on a shared thread pool into an independent gzip member, and the members are written in order. A file of
+ * concatenated gzip members is a standard gzip file, readable by gunzip and {@link java.util.zip.GZIPInputStream}. If
+ * {@link biolockj.Config}.{@value biolockj.Constants#PIPELINE_GZIP_BGZF} is enabled the blocks are written in the BGZF
+ * format used by samtools and tabix.
+ */
+public class GzipUtil {
+
+	/**
+	 * This inner class is an OutputStream that compresses blocks in parallel. At most 2 blocks per thread are held in
+	 * memory, so writing blocks once the pool is busy waits for the oldest block to finish.
+	 */
+	public static final class ParallelGzipOutputStream extends OutputStream {
+
+		/**
+		 * Construct a ParallelGzipOutputStream.
+		 *
+		 * @param out OutputStream receiving the gzip members
+		 * @param numThreads Number of blocks compressed at the same time
+		 * @param bgzf Write BGZF blocks
+		 */
+		public ParallelGzipOutputStream( final OutputStream out, final int numThreads, final boolean bgzf ) {
+			this.out = out;
+			this.maxPending = 2 * numThreads;
+			this.bgzf = bgzf;
+			this.block = new byte[ bgzf ? BGZF_BLOCK_SIZE: BLOCK_SIZE ];
+		}
+
+		/**
+		 * Compress the last block, write the remaining members and close the underlying stream.
+		 */
+		@Override
+		public void close() throws IOException {
+			if( this.closed ) return;
+			try {
+				if( this.numBytes > 0 || !this.bgzf && this.numMembers == 0 ) submitBlock();
+				drain( 0 );
+				if( this.bgzf ) this.out.write( BGZF_EOF );
+			} finally {
+				this.closed = true;
+				for( final Future<byte[]> member: this.pending )
+					member.cancel( true );
+				this.out.close();
+			}
+		}
+
+		/**
+		 * Compress the current partial block and write all pending members, so the output written so far is a
+		 * complete gzip file.
+		 */
+		@Override
+		public void flush() throws IOException {
+			if( this.numBytes > 0 ) submitBlock();
+			drain( 0 );
+			this.out.flush();
+		}
+
+		@Override
+		public void write( final byte[] bytes, final int offset, final int length ) throws IOException {
+			if( this.closed ) throw new IOException( "Stream closed" );
+			int pos = offset;
+			int remaining = length;
+			while( remaining > 0 ) {
+				final int n = Math.min( remaining, this.block.length - this.numBytes );
+				System.arraycopy( bytes, pos, this.block, this.numBytes, n );
+				this.numBytes += n;
+				pos += n;
+				remaining -= n;
+				if( this.numBytes == this.block.length ) submitBlock();
+			}
+		}
+
+		@Override
+		public void write( final int b ) throws IOException {
+			if( this.closed ) throw new IOException( "Stream closed" );
+			this.block[ this.numBytes++ ] = (byte) b;
+			if( this.numBytes == this.block.length ) submitBlock();
+		}
+
+		// Write completed members in order until no more than maxSize are pending
+		private void drain( final int maxSize ) throws IOException {
+			while( this.pending.size() > maxSize )
+				try {
+					this.out.write( this.pending.poll().get() );
+				} catch( final InterruptedException ex ) {
+					Thread.currentThread().interrupt();
+					throw new InterruptedIOException( "Interrupted while compressing gzip block" );
+				} catch( final ExecutionException ex ) {
+					throw new IOException( "Failed to compress gzip block", ex.getCause() );
+				}
+		}
+
+		private void submitBlock() throws IOException {
+			final byte[] data = this.block;
+			final int length = this.numBytes;
+			final boolean isBgzf = this.bgzf;
+			this.pending.add( getPool().submit( () -> compress( data, length, isBgzf ) ) );
+			this.numMembers++;
+			this.block = new byte[ data.length ];
+			this.numBytes = 0;
+			drain( this.maxPending );
+		}
+
+		private byte[] block;
+		private final boolean bgzf;
+		private boolean closed = false;
+		private final int maxPending;
+		private int numBytes = 0;
+		private long numMembers = 0L;
+		private final OutputStream out;
+		private final ArrayDeque<Future<byte[]>> pending = new ArrayDeque<>();
+	}
+
+	// Prevent instantiation
+	private GzipUtil() {}
+
+	/**
+	 * Get a gzip OutputStream for the file, compressed on
+	 * {@link biolockj.Config}.{@value biolockj.Constants#PIPELINE_GZIP_THREADS} threads.
+	 *
+	 * @param file Output file
+	 * @param append Append a new gzip member to the existing file
+	 * @return Gzip OutputStream
+	 * @throws IOException if unable to open the file
+	 */
+	public static OutputStream getOutputStream( final File file, final boolean append ) throws IOException {
+		return new ParallelGzipOutputStream( new FileOutputStream( file, append ), getNumThreads(), useBgzf() );
+	}
+
+	// Compress the block into a complete gzip member: header, raw deflate data, CRC32 and uncompressed size
+	private static byte[] compress( final byte[] data, final int length, final boolean bgzf ) throws IOException {
+		final Deflater deflater = deflaters.get();
+		deflater.reset();
+		deflater.setInput( data, 0, length );
+		deflater.finish();
+		final ByteArrayOutputStream member = new ByteArrayOutputStream( length / 2 + BGZF_HEADER.length );
+		member.write( bgzf ? BGZF_HEADER: GZIP_HEADER );
+		final byte[] buf = new byte[ OUTPUT_BUFFER_SIZE ];
+		while( !deflater.finished() ) {
+			final int n = deflater.deflate( buf );
+			member.write( buf, 0, n );
+		}
+
+		final CRC32 crc = new CRC32();
+		crc.update( data, 0, length );
+		writeInt( member, (int) crc.getValue() );
+		writeInt( member, length );
+
+		final byte[] bytes = member.toByteArray();
+		if( bgzf ) {
+			// BSIZE subfield = total member size - 1
+			if( bytes.length > BGZF_MAX_MEMBER_SIZE ) throw new IOException( "BGZF block too large: " + bytes.length );
+			bytes[ HEADER_SIZE + 6 ] = (byte) ( bytes.length - 1 );
+			bytes[ HEADER_SIZE + 7 ] = (byte) ( bytes.length - 1 >> 8 );
+		}
+		return bytes;
+	}
+
+	private static int getNumThreads() {
+		if( numThreads == null ) {
+			Integer val = null;
+			try {
+				val = Config.getPositiveInteger( null, Constants.PIPELINE_GZIP_THREADS );
+			} catch( final Exception ex ) {
+				Log.warn( GzipUtil.class, "Invalid " + Constants.PIPELINE_GZIP_THREADS + ", use default --> " +
+					ex.getMessage() );
+			}
+			numThreads = val == null ? Runtime.getRuntime().availableProcessors(): val;
+			Log.info( GzipUtil.class, "Compress gzip output on " + numThreads + " threads" );
+		}
+		return numThreads;
+	}
+
+	private static synchronized ExecutorService getPool() {
+		if( pool == null ) pool = Executors.newFixedThreadPool( getNumThreads(), r -> {
+			final Thread thread = new Thread( r, THREAD_PREFIX + threadCount.incrementAndGet() );
+			thread.setDaemon( true );
+			return thread;
+		} );
+		return pool;
+	}
+
+	private static boolean useBgzf() {
+		try {
+			return Config.getBoolean( null, Constants.PIPELINE_GZIP_BGZF );
+		} catch( final Exception ex ) {
+			Log.warn( GzipUtil.class, "Invalid " + Constants.PIPELINE_GZIP_BGZF + ", use gzip --> " + ex.getMessage() );
+			return false;
+		}
+	}
+
+	private static void writeInt( final OutputStream out, final int val ) throws IOException {
+		out.write( val );
+		out.write( val >> 8 );
+		out.write( val >> 16 );
+		out.write( val >> 24 );
+	}
+
+	private static final int BGZF_BLOCK_SIZE = 0xff00;
+	private static final byte[] BGZF_EOF = { 0x1f, (byte) 0x8b, 8, 4, 0, 0, 0, 0, 0, (byte) 0xff, 6, 0, 'B', 'C', 2, 0,
+		0x1b, 0, 3, 0, 0, 0, 0, 0, 0, 0, 0, 0 };
+	private static final byte[] BGZF_HEADER =
+		{ 0x1f, (byte) 0x8b, 8, 4, 0, 0, 0, 0, 0, (byte) 0xff, 6, 0, 'B', 'C', 2, 0, 0, 0 };
+	private static final int BGZF_MAX_MEMBER_SIZE = 0x10000;
+	private static final int BLOCK_SIZE = 1024 * 1024;
+	private static final ThreadLocal<Deflater> deflaters =
+		ThreadLocal.withInitial( () -> new Deflater( Deflater.DEFAULT_COMPRESSION, true ) );
+	private static final byte[] GZIP_HEADER = { 0x1f, (byte) 0x8b, 8, 0, 0, 0, 0, 0, 0, (byte) 0xff };
+	private static final int HEADER_SIZE = 10;
+	private static Integer numThreads = null;
+	private static final int OUTPUT_BUFFER_SIZE = 64 * 1024;
+	private static ExecutorService pool = null;
+	private static final AtomicInteger threadCount = new AtomicInteger( 0 );
+	private static final String THREAD_PREFIX = "Gzip-";
+}
@@ -0,0 +1,125 @@
+/**
+ * @UNCC Fodor Lab
+ * @author agent
+ * @email agent@local
+ * @date Oct 19, 2026
+ * @disclaimer This code is free software; you can redistribute it and/or modify it under the terms of the GNU General
+ * Public License as published by the Free Software Foundation; either version 2 of the License, or (at your option) any
+ * later version, provided that any use properly credits the author. This program is distributed in the hope that it
+ * will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License for more details at http://www.gnu.org *
+ */
+package biolockj.util;
+
+import java.io.File;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.*;
+import org.apache.commons.io.FileUtils;
+import biolockj.Config;
+import biolockj.Constants;
+import biolockj.Log;
+import biolockj.exception.ConfigFormatException;
+import biolockj.module.JavaModule;
+import biolockj.module.JavaModuleImpl;
+
+/**
+ * This utility runs a detached {@link biolockj.module.JavaModule} on a worker thread of the main BioLockJ application
+ * instead of launching a new JVM in direct mode. Messages logged by the worker thread, and by any thread it starts, are
+ * also written to the module log file used in direct mode. If the module throws any Exception or Error, or does not
+ * finish within the module timeout, the {@link biolockj.Config} properties and metadata file are restored, the module
+ * output is cleared, and the caller falls back to the direct mode JVM.
+ */
+public class InProcessUtil {
+
+	// Prevent instantiation
+	private InProcessUtil() {}
+
+	/**
+	 * Return TRUE if {@link biolockj.Config}.{@value biolockj.Constants#DETACH_JAVA_MODULES_IN_PROCESS} is enabled for
+	 * the module running in Docker. Cluster and AWS pipelines always launch detached modules on compute nodes.
+	 *
+	 * @param module JavaModule
+	 * @return TRUE if the module should run in-process
+	 * @throws ConfigFormatException if the property is not a boolean
+	 */
+	public static boolean isEnabled( final JavaModule module ) throws ConfigFormatException {
+		return Config.getBoolean( module, Constants.DETACH_JAVA_MODULES_IN_PROCESS ) && DockerUtil.inDockerEnv() &&
+			!Config.isOnCluster() && !DockerUtil.inAwsEnv();
+	}
+
+	/**
+	 * Run the module on a worker thread and mark the module worker script complete if successful. The worker thread is
+	 * interrupted if the module does not finish within {@link biolockj.module.ScriptModule#getTimeout()} minutes.
+	 *
+	 * @param module JavaModule
+	 * @return TRUE if successful, FALSE if the module must run in a new JVM
+	 * @throws Exception if unable to restore the pipeline state after a failure, or if the timed out worker thread does
+	 * not stop, since the module cannot safely run again while it may still write to the output directory
+	 */
+	public static boolean runModule( final JavaModule module ) throws Exception {
+		final String name = THREAD_PREFIX + module.getClass().getSimpleName();
+		final TreeMap<String, String> props = Config.getProperties();
+		final File metadata = MetaUtil.exists() ? MetaUtil.getMetadata(): null;
+		final Integer timeout = module.getTimeout();
+		final ThreadGroup group = new ThreadGroup( name );
+		final ExecutorService worker = Executors.newSingleThreadExecutor( r -> new Thread( group, r, name ) );
+		Log.info( InProcessUtil.class, "Run detached module in-process on thread: " + name );
+		LogUtil.syncModuleLogs( module );
+		Log.addThreadLog( group, getModuleLog( module ) );
+		try {
+			final Future<?> result = worker.submit( () -> {
+				final long start = MetricsUtil.startTimer();
+				module.runModule();
+				MetricsUtil.stopTimer( JavaModuleImpl.RUN_MODULE_TIMER, start );
+				return null;
+			} );
+			if( timeout != null && timeout > 0 ) result.get( timeout, TimeUnit.MINUTES );
+			else result.get();
+			module.moduleComplete();
+			return true;
+		} catch( final ExecutionException ex ) {
+			Log.warn( InProcessUtil.class, module.getClass().getSimpleName() +
+				" failed in-process, restore pipeline state and run in a new JVM --> " + ex.getCause() );
+			restore( module, props, metadata );
+			return false;
+		} catch( final TimeoutException ex ) {
+			Log.warn( InProcessUtil.class, module.getClass().getSimpleName() + " timed out in-process after " +
+				timeout + " minutes, interrupt the module thread" );
+			worker.shutdownNow();
+			if( !worker.awaitTermination( 1, TimeUnit.MINUTES ) ) throw new Exception( module.getClass().getName() +
+				" timed out after " + timeout + " minutes and did not stop when interrupted" );
+			Log.warn( InProcessUtil.class, "Module thread stopped, restore pipeline state and run in a new JVM" );
+			restore( module, props, metadata );
+			return false;
+		} finally {
+			worker.shutdownNow();
+			Log.removeThreadLog( group );
+			LogUtil.skipModuleLog( module );
+		}
+	}
+
+	private static File getModuleLog( final JavaModule module ) {
+		return new File( module.getTempDir().getAbsolutePath() + File.separator + module.getModuleDir().getName() +
+			Constants.LOG_EXT );
+	}
+
+	private static void restore( final JavaModule module, final TreeMap<String, String> props, final File metadata )
+		throws Exception {
+		for( final String prop: Config.getProperties().keySet() )
+			if( !props.containsKey( prop ) ) Config.removeConfigProperty( prop );
+		for( final Map.Entry<String, String> prop: props.entrySet() )
+			if( !prop.getValue().equals( Config.getProperties().get( prop.getKey() ) ) )
+				Config.setConfigProperty( prop.getKey(), prop.getValue() );
+
+		if( metadata != null && !metadata.getAbsolutePath().equals( MetaUtil.getPath() ) ) {
+			MetaUtil.setFile( metadata );
+			MetaUtil.refreshCache();
+		}
+
+		FileUtils.cleanDirectory( module.getOutputDir() );
+		FileCatalogUtil.invalidate( module.getModuleDir() );
+	}
+
+	private static final String THREAD_PREFIX = "InProcess-";
+}
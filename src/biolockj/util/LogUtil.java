@@ -12,8 +12,10 @@
 package biolockj.util;
 
 import java.io.*;
-import java.util.ArrayList;
-import java.util.List;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.util.HashSet;
+import java.util.Set;
 import org.apache.commons.io.FileUtils;
 import biolockj.*;
 import biolockj.module.*;
@@ -24,61 +26,127 @@ import biolockj.module.*;
 public class LogUtil {
 
 	/**
-	 * Not used currently.
+	 * Move the module log checkpoint to the end of the module log, so its lines are not merged into the pipeline log.
+	 * Called by {@link biolockj.util.InProcessUtil} after a module runs in-process, since the module log messages were
+	 * already written to the pipeline log as they were logged.
+	 *
+	 * @param module BioModule
+	 * @throws IOException if unable to save the checkpoint file
+	 */
+	public static void skipModuleLog( final BioModule module ) throws IOException {
+		final File moduleLog = getModuleLog( module );
+		if( moduleLog.isFile() ) FileUtils.writeStringToFile( getCheckpointFile( moduleLog ),
+			String.valueOf( moduleLog.length() ), "UTF-8" );
+	}
+
+	/**
+	 * Append the new lines of a detached Java module log to the pipeline log. Lines copied from the user profile and
+	 * blank lines are skipped. The byte offset of the last merged line is saved in a checkpoint file next to the module
+	 * log, so each line is only merged once, even if the pipeline is restarted. Called by {@link biolockj.Pipeline} each
+	 * time the module scripts are polled.
 	 * 
 	 * @param module BioModule
 	 * @throws Exception if errors occur
 	 */
 	public static void syncModuleLogs( final ScriptModule module ) throws Exception {
 		if( module instanceof JavaModule && Config.getBoolean( module, Constants.DETACH_JAVA_MODULES ) )
-			merge( cacheLog( getModuleLog( module ) ) );
+			merge( getModuleLog( module ) );
 	}
 
-	private static List<String> cacheLog( final File log ) throws Exception {
-		final List<String> cache = new ArrayList<>();
-		final BufferedReader reader = BioLockJUtil.getFileReader( log );
-		try {
-			for( String line = reader.readLine(); line != null; line = reader.readLine() )
-				if( !line.trim().isEmpty() && !getProfileLines().contains( line ) ) cache.add( line );
-		} finally {
-			reader.close();
-		}
+	private static File getCheckpointFile( final File log ) {
+		return new File( log.getParentFile(), "." + log.getName() + CHECKPOINT_EXT );
+	}
 
-		return cache;
+	private static long getCheckpoint( final File log ) throws IOException {
+		final File checkpoint = getCheckpointFile( log );
+		if( !checkpoint.isFile() ) return 0L;
+		final String offset = FileUtils.readFileToString( checkpoint, "UTF-8" ).trim();
+		return offset.isEmpty() ? 0L: Long.valueOf( offset );
 	}
 
 	private static File getModuleLog( final BioModule module ) {
-		return new File( module.getTempDir().getAbsolutePath() + File.separator + module.getClass().getSimpleName() +
+		return new File( module.getTempDir().getAbsolutePath() + File.separator + module.getModuleDir().getName() +
 			Constants.LOG_EXT );
 	}
 
-	private static List<String> getProfileLines() {
-		if( profile.isEmpty() ) try {
-			final File bashProfile = new File( Config.requireString( null, Constants.USER_PROFILE ) );
-			if( bashProfile.isFile() ) profile.addAll( cacheLog( bashProfile ) );
-		} catch( final Exception ex ) {
-			Log.warn( LogUtil.class, "Config property [ " + Constants.USER_PROFILE +
-				" ] is undefined.  Set to appropriate env profile, for example: ~/.bash_profile: " + ex.getMessage() );
+	private static Set<String> getProfileLines() {
+		if( profile == null ) {
+			profile = new HashSet<>();
+			try {
+				final File bashProfile = new File( Config.requireString( null, Constants.USER_PROFILE ) );
+				if( bashProfile.isFile() ) {
+					final BufferedReader reader = BioLockJUtil.getFileReader( bashProfile );
+					try {
+						for( String line = reader.readLine(); line != null; line = reader.readLine() )
+							if( !line.trim().isEmpty() ) profile.add( line );
+					} finally {
+						reader.close();
+					}
+				}
+			} catch( final Exception ex ) {
+				Log.warn( LogUtil.class, "Config property [ " + Constants.USER_PROFILE +
+					" ] is undefined.  Set to appropriate env profile, for example: ~/.bash_profile: " +
+					ex.getMessage() );
+			}
 		}
 		return profile;
 	}
 
-	private static String getTempLogPath() {
-		return Log.getFile().getAbsolutePath().replace( Log.getFile().getName(), ".temp" + Log.getFile().getName() );
-	}
+	/**
+	 * Scan the module log from the checkpoint to the last complete line. Runs of lines to keep are transferred to the
+	 * pipeline log with FileChannel.transferTo() so the pipeline log is only appended, never re-read or re-written.
+	 */
+	private static void merge( final File moduleLog ) throws Exception {
+		if( !moduleLog.isFile() ) return;
+		long start = getCheckpoint( moduleLog );
+		final long end = moduleLog.length();
+		if( end < start ) start = 0L;
+		if( end == start ) return;
 
-	private static void merge( final List<String> lines ) throws Exception {
-		final File tempLog = new File( getTempLogPath() );
-		FileUtils.copyFile( Log.getFile(), tempLog );
-		final BufferedWriter writer = new BufferedWriter( new FileWriter( tempLog, true ) );
+		final Set<String> profileLines = getProfileLines();
+		final FileInputStream in = new FileInputStream( moduleLog );
+		final FileOutputStream out = new FileOutputStream( Log.getFile(), true );
+		long merged = start;
 		try {
-			for( final String line: lines )
-				writer.write( line + Constants.RETURN );
+			final FileChannel source = in.getChannel();
+			final FileChannel target = out.getChannel();
+			source.position( start );
+			final InputStream reader = new BufferedInputStream( Channels.newInputStream( source ) );
+			final ByteArrayOutputStream line = new ByteArrayOutputStream();
+			long runStart = start;
+			long pos = start;
+			while( pos < end ) {
+				final int b = reader.read();
+				if( b < 0 ) break;
+				pos++;
+				if( b != '\n' ) {
+					line.write( b );
+					continue;
+				}
+
+				final String text = line.toString( "UTF-8" ).replace( "\r", "" );
+				line.reset();
+				if( text.trim().isEmpty() || profileLines.contains( text ) ) {
+					transfer( source, runStart, merged, target );
+					runStart = pos;
+				}
+				merged = pos;
+			}
+			transfer( source, runStart, merged, target );
 		} finally {
-			writer.close();
+			in.close();
+			out.close();
 		}
-		FileUtils.copyFile( tempLog, Log.getFile() );
+
+		FileUtils.writeStringToFile( getCheckpointFile( moduleLog ), String.valueOf( merged ), "UTF-8" );
+	}
+
+	private static void transfer( final FileChannel source, final long start, final long end, final FileChannel target )
+		throws IOException {
+		for( long pos = start; pos < end; )
+			pos += source.transferTo( pos, end - pos, target );
 	}
 
-	private static final List<String> profile = new ArrayList<>();
+	private static final String CHECKPOINT_EXT = ".offset";
+	private static Set<String> profile = null;
 }
@@ -221,6 +221,24 @@ public class MetaUtil {
 		return foundName;
 	}
 
+	/**
+	 * Build the metadata fields to append to each row of a table merged with the metadata, keyed by Sample ID. Each
+	 * value holds every field of the record with quotes removed, each preceded by a tab. The key {@link #getID()} maps
+	 * to the column names, so the same lookup serves the header row.
+	 * 
+	 * @return Map(Sample ID, tab-delimited metadata fields)
+	 */
+	public static Map<String, String> getMergeSuffixes() {
+		final Map<String, String> suffixes = new HashMap<>();
+		for( final Map.Entry<String, List<String>> record: metadataMap.entrySet() ) {
+			final StringBuilder sb = new StringBuilder();
+			for( final String field: record.getValue() )
+				sb.append( Constants.TAB_DELIM ).append( BioLockJUtil.removeQuotes( field ) );
+			suffixes.put( record.getKey(), sb.toString() );
+		}
+		return suffixes;
+	}
+
 	/**
 	 * Metadata file getter. This path changes as new versions are created by the BioModules.
 	 * 
@@ -389,6 +407,7 @@ public class MetaUtil {
 		if( isUpdated() ) {
 			Log.info( MetaUtil.class, "Update metadata cache: " + getPath() );
 			metadataMap.clear();
+			SeqUtil.resetSampleIdCache();
 			cacheMetadata( parseMetadataFile() );
 
 			if( !BioLockJUtil.isDirectMode() ) report();
@@ -457,6 +476,7 @@ public class MetaUtil {
 			Log.debug( MetaUtil.class, "===> MetaUtil.setFile() not required, no changes to: " + getPath() );
 		BioLockJUtil.ignoreFile( file );
 		metadataFile = file;
+		SeqUtil.resetSampleIdCache();
 	}
 
 	private static void cacheMetadata( final List<List<String>> data ) {
@@ -0,0 +1,348 @@
+/**
+ * @UNCC Fodor Lab
+ * @author agent
+ * @email agent@local
+ * @date Oct 19, 2026
+ * @disclaimer This code is free software; you can redistribute it and/or modify it under the terms of the GNU General
+ * Public License as published by the Free Software Foundation; either version 2 of the License, or (at your option) any
+ * later version, provided that any use properly credits the author. This program is distributed in the hope that it
+ * will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License for more details at http://www.gnu.org *
+ */
+package biolockj.util;
+
+import java.io.File;
+import java.io.InputStream;
+import java.lang.management.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.input.ProxyInputStream;
+import biolockj.Config;
+import biolockj.Constants;
+import biolockj.Log;
+import biolockj.Pipeline;
+import biolockj.module.BioModule;
+
+/**
+ * This utility is a lightweight registry of named counters, timers and gauges. Counters and timers are pipeline-wide,
+ * the values recorded while a module runs are saved with the module wall time, CPU time, peak heap, GC activity, bytes
+ * read, output directory size, and records per second. Peak heap is the highest total heap usage sampled every
+ * {@value #HEAP_SAMPLE_MILLIS} ms while the module runs. Module metrics are saved as JSON in each module directory and
+ * combined in the pipeline root directory file {@value #METRICS_FILE}.
+ */
+public class MetricsUtil {
+
+	/**
+	 * This inner class holds the JVM and registry values when a module starts.
+	 */
+	private static final class Snapshot {
+		private Snapshot() {
+			this.wallNanos = System.nanoTime();
+			this.cpuNanos = getCpuNanos();
+			long count = 0L;
+			long millis = 0L;
+			for( final GarbageCollectorMXBean gc: ManagementFactory.getGarbageCollectorMXBeans() ) {
+				count += Math.max( 0L, gc.getCollectionCount() );
+				millis += Math.max( 0L, gc.getCollectionTime() );
+			}
+			this.gcCount = count;
+			this.gcMillis = millis;
+			for( final String name: counters.keySet() )
+				this.counts.put( name, counters.get( name ).sum() );
+			for( final String name: timers.keySet() )
+				this.timerVals.put( name, new long[] { timers.get( name )[ 0 ].sum(), timers.get( name )[ 1 ].sum() } );
+		}
+
+		private final Map<String, Long> counts = new TreeMap<>();
+		private final long cpuNanos;
+		private final long gcCount;
+		private final long gcMillis;
+		private final Map<String, long[]> timerVals = new TreeMap<>();
+		private final long wallNanos;
+	}
+
+	// Prevent instantiation
+	private MetricsUtil() {}
+
+	/**
+	 * Add n to the named counter.
+	 *
+	 * @param name Counter name
+	 * @param n Amount to add
+	 */
+	public static void addCount( final String name, final long n ) {
+		LongAdder counter = counters.get( name );
+		if( counter == null ) counter = counters.computeIfAbsent( name, k -> new LongAdder() );
+		counter.add( n );
+	}
+
+	/**
+	 * Wrap the InputStream to add the number of bytes read to the {@value #BYTES_READ} counter.
+	 *
+	 * @param in InputStream
+	 * @return Counting InputStream
+	 */
+	public static InputStream countBytesRead( final InputStream in ) {
+		return new ProxyInputStream( in ) {
+			@Override
+			protected void afterRead( final int n ) {
+				if( n > 0 ) addCount( BYTES_READ, n );
+			}
+		};
+	}
+
+	/**
+	 * Save the metrics recorded since {@link #startModule(BioModule)} to the module metrics file and rebuild the
+	 * pipeline metrics file. If the module metrics file already exists, the module ran detached and its own JVM has
+	 * already saved the metrics.
+	 *
+	 * @param module BioModule
+	 */
+	public static void endModule( final BioModule module ) {
+		final Snapshot start = moduleStart;
+		moduleStart = null;
+		if( start == null ) return;
+		stopHeapSampler();
+		try {
+			final File moduleFile = getModuleMetricsFile( module );
+			if( !moduleFile.isFile() )
+				FileUtils.writeStringToFile( moduleFile, buildModuleJson( module, start ), UTF8 );
+			writePipelineMetrics();
+		} catch( final Exception ex ) {
+			Log.warn( MetricsUtil.class, "Unable to save metrics for " + module.getClass().getName() + ": " +
+				ex.getMessage() );
+		}
+	}
+
+	/**
+	 * Get the pipeline metrics file.
+	 *
+	 * @return Metrics file
+	 */
+	public static File getMetricsFile() {
+		return new File( Config.pipelinePath() + File.separator + METRICS_FILE );
+	}
+
+	/**
+	 * Get the summary of the module metrics saved by {@link #endModule(BioModule)}, formatted for the summary file.
+	 *
+	 * @param module BioModule
+	 * @return Metrics summary or null if no metrics were saved for the module
+	 */
+	public static String getSummary( final BioModule module ) {
+		return summaries.get( module.getModuleDir().getAbsolutePath() );
+	}
+
+	/**
+	 * Set the named gauge.
+	 *
+	 * @param name Gauge name
+	 * @param val Value
+	 */
+	public static void setGauge( final String name, final double val ) {
+		gauges.put( name, val );
+	}
+
+	/**
+	 * Take a snapshot of the JVM and registry values and start sampling the heap usage before the module runs.
+	 *
+	 * @param module BioModule
+	 */
+	public static void startModule( final BioModule module ) {
+		startHeapSampler();
+		gauges.clear();
+		moduleStart = new Snapshot();
+		Log.debug( MetricsUtil.class, "Start metrics for: " + module.getClass().getName() );
+	}
+
+	/**
+	 * Get the start time for a timer.
+	 *
+	 * @return Start time in nanoseconds
+	 */
+	public static long startTimer() {
+		return System.nanoTime();
+	}
+
+	/**
+	 * Add the time elapsed since start to the named timer.
+	 *
+	 * @param name Timer name
+	 * @param start Start time returned by {@link #startTimer()}
+	 */
+	public static void stopTimer( final String name, final long start ) {
+		LongAdder[] timer = timers.get( name );
+		if( timer == null )
+			timer = timers.computeIfAbsent( name, k -> new LongAdder[] { new LongAdder(), new LongAdder() } );
+		timer[ 0 ].increment();
+		timer[ 1 ].add( System.nanoTime() - start );
+	}
+
+	private static String buildModuleJson( final BioModule module, final Snapshot start ) throws Exception {
+		final Snapshot end = new Snapshot();
+		final long wallMillis = ( end.wallNanos - start.wallNanos ) / NANOS_PER_MILLI;
+		final long cpuMillis = start.cpuNanos < 0 ? -1L: ( end.cpuNanos - start.cpuNanos ) / NANOS_PER_MILLI;
+		final long peakHeap = peakHeapUsed.get();
+		final long bytesRead = getDelta( start, end, BYTES_READ );
+		final long outputBytes =
+			module.getOutputDir().isDirectory() ? FileUtils.sizeOfDirectory( module.getOutputDir() ): 0L;
+		final long records = getDelta( start, end, RECORDS );
+		final double recordsPerSec = wallMillis == 0 ? 0: records * 1000.0 / wallMillis;
+
+		summaries.put( module.getModuleDir().getAbsolutePath(),
+			"Metrics:  CPU " + SummaryUtil.getRunTime( Math.max( 0L, cpuMillis ) ) + " | Peak heap " +
+				toMB( peakHeap ) + " MB | GC " + ( end.gcCount - start.gcCount ) + " ( " +
+				( end.gcMillis - start.gcMillis ) + " ms ) | Read " + toMB( bytesRead ) + " MB | Output " +
+				toMB( outputBytes ) + " MB" +
+				( records > 0 ? " | " + records + " records ( " + Math.round( recordsPerSec ) + "/sec )": "" ) );
+
+		final StringBuilder sb = new StringBuilder( "{" );
+		sb.append( "\"id\":" + toJson( ModuleUtil.displayID( module ) ) + "," );
+		sb.append( "\"module\":" + toJson( module.getClass().getName() ) + "," );
+		sb.append( "\"wallTimeMs\":" + wallMillis + "," );
+		sb.append( "\"cpuTimeMs\":" + cpuMillis + "," );
+		sb.append( "\"peakHeapBytes\":" + peakHeap + "," );
+		sb.append( "\"gcCount\":" + ( end.gcCount - start.gcCount ) + "," );
+		sb.append( "\"gcTimeMs\":" + ( end.gcMillis - start.gcMillis ) + "," );
+		sb.append( "\"bytesRead\":" + bytesRead + "," );
+		sb.append( "\"outputDirBytes\":" + outputBytes + "," );
+		sb.append( "\"records\":" + records + "," );
+		sb.append( "\"recordsPerSec\":" + toJson( recordsPerSec, "%.1f" ) + "," );
+
+		sb.append( "\"counters\":{" );
+		String delim = "";
+		for( final String name: end.counts.keySet() ) {
+			final long delta = getDelta( start, end, name );
+			if( delta == 0 ) continue;
+			sb.append( delim + toJson( name ) + ":" + delta );
+			delim = ",";
+		}
+
+		sb.append( "},\"timers\":{" );
+		delim = "";
+		for( final String name: end.timerVals.keySet() ) {
+			final long[] prev = start.timerVals.containsKey( name ) ? start.timerVals.get( name ): new long[ 2 ];
+			final long count = end.timerVals.get( name )[ 0 ] - prev[ 0 ];
+			if( count == 0 ) continue;
+			sb.append( delim + toJson( name ) + ":{\"count\":" + count + ",\"totalMs\":" +
+				( end.timerVals.get( name )[ 1 ] - prev[ 1 ] ) / NANOS_PER_MILLI + "}" );
+			delim = ",";
+		}
+
+		sb.append( "},\"gauges\":{" );
+		delim = "";
+		for( final String name: new TreeSet<>( gauges.keySet() ) ) {
+			sb.append( delim + toJson( name ) + ":" + toJson( gauges.get( name ), "%s" ) );
+			delim = ",";
+		}
+		sb.append( "}}" );
+		return sb.toString();
+	}
+
+	private static long getCpuNanos() {
+		final OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+		if( os instanceof com.sun.management.OperatingSystemMXBean )
+			return ( (com.sun.management.OperatingSystemMXBean) os ).getProcessCpuTime();
+		return -1L;
+	}
+
+	private static long getDelta( final Snapshot start, final Snapshot end, final String name ) {
+		final Long prev = start.counts.get( name );
+		final Long cur = end.counts.get( name );
+		return ( cur == null ? 0L: cur ) - ( prev == null ? 0L: prev );
+	}
+
+	private static File getModuleMetricsFile( final BioModule module ) {
+		return new File( module.getModuleDir().getAbsolutePath() + File.separator + MODULE_METRICS_FILE );
+	}
+
+	private static void sampleHeap() {
+		final long used = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+		peakHeapUsed.accumulateAndGet( used, Math::max );
+	}
+
+	private static synchronized void startHeapSampler() {
+		if( heapSampler != null ) heapSampler.cancel( false );
+		if( sampler == null ) sampler = Executors.newSingleThreadScheduledExecutor( r -> {
+			final Thread thread = new Thread( r, "Metrics-Heap" );
+			thread.setDaemon( true );
+			return thread;
+		} );
+		peakHeapUsed.set( 0L );
+		sampleHeap();
+		heapSampler = sampler.scheduleAtFixedRate( MetricsUtil::sampleHeap, HEAP_SAMPLE_MILLIS, HEAP_SAMPLE_MILLIS,
+			TimeUnit.MILLISECONDS );
+	}
+
+	private static synchronized void stopHeapSampler() {
+		if( heapSampler != null ) heapSampler.cancel( false );
+		heapSampler = null;
+		sampleHeap();
+	}
+
+	// Format the number for JSON, NaN and infinity are not valid JSON numbers so are saved as null
+	private static String toJson( final double val, final String format ) {
+		return Double.isNaN( val ) || Double.isInfinite( val ) ? "null": String.format( Locale.ROOT, format, val );
+	}
+
+	// Quote the value as a JSON string, escaping quotes, backslashes and control characters
+	private static String toJson( final String val ) {
+		final StringBuilder sb = new StringBuilder( "\"" );
+		for( final char c: String.valueOf( val ).toCharArray() )
+			if( c == '"' || c == '\\' ) sb.append( '\\' ).append( c );
+			else if( c < ' ' ) sb.append( String.format( "\\u%04x", (int) c ) );
+			else sb.append( c );
+		return sb.append( '"' ).toString();
+	}
+
+	private static String toMB( final long bytes ) {
+		return String.format( Locale.ROOT, "%.1f", bytes / BYTES_PER_MB );
+	}
+
+	private static void writePipelineMetrics() throws Exception {
+		final StringBuilder sb = new StringBuilder();
+		sb.append( "{\"pipeline\":" + toJson( Config.pipelineName() ) + ",\"modules\":[" );
+		String delim = "";
+		if( Pipeline.getModules() != null ) for( final BioModule module: Pipeline.getModules() ) {
+			final File file = getModuleMetricsFile( module );
+			if( file.isFile() ) {
+				sb.append( delim + Constants.RETURN + FileUtils.readFileToString( file, UTF8 ).trim() );
+				delim = ",";
+			}
+		}
+		sb.append( Constants.RETURN + "]}" + Constants.RETURN );
+		FileUtils.writeStringToFile( getMetricsFile(), sb.toString(), UTF8 );
+	}
+
+	/**
+	 * Counter of bytes read from pipeline files: {@value #BYTES_READ}
+	 */
+	public static final String BYTES_READ = "bytesRead";
+
+	/**
+	 * Pipeline metrics file name: {@value #METRICS_FILE}
+	 */
+	public static final String METRICS_FILE = "metrics.json";
+
+	/**
+	 * Counter of records (sequence reads, OTU nodes, table rows) read: {@value #RECORDS}
+	 */
+	public static final String RECORDS = "records";
+
+	private static final double BYTES_PER_MB = 1024.0 * 1024.0;
+	private static final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+	private static final Map<String, Double> gauges = new ConcurrentHashMap<>();
+	private static final long HEAP_SAMPLE_MILLIS = 100L;
+	private static ScheduledFuture<?> heapSampler = null;
+	private static volatile Snapshot moduleStart = null;
+	private static final String MODULE_METRICS_FILE = "." + METRICS_FILE;
+	private static final long NANOS_PER_MILLI = 1000000L;
+	private static final AtomicLong peakHeapUsed = new AtomicLong( 0L );
+	private static ScheduledExecutorService sampler = null;
+	private static final Map<String, String> summaries = new ConcurrentHashMap<>();
+	private static final Map<String, LongAdder[]> timers = new ConcurrentHashMap<>();
+	private static final String UTF8 = "UTF-8";
+}
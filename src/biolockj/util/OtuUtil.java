@@ -13,6 +13,7 @@ package biolockj.util;
 
 import java.io.*;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import biolockj.*;
 import biolockj.exception.OtuFileException;
 
@@ -61,6 +62,69 @@ public class OtuUtil {
 		private String otu = null;
 	}
 
+	/**
+	 * This inner class holds an immutable, pre-parsed OTU name. Each OTU path is tokenized once by
+	 * {@link #parseOtu(String)} and the level/taxa pairs are stored in arrays indexed by
+	 * {@link biolockj.util.TaxaUtil#getLevelNum(String)}, so taxonomy lookups do not need to re-scan the OTU string.
+	 */
+	public static final class ParsedOtu {
+		private ParsedOtu( final String otu ) {
+			this.otu = otu;
+			final String[] taxa = new String[ TaxaUtil.allTaxonomyLevels().size() ];
+			final List<String> otuLevels = new ArrayList<>();
+			final List<String> otuNames = new ArrayList<>();
+			final StringTokenizer st = new StringTokenizer( otu, Constants.OTU_SEPARATOR );
+			while( st.hasMoreTokens() ) {
+				final String token = st.nextToken();
+				final int index = token.indexOf( Constants.DELIM_SEP );
+				if( index < 0 ) continue;
+				final String level = token.substring( 0, index );
+				final String name = token.substring( index + Constants.DELIM_SEP.length() );
+				otuLevels.add( level );
+				otuNames.add( name );
+				final int levelNum = TaxaUtil.getLevelNum( level );
+				if( levelNum > -1 && taxa[ levelNum ] == null ) taxa[ levelNum ] = name;
+			}
+			this.levels = otuLevels.toArray( new String[ otuLevels.size() ] );
+			this.names = otuNames.toArray( new String[ otuNames.size() ] );
+			this.taxaByLevelNum = taxa;
+		}
+
+		/**
+		 * Get the taxa name at the given level.
+		 * 
+		 * @param level Taxonomy level
+		 * @return Taxa name or null if the OTU does not include the level
+		 */
+		public String getTaxa( final String level ) {
+			final int levelNum = TaxaUtil.getLevelNum( level );
+			if( levelNum > -1 ) return this.taxaByLevelNum[ levelNum ];
+			for( int i = 0; i < this.levels.length; i++ )
+				if( this.levels[ i ].equals( level ) ) return this.names[ i ];
+			return null;
+		}
+
+		/**
+		 * Check if the OTU includes a taxa name at the given level.
+		 * 
+		 * @param level Taxonomy level
+		 * @return boolean TRUE if the OTU includes the level
+		 */
+		public boolean hasLevel( final String level ) {
+			return getTaxa( level ) != null;
+		}
+
+		@Override
+		public String toString() {
+			return this.otu;
+		}
+
+		private final String[] levels;
+		private final String[] names;
+		private final String otu;
+		private final String[] taxaByLevelNum;
+	}
+
 	// Prevent instantiation
 	private OtuUtil() {}
 
@@ -157,7 +221,8 @@ public class OtuUtil {
 
 	/**
 	 * TreeMap OTU counts for each sample file formatted and named as in
-	 * {@link biolockj.module.implicit.parser.ParserModule} output.
+	 * {@link biolockj.module.implicit.parser.ParserModule} output. Every sample is held in memory, a warning is logged
+	 * if the estimated size exceeds the heap budget from {@link biolockj.util.SpillUtil#getMemoryBudget()}.
 	 * 
 	 * @param files Collection of OTU count files
 	 * @return TreeMap(SampleID, TreeMap(OTU, count)) OTU counts by sample
@@ -174,9 +239,31 @@ public class OtuUtil {
 			otuCountsBySample.put( getSampleId( file ), compileSampleOtuCounts( file ) );
 		}
 
+		final long numBytes = SpillUtil.estimateBytes( otuCountsBySample );
+		if( SpillUtil.isOverBudget( numBytes ) ) Log.warn( OtuUtil.class, "OTU counts for " +
+			otuCountsBySample.size() + " samples use ~" + numBytes / ( 1024L * 1024L ) + " MB, over the heap budget of " +
+			SpillUtil.getMemoryBudget() / ( 1024L * 1024L ) + " MB set by " + Constants.PIPELINE_MEMORY_BUDGET );
+
 		return otuCountsBySample;
 	}
 
+	/**
+	 * Get the {@link ParsedOtu} for the given OTU path. Each unique OTU is only parsed once, subsequent calls return
+	 * the cached instance.
+	 * 
+	 * @param otu OTU name in {@link biolockj.module.implicit.parser.ParserModule} format
+	 * @return ParsedOtu
+	 */
+	public static ParsedOtu parseOtu( final String otu ) {
+		ParsedOtu parsedOtu = parsedOtus.get( otu );
+		if( parsedOtu == null ) {
+			parsedOtu = new ParsedOtu( otu );
+			final ParsedOtu prev = parsedOtus.putIfAbsent( otu, parsedOtu );
+			if( prev != null ) parsedOtu = prev;
+		}
+		return parsedOtu;
+	}
+
 	/**
 	 * Check the file name and contents to determine if file is an OTU count file.
 	 * 
@@ -206,4 +293,5 @@ public class OtuUtil {
 		return false;
 	}
 
+	private static final Map<String, ParsedOtu> parsedOtus = new ConcurrentHashMap<>();
 }
@@ -199,6 +199,43 @@ public final class RMetaUtil {
 		return binaryFields;
 	}
 
+	/**
+	 * Get the {@link biolockj.Config}.{@value #NOMINAL_FIELDS} fields containing 3 or more non-numeric values.
+	 *
+	 * @param module is the Calling BioModule
+	 * @return Set of nominal column names
+	 * @throws Exception if unable to assign nominal fields
+	 */
+	public static Set<String> getNominalFields( final BioModule module ) throws Exception {
+		if( nominalFields == null ) classifyReportableMetadata( module );
+		return nominalFields;
+	}
+
+	/**
+	 * Get the number of metadata columns appended to each count table by the meta-merge modules.
+	 *
+	 * @param module is the Calling BioModule
+	 * @return Number of metadata columns
+	 * @throws Exception if unable to classify the metadata
+	 */
+	public static int getNumMetaCols( final BioModule module ) throws Exception {
+		if( binaryFields == null ) classifyReportableMetadata( module );
+		final Integer numCols = Config.getPositiveInteger( module, NUM_META_COLS );
+		return numCols == null ? getMetaCols( module ).size(): numCols;
+	}
+
+	/**
+	 * Get the {@link biolockj.Config}.{@value #NUMERIC_FIELDS} fields containing only numeric values.
+	 *
+	 * @param module is the Calling BioModule
+	 * @return Set of numeric column names
+	 * @throws Exception if unable to assign numeric fields
+	 */
+	public static Set<String> getNumericFields( final BioModule module ) throws Exception {
+		if( numericFields == null ) classifyReportableMetadata( module );
+		return numericFields;
+	}
+
 	/**
 	 * Method analyzes the file name to determine if the file could be output from the BioModule
 	 * {@link biolockj.module.report.taxa.AddMetadataToTaxaTables}
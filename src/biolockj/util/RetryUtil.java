@@ -0,0 +1,180 @@
+/**
+ * @UNCC Fodor Lab
+ * @author agent
+ * @email agent@local
+ * @date Oct 19, 2026
+ * @disclaimer This code is free software; you can redistribute it and/or modify it under the terms of the GNU General
+ * Public License as published by the Free Software Foundation; either version 2 of the License, or (at your option) any
+ * later version, provided that any use properly credits the author. This program is distributed in the hope that it
+ * will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License for more details at http://www.gnu.org *
+ */
+package biolockj.util;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.util.*;
+import biolockj.*;
+import biolockj.exception.ConfigFormatException;
+import biolockj.module.BioModule;
+import biolockj.module.JavaModule;
+import biolockj.module.ScriptModule;
+import biolockj.module.report.r.R_Module;
+
+/**
+ * This utility tracks the completion of individual worker scripts so failed workers can be retried and restarted
+ * pipelines can resume an incomplete module. The MAIN script only runs worker scripts without a
+ * {@value biolockj.Constants#SCRIPT_STARTED} indicator file, so resetting the indicator files of a worker is enough to
+ * run it again.
+ * <ul>
+ * <li>Retry: failure indicator files are archived with the attempt number appended and the MAIN script is resubmitted,
+ * waiting {@value biolockj.Constants#SCRIPT_RETRY_DELAY} seconds (doubled for each attempt) first.
+ * <li>Resume: each successful worker lists the output files it wrote in its {@value biolockj.Constants#SCRIPT_SUCCESS}
+ * file. Workers with a missing or empty output file, and workers that did not succeed, are reset.
+ * </ul>
+ */
+public class RetryUtil {
+
+	// Prevent instantiation
+	private RetryUtil() {}
+
+	/**
+	 * Return TRUE if the module worker scripts can be resumed when a failed pipeline is restarted. Java and R modules
+	 * are always rerun in full.
+	 *
+	 * @param module BioModule
+	 * @return TRUE if {@value biolockj.Constants#SCRIPT_RESUME_WORKERS} is enabled for a script module
+	 * @throws ConfigFormatException if {@value biolockj.Constants#SCRIPT_RESUME_WORKERS} is not a boolean
+	 */
+	public static boolean canResume( final BioModule module ) throws ConfigFormatException {
+		return module instanceof ScriptModule && !( module instanceof JavaModule ) && !( module instanceof R_Module ) &&
+			Config.getBoolean( module, Constants.SCRIPT_RESUME_WORKERS );
+	}
+
+	/**
+	 * Delete the status indicator files of the script so it runs again.
+	 *
+	 * @param script Worker script
+	 */
+	public static void clearStatus( final File script ) {
+		for( final String status: Arrays.asList( Constants.SCRIPT_STARTED, Constants.SCRIPT_SUCCESS,
+			Constants.SCRIPT_FAILURES ) )
+			getStatusFile( script, status ).delete();
+	}
+
+	/**
+	 * Return TRUE if failed worker scripts of the module can be retried: {@value biolockj.Constants#SCRIPT_MAX_RETRIES}
+	 * is positive and the module is not a Java or R module or run on AWS. Java modules stay fail-fast.
+	 *
+	 * @param module ScriptModule
+	 * @return TRUE if retries are enabled
+	 * @throws ConfigFormatException if {@value biolockj.Constants#SCRIPT_MAX_RETRIES} is not a non-negative integer
+	 */
+	public static boolean isEnabled( final ScriptModule module ) throws ConfigFormatException {
+		final Integer maxRetries = Config.getNonNegativeInteger( module, Constants.SCRIPT_MAX_RETRIES );
+		return maxRetries != null && maxRetries > 0 && !( module instanceof JavaModule ) &&
+			!( module instanceof R_Module ) && !DockerUtil.inAwsEnv();
+	}
+
+	/**
+	 * Prepare an incomplete module to resume: worker scripts that succeeded with all listed output files intact keep
+	 * their status, all other status indicator files are deleted.
+	 *
+	 * @param module ScriptModule
+	 * @throws Exception if errors occur reading the status files
+	 */
+	public static void resumeModule( final ScriptModule module ) throws Exception {
+		int numSkipped = 0;
+		int numReset = 0;
+		for( final File script: getScripts( module ) ) {
+			final File success = getStatusFile( script, Constants.SCRIPT_SUCCESS );
+			if( success.isFile() && outputsIntact( success ) ) numSkipped++;
+			else {
+				if( success.isFile() )
+					Log.warn( RetryUtil.class, "Output files missing, rerun worker: " + script.getAbsolutePath() );
+				clearStatus( script );
+				if( !script.getName().startsWith( BioModule.MAIN_SCRIPT_PREFIX ) ) numReset++;
+			}
+		}
+		Log.info( RetryUtil.class, "Resume " + module.getClass().getSimpleName() + ": skip " + numSkipped +
+			" complete worker scripts, rerun " + numReset );
+	}
+
+	/**
+	 * Resubmit the MAIN script to rerun the failed worker scripts if any retries remain. Must only be called once no
+	 * worker scripts are running or queued, otherwise the MAIN script would submit the queued workers again.
+	 *
+	 * @param module ScriptModule
+	 * @return TRUE if the failed workers were resubmitted, FALSE if the module should fail
+	 * @throws Exception if errors occur resubmitting the MAIN script
+	 */
+	public static boolean retryFailedWorkers( final ScriptModule module ) throws Exception {
+		if( !isEnabled( module ) ) return false;
+		final int maxRetries = Config.getNonNegativeInteger( module, Constants.SCRIPT_MAX_RETRIES );
+
+		final List<File> failed = new ArrayList<>();
+		int attempt = 1;
+		for( final File script: getScripts( module ) )
+			if( getStatusFile( script, Constants.SCRIPT_FAILURES ).isFile() ) {
+				failed.add( script );
+				attempt = Math.max( attempt, getAttempt( script ) );
+			}
+
+		if( attempt > maxRetries ) {
+			Log.warn( RetryUtil.class, "Failed worker scripts already retried " + maxRetries + " times" );
+			return false;
+		}
+
+		for( final File script: failed ) {
+			final File failures = getStatusFile( script, Constants.SCRIPT_FAILURES );
+			if( !failures.renameTo( new File( failures.getAbsolutePath() + "_" + getAttempt( script ) ) ) )
+				throw new Exception( "Unable to archive: " + failures.getAbsolutePath() );
+			getStatusFile( script, Constants.SCRIPT_STARTED ).delete();
+			Log.warn( RetryUtil.class, "Retry worker script [ attempt " + attempt + "/" + maxRetries + " ]: " +
+				script.getAbsolutePath() );
+		}
+
+		final Integer delay = Config.getNonNegativeInteger( module, Constants.SCRIPT_RETRY_DELAY );
+		final long millis = ( delay == null ? DEFAULT_DELAY: delay ) * 1000L << attempt - 1;
+		Log.info( RetryUtil.class, "Wait " + millis / 1000 + " seconds before resubmitting " +
+			module.getMainScript().getAbsolutePath() );
+		Thread.sleep( millis );
+		Processor.submit( module );
+		return true;
+	}
+
+	// Attempt number of the next retry = number of archived failure files + 1
+	private static int getAttempt( final File script ) {
+		int attempt = 1;
+		while( new File( getStatusFile( script, Constants.SCRIPT_FAILURES ).getAbsolutePath() + "_" + attempt )
+			.isFile() )
+			attempt++;
+		return attempt;
+	}
+
+	private static List<File> getScripts( final ScriptModule module ) {
+		final List<File> scripts = new ArrayList<>();
+		for( final File file: module.getScriptDir().listFiles() )
+			if( file.getName().endsWith( Constants.SH_EXT ) ) scripts.add( file );
+		return scripts;
+	}
+
+	private static File getStatusFile( final File script, final String status ) {
+		return new File( script.getAbsolutePath() + "_" + status );
+	}
+
+	private static boolean outputsIntact( final File success ) throws Exception {
+		final BufferedReader reader = BioLockJUtil.getFileReader( success );
+		try {
+			for( String line = reader.readLine(); line != null; line = reader.readLine() ) {
+				final File output = new File( line.trim() );
+				if( !line.trim().isEmpty() && ( !output.isFile() || output.length() == 0 ) ) return false;
+			}
+		} finally {
+			reader.close();
+		}
+		return true;
+	}
+
+	private static final long DEFAULT_DELAY = 60L;
+}
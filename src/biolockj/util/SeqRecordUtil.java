@@ -0,0 +1,435 @@
+/**
+ * @UNCC Fodor Lab
+ * @author agent
+ * @email agent@local
+ * @date Oct 19, 2026
+ * @disclaimer This code is free software; you can redistribute it and/or modify it under the terms of the GNU General
+ * Public License as published by the Free Software Foundation; either version 2 of the License, or (at your option) any
+ * later version, provided that any use properly credits the author. This program is distributed in the hope that it
+ * will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License for more details at http://www.gnu.org *
+ */
+package biolockj.util;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.zip.GZIPInputStream;
+import biolockj.Log;
+
+/**
+ * This utility reads and writes fasta and fastq files 1 record at a time without building a String for each line.
+ * Files are read through a large byte buffer and each record is copied into a reusable
+ * {@link biolockj.util.SeqRecordUtil.SeqRecord}, so no objects are allocated per record unless a field is requested as
+ * a String. The format is the pipeline sequence type, {@link biolockj.util.SeqUtil#isFastQ()}: fastq records have 4
+ * lines, fasta records have a header line followed by 1 or more sequence lines, which are joined. Gzipped input is
+ * detected from the file content, output is gzipped in parallel by {@link biolockj.util.GzipUtil} if the file name
+ * ends with {@value biolockj.Constants#GZIP_EXT}.
+ */
+public class SeqRecordUtil {
+
+	/**
+	 * This inner class holds 1 fasta or fastq record, reused for each record read by a
+	 * {@link biolockj.util.SeqRecordUtil.SeqRecordReader}. Header lines include the header character.
+	 */
+	public static final class SeqRecord {
+
+		/**
+		 * Get the header line.
+		 *
+		 * @return Header line
+		 */
+		public String getHeader() {
+			return this.header.toString();
+		}
+
+		/**
+		 * Get the record lines: header and sequence, plus the separator and quality lines for fastq records.
+		 *
+		 * @return List of 2 or 4 lines
+		 */
+		public List<String> getLines() {
+			final List<String> lines = new ArrayList<>();
+			lines.add( getHeader() );
+			lines.add( getSeq() );
+			if( this.fastQ ) {
+				lines.add( this.plus.toString() );
+				lines.add( getQual() );
+			}
+			return lines;
+		}
+
+		/**
+		 * Get the quality scores, empty for fasta records.
+		 *
+		 * @return Quality line
+		 */
+		public String getQual() {
+			return this.qual.toString();
+		}
+
+		/**
+		 * Get the quality line length, 0 for fasta records.
+		 *
+		 * @return Number of quality scores
+		 */
+		public int getQualLength() {
+			return this.qual.len;
+		}
+
+		/**
+		 * Get the sequence.
+		 *
+		 * @return Sequence
+		 */
+		public String getSeq() {
+			return this.seq.toString();
+		}
+
+		/**
+		 * Get the sequence length.
+		 *
+		 * @return Number of bases
+		 */
+		public int getSeqLength() {
+			return this.seq.len;
+		}
+
+		/**
+		 * Return TRUE if the record was read from a fastq file.
+		 *
+		 * @return TRUE for fastq records
+		 */
+		public boolean isFastQ() {
+			return this.fastQ;
+		}
+
+		/**
+		 * Replace the header line.
+		 *
+		 * @param header Header line, including the header character
+		 */
+		public void setHeader( final String header ) {
+			this.header.set( header );
+		}
+
+		/**
+		 * Replace the quality scores.
+		 *
+		 * @param qual Quality line
+		 */
+		public void setQual( final String qual ) {
+			this.qual.set( qual );
+		}
+
+		/**
+		 * Replace the sequence.
+		 *
+		 * @param seq Sequence
+		 */
+		public void setSeq( final String seq ) {
+			this.seq.set( seq );
+		}
+
+		/**
+		 * Remove leading and trailing whitespace from each line, as {@link java.lang.String#trim()}.
+		 */
+		public void strip() {
+			this.header.strip();
+			this.seq.strip();
+			this.plus.strip();
+			this.qual.strip();
+		}
+
+		/**
+		 * Keep only the bases from index begin (inclusive) to end (exclusive), as {@link java.lang.String#substring}.
+		 * Fastq quality scores are trimmed to the same range.
+		 *
+		 * @param begin Index of the 1st base to keep
+		 * @param end Index after the last base to keep
+		 */
+		public void trim( final int begin, final int end ) {
+			this.seq.sub( begin, end );
+			if( this.fastQ ) this.qual.sub( begin, end );
+		}
+
+		/**
+		 * Write the record lines to the stream.
+		 *
+		 * @param out OutputStream
+		 * @throws IOException if unable to write
+		 */
+		public void write( final OutputStream out ) throws IOException {
+			this.header.write( out );
+			this.seq.write( out );
+			if( this.fastQ ) {
+				this.plus.write( out );
+				this.qual.write( out );
+			}
+		}
+
+		private boolean fastQ = false;
+		private final Field header = new Field();
+		private final Field plus = new Field();
+		private final Field qual = new Field();
+		private final Field seq = new Field();
+	}
+
+	/**
+	 * This inner class reads fasta or fastq records into a reusable {@link biolockj.util.SeqRecordUtil.SeqRecord}.
+	 * Carriage returns at the end of each line are removed. By default empty lines before a header are skipped and
+	 * fasta sequence lines are read until the next line that starts with a header character from
+	 * {@link biolockj.util.SeqUtil#getSeqHeaderChars()}. In strict mode each record is exactly
+	 * {@link biolockj.util.SeqUtil#getNumLinesPerRead()} lines and only empty lines at the top of the file are skipped,
+	 * so a missing or invalid header line is returned as the header for the caller to validate.
+	 */
+	public static final class SeqRecordReader implements Closeable {
+
+		/**
+		 * Open the sequence file, gzipped files are decompressed.
+		 *
+		 * @param file Fasta or fastq file
+		 * @throws Exception if unable to open the file or determine the sequence type
+		 */
+		public SeqRecordReader( final File file ) throws Exception {
+			this( file, false );
+		}
+
+		/**
+		 * Open the sequence file, gzipped files are decompressed.
+		 *
+		 * @param file Fasta or fastq file
+		 * @param strict Read a fixed number of lines per record without checking the header character
+		 * @throws Exception if unable to open the file or determine the sequence type
+		 */
+		public SeqRecordReader( final File file, final boolean strict ) throws Exception {
+			this.file = file;
+			this.strict = strict;
+			this.fastQ = SeqUtil.isFastQ();
+			final List<String> headerChars = SeqUtil.getSeqHeaderChars();
+			this.headerChars = new byte[ headerChars.size() ];
+			for( int i = 0; i < this.headerChars.length; i++ )
+				this.headerChars[ i ] = (byte) headerChars.get( i ).charAt( 0 );
+			final BufferedInputStream in =
+				new BufferedInputStream( MetricsUtil.countBytesRead( new FileInputStream( file ) ) );
+			try {
+				in.mark( 2 );
+				final boolean gzipped = in.read() == GZIP_MAGIC_1 && in.read() == GZIP_MAGIC_2;
+				in.reset();
+				this.in = gzipped ? new GZIPInputStream( in, GZIP_BUFFER_SIZE ): in;
+			} catch( final IOException | RuntimeException ex ) {
+				in.close();
+				throw ex;
+			}
+		}
+
+		/**
+		 * Close the file and add the number of records read to the {@value biolockj.util.MetricsUtil#RECORDS} counter.
+		 */
+		@Override
+		public void close() throws IOException {
+			MetricsUtil.addCount( MetricsUtil.RECORDS, this.numRecords );
+			this.numRecords = 0L;
+			this.in.close();
+		}
+
+		/**
+		 * Return TRUE if the pipeline sequence files are in fastq format.
+		 *
+		 * @return TRUE for fastq files
+		 */
+		public boolean isFastQ() {
+			return this.fastQ;
+		}
+
+		/**
+		 * Read the next record. An incomplete fastq record at the end of the file is logged and ignored.
+		 *
+		 * @param record SeqRecord overwritten with the next record
+		 * @return TRUE if a record was read, FALSE at the end of the file
+		 * @throws IOException if unable to read the file
+		 */
+		public boolean next( final SeqRecord record ) throws IOException {
+			do
+				if( !readLine( record.header ) ) return false;
+			while( record.header.len == 0 && ( !this.strict || this.numRecords == 0 ) );
+
+			record.fastQ = this.fastQ;
+			record.seq.clear();
+			record.plus.clear();
+			record.qual.clear();
+			if( this.fastQ || this.strict ) {
+				if( !readLine( record.seq ) ||
+					this.fastQ && ( !readLine( record.plus ) || !readLine( record.qual ) ) ) {
+					if( record.header.len > 0 ) Log.warn( SeqRecordUtil.class, "Ignore incomplete record [ " +
+						record.getHeader() + " ] at the end of: " + this.file.getAbsolutePath() );
+					return false;
+				}
+			} else while( fill() && !isHeaderChar( this.buf[ this.pos ] ) )
+				appendLine( record.seq );
+
+			this.numRecords++;
+			return true;
+		}
+
+		// Append the next line (without the line break) to the field, return FALSE at the end of the file
+		private boolean appendLine( final Field field ) throws IOException {
+			if( !fill() ) return false;
+			while( true ) {
+				int end = this.pos;
+				while( end < this.limit && this.buf[ end ] != '\n' )
+					end++;
+				field.append( this.buf, this.pos, end - this.pos );
+				this.pos = end;
+				if( end < this.limit ) {
+					this.pos++;
+					break;
+				}
+				if( !fill() ) break;
+			}
+			if( field.len > 0 && field.buf[ field.start + field.len - 1 ] == '\r' ) field.len--;
+			return true;
+		}
+
+		// Refill the buffer once every byte is consumed, return FALSE at the end of the file
+		private boolean fill() throws IOException {
+			while( this.pos >= this.limit ) {
+				final int n = this.in.read( this.buf );
+				if( n < 0 ) return false;
+				this.pos = 0;
+				this.limit = n;
+			}
+			return true;
+		}
+
+		private boolean isHeaderChar( final byte b ) {
+			for( final byte headerChar: this.headerChars )
+				if( b == headerChar ) return true;
+			return false;
+		}
+
+		private boolean readLine( final Field field ) throws IOException {
+			field.clear();
+			return appendLine( field );
+		}
+
+		private final byte[] buf = new byte[ BUFFER_SIZE ];
+		private final boolean fastQ;
+		private final File file;
+		private final byte[] headerChars;
+		private final InputStream in;
+		private int limit = 0;
+		private long numRecords = 0L;
+		private int pos = 0;
+		private final boolean strict;
+	}
+
+	/**
+	 * This inner class writes {@link biolockj.util.SeqRecordUtil.SeqRecord}s through a large output buffer.
+	 */
+	public static final class SeqRecordWriter implements Closeable {
+
+		/**
+		 * Create or overwrite the sequence file.
+		 *
+		 * @param file Output file, gzipped if the name ends with {@value biolockj.Constants#GZIP_EXT}
+		 * @throws IOException if unable to open the file
+		 */
+		public SeqRecordWriter( final File file ) throws IOException {
+			this( file, false );
+		}
+
+		/**
+		 * Open the sequence file, appending to the existing file if append = TRUE.
+		 *
+		 * @param file Output file, gzipped with {@link biolockj.util.GzipUtil} if the name ends with
+		 * {@value biolockj.Constants#GZIP_EXT}
+		 * @param append Append to the existing file
+		 * @throws IOException if unable to open the file
+		 */
+		public SeqRecordWriter( final File file, final boolean append ) throws IOException {
+			this.out = new BufferedOutputStream( SeqUtil.isGzipped( file.getName() ) ?
+				GzipUtil.getOutputStream( file, append ): new FileOutputStream( file, append ), BUFFER_SIZE );
+		}
+
+		@Override
+		public void close() throws IOException {
+			this.out.close();
+		}
+
+		/**
+		 * Write the record.
+		 *
+		 * @param record SeqRecord
+		 * @throws IOException if unable to write
+		 */
+		public void write( final SeqRecord record ) throws IOException {
+			record.write( this.out );
+		}
+
+		private final OutputStream out;
+	}
+
+	/**
+	 * This inner class holds 1 line in a growable byte array, trimmed lines keep the array and move the start index.
+	 */
+	private static final class Field {
+		private void append( final byte[] src, final int offset, final int length ) {
+			final int end = this.start + this.len;
+			if( end + length > this.buf.length )
+				this.buf = Arrays.copyOf( this.buf, Math.max( 2 * this.buf.length, end + length ) );
+			System.arraycopy( src, offset, this.buf, end, length );
+			this.len += length;
+		}
+
+		private void clear() {
+			this.start = 0;
+			this.len = 0;
+		}
+
+		private void set( final String val ) {
+			final byte[] bytes = val.getBytes( StandardCharsets.UTF_8 );
+			clear();
+			append( bytes, 0, bytes.length );
+		}
+
+		private void strip() {
+			while( this.len > 0 && ( this.buf[ this.start ] & 0xff ) <= ' ' ) {
+				this.start++;
+				this.len--;
+			}
+			while( this.len > 0 && ( this.buf[ this.start + this.len - 1 ] & 0xff ) <= ' ' )
+				this.len--;
+		}
+
+		private void sub( final int begin, final int end ) {
+			if( begin < 0 || end > this.len || begin > end ) throw new StringIndexOutOfBoundsException(
+				"Invalid range [ " + begin + ", " + end + " ] for length " + this.len );
+			this.start += begin;
+			this.len = end - begin;
+		}
+
+		@Override
+		public String toString() {
+			return new String( this.buf, this.start, this.len, StandardCharsets.UTF_8 );
+		}
+
+		private void write( final OutputStream out ) throws IOException {
+			out.write( this.buf, this.start, this.len );
+			out.write( '\n' );
+		}
+
+		private byte[] buf = new byte[ INIT_FIELD_SIZE ];
+		private int len = 0;
+		private int start = 0;
+	}
+
+	// Prevent instantiation
+	private SeqRecordUtil() {}
+
+	private static final int BUFFER_SIZE = 1024 * 1024;
+	private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+	private static final int GZIP_MAGIC_1 = 0x1f;
+	private static final int GZIP_MAGIC_2 = 0x8b;
+	private static final int INIT_FIELD_SIZE = 256;
+}
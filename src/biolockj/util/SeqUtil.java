@@ -11,14 +11,14 @@
  */
 package biolockj.util;
 
-import java.io.BufferedReader;
 import java.io.File;
 import java.util.*;
-import org.apache.commons.io.FileUtils;
-import org.apache.commons.io.filefilter.HiddenFileFilter;
+import java.util.concurrent.ConcurrentHashMap;
 import biolockj.*;
 import biolockj.exception.*;
 import biolockj.module.BioModule;
+import biolockj.util.SeqRecordUtil.SeqRecord;
+import biolockj.util.SeqRecordUtil.SeqRecordReader;
 
 /**
  * This utility helps interact with FastA and FastQ sequence files.
@@ -29,8 +29,8 @@ public class SeqUtil {
 	private SeqUtil() {}
 
 	/**
-	 * Method counts number of reads in the given sequence file by counting the number of lines and dividing by the
-	 * number of lines/sample (fasta=2, fastq=4)
+	 * Method counts number of reads in the given sequence file with a
+	 * {@link biolockj.util.SeqRecordUtil.SeqRecordReader}
 	 * 
 	 * @param seqFile Sequence file
 	 * @return Number of reads in seqFile
@@ -38,12 +38,16 @@ public class SeqUtil {
 	 */
 	public static long countNumReads( final File seqFile ) throws Exception {
 		long count = 0;
-		final BufferedReader r = BioLockJUtil.getFileReader( seqFile );
-		for( String line = r.readLine(); line != null; line = r.readLine() )
-			count++;
-		r.close();
+		final SeqRecordReader reader = new SeqRecordReader( seqFile );
+		try {
+			final SeqRecord record = new SeqRecord();
+			while( reader.next( record ) )
+				count++;
+		} finally {
+			reader.close();
+		}
 
-		return count / getNumLinesPerRead();
+		return count;
 	}
 
 	/**
@@ -74,11 +78,11 @@ public class SeqUtil {
 	 */
 	public static Set<String> getHeaders( final File seq ) throws Exception {
 		final Set<String> headers = new HashSet<>();
-		final BufferedReader reader = BioLockJUtil.getFileReader( seq );
-		int lineCounter = 1;
+		final SeqRecordReader reader = new SeqRecordReader( seq );
 		try {
-			for( String line = reader.readLine(); line != null; line = reader.readLine() )
-				if( lineCounter++ % getNumLinesPerRead() == 1 ) headers.add( getHeader( line ) );
+			final SeqRecord record = new SeqRecord();
+			while( reader.next( record ) )
+				headers.add( getHeader( record.getHeader() ) );
 		} finally {
 			reader.close();
 		}
@@ -141,7 +145,9 @@ public class SeqUtil {
 
 	/**
 	 * Paired reads must have a unique file suffix to identify forward and reverse reads. Parameter files read and a map
-	 * with forward read file names as keys and matching reverse reads as the map return value
+	 * with forward read file names as keys and matching reverse reads as the map return value.<br>
+	 * Each file name is parsed only once, reverse reads are indexed by Sample ID so each forward read is matched with a
+	 * single lookup.
 	 *
 	 * @param files List of paired read files
 	 * @return Map with key=fwRead and val=rvRead
@@ -159,35 +165,34 @@ public class SeqUtil {
 		final Map<File, File> map = new HashMap<>();
 		final Set<String> rvReads = new HashSet<>();
 		final Set<File> unpairedFwReads = new HashSet<>();
-		for( final File fwRead: files ) {
-			final String name = fwRead.getName();
-			if( !isForwardRead( name ) ) {
+		final List<File> fwReads = new ArrayList<>();
+		final Map<File, String> fwSampleIds = new HashMap<>();
+		final Map<String, File> rvReadsBySampleId = new HashMap<>();
+		for( final File file: files ) {
+			final String name = file.getName();
+			final String sampleID = getSampleId( name );
+			if( isForwardRead( name ) ) {
+				fwReads.add( file );
+				fwSampleIds.put( file, sampleID );
+			} else {
 				rvReads.add( name );
-				continue;
+				if( sampleID != null && !rvReadsBySampleId.containsKey( sampleID ) )
+					rvReadsBySampleId.put( sampleID, file );
 			}
+		}
 
-			File rvRead = null;
-			final String sampleID = getSampleId( name );
+		for( final File fwRead: fwReads ) {
+			final String sampleID = fwSampleIds.get( fwRead );
 			Log.debug( SeqUtil.class,
-				"Search for paired read to match forward read ( " + name + " ) with sample ID: " + sampleID );
-			for( final File searchFile: files )
-				if( sampleID.equals( getSampleId( searchFile.getName() ) ) && !isForwardRead( searchFile.getName() ) ) {
-					Log.debug( SeqUtil.class, "Matching reverse read: " + searchFile.getName() );
-					rvRead = searchFile;
-					break;
-				}
-
-			if( rvRead != null ) map.put( fwRead, rvRead );
-			else unpairedFwReads.add( fwRead );
+				"Search for paired read to match forward read ( " + fwRead.getName() + " ) with sample ID: " + sampleID );
+			final File rvRead = sampleID == null ? null: rvReadsBySampleId.get( sampleID );
+			if( rvRead != null ) {
+				Log.debug( SeqUtil.class, "Matching reverse read: " + rvRead.getName() );
+				map.put( fwRead, rvRead );
+				rvReads.remove( rvRead.getName() );
+			} else unpairedFwReads.add( fwRead );
 		}
 
-		for( final File f: map.values() )
-			for( final String rv: rvReads )
-				if( rv.equals( f.getName() ) ) {
-					rvReads.remove( rv );
-					break;
-				}
-
 		final String msg = ( unpairedFwReads.isEmpty() ? "":
 			"Unpaired FW Reads:" + BioLockJUtil.printLongFormList( unpairedFwReads ) ) +
 			( rvReads.isEmpty() ? "": "Unpaired RV Reads: " + BioLockJUtil.printLongFormList( rvReads ) );
@@ -233,7 +238,9 @@ public class SeqUtil {
 	 * Method extracts Sample ID from the name param. Possibly input is a file name so remove file extensions. If
 	 * demultiplexing (RDP/Kraken support this option), input is a sequence header. If
 	 * {@link biolockj.Config}.{@value biolockj.util.MetaUtil#META_FILENAME_COLUMN} is supplied, then possible return
-	 * values are limited to the given samples ids, or "" if the file is not in the filename column.
+	 * values are limited to the given samples ids, or "" if the file is not in the filename column.<br>
+	 * File name lookups are cached until {@link #resetSampleIdCache()} is called when the Config properties or metadata
+	 * change. Sequence headers of multiplexed data are not cached.
 	 *
 	 * @param value File name or sequence header
 	 * @return Sample ID
@@ -244,45 +251,13 @@ public class SeqUtil {
 	 */
 	public static String getSampleId( final String value )
 		throws SequnceFormatException, MetadataException, ConfigFormatException {
-		String id = value;
-		if( id.endsWith( Constants.PROCESSED ) ) return id.replace( Constants.PROCESSED, "" );
-
-		final String fwReadSuffix = Config.getString( null, Constants.INPUT_FORWARD_READ_SUFFIX );
-		final String rvReadSuffix = Config.getString( null, Constants.INPUT_REVERSE_READ_SUFFIX );
-		final String fileNameCol = Config.getString( null, MetaUtil.META_FILENAME_COLUMN );
-
-		if( !isForwardRead( id ) ) {
-			final int rvIndex = value.lastIndexOf( rvReadSuffix );
-			id = id.substring( 0, rvIndex ) + fwReadSuffix + id.substring( rvIndex + 3 );
-		}
-
-		if( MetaUtil.hasColumn( fileNameCol ) && !MetaUtil.getFieldValues( fileNameCol, true ).isEmpty() ) {
-			final int ind = MetaUtil.getFieldValues( fileNameCol, false ).indexOf( id );
-			if( ind > -1 ) return MetaUtil.getSampleIds().get( ind );
-			Log.warn( SeqUtil.class, value + " not processed in pipeline - path not found in metadata column " +
-				fileNameCol + " in: " + MetaUtil.getPath() );
-			return null;
-		}
-
-		// trim directional suffix
-		if( !isMultiplexed() && fwReadSuffix != null && id.indexOf( fwReadSuffix ) > 0 )
-			id = id.substring( 0, id.lastIndexOf( fwReadSuffix ) );
+		if( value.endsWith( Constants.PROCESSED ) ) return value.replace( Constants.PROCESSED, "" );
+		if( isMultiplexed() ) return parseSampleId( value );
 
-		// trim files extensions: .gz | .fasta | .fastq
-		if( isGzipped( id ) ) id = id.substring( 0, id.length() - 3 );
-		if( id.toLowerCase().endsWith( "." + Constants.FASTA ) || id.toLowerCase().endsWith( "." + Constants.FASTQ ) )
-			id = id.substring( 0, id.length() - 6 );
-
-		// trim user defined file prefix and/or suffix patterns
-		final String trimPrefix = Config.getString( null, Constants.INPUT_TRIM_PREFIX );
-		final String trimSuffix = Config.getString( null, Constants.INPUT_TRIM_SUFFIX );
-		if( trimPrefix != null && id.indexOf( trimPrefix ) > -1 )
-			id = id.substring( trimPrefix.length() + id.indexOf( trimPrefix ) );
-
-		if( trimSuffix != null && id.indexOf( trimSuffix ) > 0 ) id = id.substring( 0, id.indexOf( trimSuffix ) );
-
-		if( id == null || id.isEmpty() )
-			throw new SequnceFormatException( "Unable to extract a valid Sample ID from: " + value );
+		final String cachedId = sampleIdCache.get( value );
+		if( cachedId != null ) return cachedId;
+		final String id = parseSampleId( value );
+		if( id != null ) sampleIdCache.put( value, id );
 		return id;
 	}
 
@@ -445,47 +420,20 @@ public class SeqUtil {
 	}
 
 	/**
-	 * Verify 1st character of sequence header and mask 1st sequence for valid DNA/RNA bases "acgtu"
+	 * Verify 1st character of sequence header and mask 1st sequence for valid DNA/RNA bases "acgtu". The check is
+	 * done once per file by {@link biolockj.util.FileCatalogUtil}.
 	 * 
 	 * @param file File
 	 * @return TRUE if file is a sequence file
 	 */
 	public static boolean isSeqFile( final File file ) {
-		BufferedReader reader = null;
-		try {
-			if( fileSeqMap.keySet().contains( file.getName() ) ) return fileSeqMap.get( file.getName() );
-			info( "Check if input file is a SEQ file: " + file.getAbsolutePath() );
-			boolean isSeq = false;
-			reader = BioLockJUtil.getFileReader( file );
-
-			final String header = SeqUtil.scanFirstLine( reader, file );
-			final String idChar = header.substring( 0, 1 );
-			String seq = reader.readLine();
-			info(
-				"header: " + ( header.length() <= MAX_DISPLAY_LEN ? header: header.substring( 0, MAX_DISPLAY_LEN ) ) );
-			info( "seq: " + ( seq.length() <= MAX_DISPLAY_LEN ? seq: seq.substring( 0, MAX_DISPLAY_LEN ) ) );
-			if( FASTA_HEADER_DELIMS.contains( idChar ) || idChar.equals( FASTQ_HEADER_DELIM ) ) {
-				if( !seq.trim().isEmpty() ) {
-					seq = seq.trim().toLowerCase().replaceAll( "a", "" ).replaceAll( "c", "" ).replaceAll( "g", "" )
-						.replaceAll( "t", "" ).replaceAll( "n", "" );
-					isSeq = seq.trim().isEmpty();
-				}
-			} else info( file.getAbsolutePath() + " is not a sequence file! " + Constants.RETURN + "Line 1: [ " +
-				header + " ]" + Constants.RETURN + "Line 2= [ " + seq + " ]" );
-			fileSeqMap.put( file.getName(), isSeq );
-			return isSeq;
-		} catch( final Exception ex ) {
-			Log.error( SeqUtil.class, "Error occurred examining file to determine if it is a sequence file or not",
-				ex );
-		} finally {
-			try {
-				if( reader != null ) reader.close();
-			} catch( final Exception ex ) {
-				Log.error( SeqUtil.class, "Failed to close file reader", ex );
-			}
+		final FileCatalogUtil.CatalogEntry entry = FileCatalogUtil.getEntry( file );
+		final boolean isSeq = entry.isSeqFile();
+		if( checkedSeqFiles.add( file.getAbsolutePath() ) ) {
+			info( "Check if input file is a SEQ file: " + file.getAbsolutePath() + " --> " +
+				( isSeq ? entry.getSeqType(): "not a sequence file" ) );
 		}
-		fileSeqMap.put( file.getName(), false );
-		return false;
+		return isSeq;
 	}
 
 	/**
@@ -495,8 +443,8 @@ public class SeqUtil {
 	 * @return TRUE if module generated OTU count files
 	 */
 	public static boolean isSeqModule( final BioModule module ) {
-		final Collection<File> files = BioLockJUtil.removeIgnoredAndEmptyFiles(
-			FileUtils.listFiles( module.getOutputDir(), HiddenFileFilter.VISIBLE, HiddenFileFilter.VISIBLE ) );
+		final Collection<File> files =
+			BioLockJUtil.removeIgnoredAndEmptyFiles( FileCatalogUtil.listFiles( module.getOutputDir() ) );
 		for( final File f: files )
 			if( SeqUtil.isSeqFile( f ) ) return true;
 		return false;
@@ -512,6 +460,14 @@ public class SeqUtil {
 		return BioLockJUtil.pipelineInputType( BioLockJUtil.PIPELINE_SEQ_INPUT_TYPE );
 	}
 
+	/**
+	 * Clear the Sample IDs cached by {@link #getSampleId(String)}, called whenever the Config properties or metadata
+	 * file used to parse Sample IDs may have changed.
+	 */
+	public static void resetSampleIdCache() {
+		sampleIdCache.clear();
+	}
+
 	/**
 	 * Return the DNA reverse compliment for the input dna parameter.
 	 * 
@@ -520,43 +476,12 @@ public class SeqUtil {
 	 * @throws Exception if sequence contains a non-standard letter (only ACGT accepted)
 	 */
 	public static String reverseComplement( final String dna ) throws Exception {
-		String out = "";
-		for( int i = dna.length() - 1; i >= 0; --i ) {
-			final char curr = dna.charAt( i );
-			if( curr == 'A' ) out += 'T';
-			else if( curr == 'T' ) out += 'A';
-			else if( curr == 'C' ) out += 'G';
-			else if( curr == 'G' ) out += 'C';
-			else throw new Exception( "ERROR: Input is not a DNA Sequence: " + dna );
-		}
+		final String out = DnaUtil.reverseComplement( dna );
+		if( out == null ) throw new Exception( "ERROR: Input is not a DNA Sequence: " + dna );
 		// Log.debug( SeqUtil.class, "Reverse compliment for:" + dna + " = " + out );
 		return out;
 	}
 
-	/**
-	 * This method returns the 1st non-empty line and moves the BufferedReader pointer to this line. By passing the
-	 * reader, subsequent calls to reader.readLine() will pick up from here.
-	 * 
-	 * @param reader BufferedReader reader for sequence file
-	 * @param file Sequence file read by the BufferedReader (used for log and error messages)
-	 * @return String First non-empty line
-	 * @throws Exception if errors occur
-	 */
-	public static String scanFirstLine( final BufferedReader reader, final File file ) throws Exception {
-		Integer i = 0;
-		String line = reader.readLine();
-		while( line != null && line.isEmpty() ) {
-			i++;
-			line = reader.readLine();
-		}
-
-		if( line == null ) throw new Exception( "Input dir contains empty file: " + file.getAbsolutePath() );
-		if( i != 0 )
-			Log.warn( SeqUtil.class, "Skipped [ " + i + " ] empty lines at the top of ---> " + file.getAbsolutePath() );
-
-		return line.trim();
-	}
-
 	/**
 	 * Set {@value biolockj.Constants#INPUT_IGNORE_FILES}, {@value Constants#INTERNAL_SEQ_HEADER_CHAR}, and
 	 * {@value Constants#INTERNAL_SEQ_TYPE}
@@ -566,6 +491,8 @@ public class SeqUtil {
 	 * {@link biolockj.module.classifier} {@link biolockj.module.BioModule}s, ignore non-(fasta/fastq) files found in
 	 * {@link Constants#INPUT_DIRS}
 	 * </ul>
+	 * The header character and number of lines per read are read from the {@link biolockj.util.FileCatalogUtil} so
+	 * each input file is opened only once.
 	 *
 	 * @throws Exception if {@link Constants#INPUT_DIRS} undefined or file reader I/O Exception occurs
 	 */
@@ -575,34 +502,14 @@ public class SeqUtil {
 		String headerChar = null;
 
 		for( final File f: BioLockJUtil.getPipelineInputFiles() ) {
-			final BufferedReader reader = BioLockJUtil.getFileReader( f );
-			try {
-				String line = scanFirstLine( reader, f );
-				int numSeqLines = 0;
-				while( line != null ) {
-					line = line.trim();
-					if( headerChar == null ) {
-						headerChar = line.substring( 0, 1 ); // set only once
-						Log.debug( SeqUtil.class, " --> 1st headerChar = " + headerChar );
-					} else {
-						Log.debug( SeqUtil.class, f.getName() + " --> Line[" + ( numSeqLines + 1 ) + "] = " + line );
-						final String testChar = line.trim().substring( 0, 1 );
-						if( !testChar.equals( headerChar ) && !testChar.equals( "+" ) ) {
-							numSeqLines++;
-							if( numSeqLines > 1 )
-								Log.warn( SeqUtil.class, f.getName() + " --> Line [ " + ( numSeqLines + 1 ) +
-									" ] after TEST CHARACTER: " + headerChar + " = #seq lines = " + numSeqLines );
-						} else {
-							if( numSeqLines == 0 ) numSeqLines++;
-							break;
-						}
-					}
-					line = reader.readLine();
-				}
-
-				if( headerChar == null ) throw new Exception(
-					"Failed to to identify 1st character of sequence header in: " + f.getAbsolutePath() );
-
+			final FileCatalogUtil.CatalogEntry entry = FileCatalogUtil.getEntry( f );
+			if( entry.getHeaderChar() == null ) throw new Exception(
+				"Found invalid sequence file: " + f.getAbsolutePath() + " --> Input dir contains empty file" );
+
+			if( headerChar == null ) {
+				headerChar = entry.getHeaderChar(); // set only once
+				final int numSeqLines = entry.getNumSeqLines();
+				Log.debug( SeqUtil.class, " --> 1st headerChar = " + headerChar );
 				info( f.getAbsolutePath() + " --> #lines/read: " + ( numSeqLines + 1 ) );
 				if( numSeqLines > 1 && Config.getString( null, Constants.INTERNAL_IS_MULTI_LINE_SEQ ) == null &&
 					( FASTA_HEADER_DELIMS.contains( headerChar ) || headerChar.equals( FASTQ_HEADER_DELIM ) ) ) {
@@ -614,11 +521,6 @@ public class SeqUtil {
 						numMultiSeqLines = null;
 					}
 				}
-			} catch( final Exception ex ) {
-				throw new Exception(
-					"Found invalid sequence file: " + f.getAbsolutePath() + " --> " + ex.getMessage() );
-			} finally {
-				if( reader != null ) reader.close();
 			}
 
 			if( FASTA_HEADER_DELIMS.contains( headerChar ) ) {
@@ -653,6 +555,24 @@ public class SeqUtil {
 		}
 	}
 
+	/**
+	 * Get all valid FASTA header characters.
+	 * 
+	 * @return List of FASTA header 1st character options
+	 */
+	protected static List<String> getFastaHeaderDelims() {
+		return FASTA_HEADER_DELIMS;
+	}
+
+	/**
+	 * Get the FASTQ header character.
+	 * 
+	 * @return FASTQ header 1st character
+	 */
+	protected static String getFastqHeaderDelim() {
+		return FASTQ_HEADER_DELIM;
+	}
+
 	/**
 	 * Inspect the pipeline input files to determine if input includes paired reads.
 	 * 
@@ -666,23 +586,18 @@ public class SeqUtil {
 				boolean foundFw = false;
 				boolean foundRv = false;
 				final File testFile = BioLockJUtil.getPipelineInputFiles().iterator().next();
-				final BufferedReader reader = BioLockJUtil.getFileReader( testFile );
+				final SeqRecordReader reader = new SeqRecordReader( testFile );
 				try {
 					info( "Reading multiplexed file to check for paired reads: " + testFile.getAbsolutePath() );
-					final List<String> seqLines = new ArrayList<>();
-					for( String line = reader.readLine(); line != null; line = reader.readLine() ) {
-						seqLines.add( line );
-						if( seqLines.size() == SeqUtil.getNumLinesPerRead() ) {
-							if( seqLines.get( 0 ).contains( ILLUMINA_FW_READ_IND ) ) foundFw = true;
-							else if( seqLines.get( 0 ).contains( ILLUMINA_RV_READ_IND ) ) foundRv = true;
-							else Log.warn( SeqUtil.class,
-								"Invalid header, no direction indicator: " + seqLines.get( 0 ) );
-
-							seqLines.clear();
-						}
+					final SeqRecord record = new SeqRecord();
+					while( reader.next( record ) ) {
+						final String header = record.getHeader();
+						if( header.contains( ILLUMINA_FW_READ_IND ) ) foundFw = true;
+						else if( header.contains( ILLUMINA_RV_READ_IND ) ) foundRv = true;
+						else Log.warn( SeqUtil.class, "Invalid header, no direction indicator: " + header );
 					}
 				} finally {
-					if( reader != null ) reader.close();
+					reader.close();
 				}
 
 				foundPairedReads = foundFw && foundRv;
@@ -706,6 +621,57 @@ public class SeqUtil {
 		return metaCol != null && MetaUtil.hasColumn( metaCol ) && !MetaUtil.getFieldValues( metaCol, true ).isEmpty();
 	}
 
+	/**
+	 * Extract the Sample ID from a file name or sequence header, as described in {@link #getSampleId(String)}.
+	 * 
+	 * @param value File name or sequence header
+	 * @return Sample ID
+	 * @throws SequnceFormatException if sample ID failed to meet ID requirements
+	 * @throws MetadataException if errors occur reading SEQ columns from metadata file
+	 * @throws ConfigFormatException if Boolean Config properties have values other other "Y" or "N"
+	 */
+	private static String parseSampleId( final String value )
+		throws SequnceFormatException, MetadataException, ConfigFormatException {
+		String id = value;
+		final String fwReadSuffix = Config.getString( null, Constants.INPUT_FORWARD_READ_SUFFIX );
+		final String rvReadSuffix = Config.getString( null, Constants.INPUT_REVERSE_READ_SUFFIX );
+		final String fileNameCol = Config.getString( null, MetaUtil.META_FILENAME_COLUMN );
+
+		if( !isForwardRead( id ) ) {
+			final int rvIndex = value.lastIndexOf( rvReadSuffix );
+			id = id.substring( 0, rvIndex ) + fwReadSuffix + id.substring( rvIndex + 3 );
+		}
+
+		if( MetaUtil.hasColumn( fileNameCol ) && !MetaUtil.getFieldValues( fileNameCol, true ).isEmpty() ) {
+			final int ind = MetaUtil.getFieldValues( fileNameCol, false ).indexOf( id );
+			if( ind > -1 ) return MetaUtil.getSampleIds().get( ind );
+			Log.warn( SeqUtil.class, value + " not processed in pipeline - path not found in metadata column " +
+				fileNameCol + " in: " + MetaUtil.getPath() );
+			return null;
+		}
+
+		// trim directional suffix
+		if( !isMultiplexed() && fwReadSuffix != null && id.indexOf( fwReadSuffix ) > 0 )
+			id = id.substring( 0, id.lastIndexOf( fwReadSuffix ) );
+
+		// trim files extensions: .gz | .fasta | .fastq
+		if( isGzipped( id ) ) id = id.substring( 0, id.length() - 3 );
+		if( id.toLowerCase().endsWith( "." + Constants.FASTA ) || id.toLowerCase().endsWith( "." + Constants.FASTQ ) )
+			id = id.substring( 0, id.length() - 6 );
+
+		// trim user defined file prefix and/or suffix patterns
+		final String trimPrefix = Config.getString( null, Constants.INPUT_TRIM_PREFIX );
+		final String trimSuffix = Config.getString( null, Constants.INPUT_TRIM_SUFFIX );
+		if( trimPrefix != null && id.indexOf( trimPrefix ) > -1 )
+			id = id.substring( trimPrefix.length() + id.indexOf( trimPrefix ) );
+
+		if( trimSuffix != null && id.indexOf( trimSuffix ) > 0 ) id = id.substring( 0, id.indexOf( trimSuffix ) );
+
+		if( id == null || id.isEmpty() )
+			throw new SequnceFormatException( "Unable to extract a valid Sample ID from: " + value );
+		return id;
+	}
+
 	/**
 	 * Unpaired reads must be multiplexed into a single file. Multiplexed paired reads must be contained in either 1
 	 * file, or 2 (1 file with forward reads and 1 file with reverse reads). Based on the number of files and file
@@ -777,9 +743,10 @@ public class SeqUtil {
 
 	private static final List<String> FASTA_HEADER_DELIMS = Arrays.asList( ">", ";" );
 	private static final String FASTQ_HEADER_DELIM = "@";
-	private static final Map<String, Boolean> fileSeqMap = new HashMap<>();
+	private static final Set<String> checkedSeqFiles = ConcurrentHashMap.newKeySet();
 	private static final Integer MAX_DISPLAY_LEN = 200;
 	private static Integer numMultiSeqLines = 0;
+	private static final Map<String, String> sampleIdCache = new ConcurrentHashMap<>();
 	static {
 		// IUPAC DNA BASE Substitutions
 		// http://www.dnabaser.com/articles/IUPAC%20ambiguity%20codes.html
@@ -0,0 +1,406 @@
+/**
+ * @UNCC Fodor Lab
+ * @author agent
+ * @email agent@local
+ * @date Oct 19, 2026
+ * @disclaimer This code is free software; you can redistribute it and/or modify it under the terms of the GNU General
+ * Public License as published by the Free Software Foundation; either version 2 of the License, or (at your option) any
+ * later version, provided that any use properly credits the author. This program is distributed in the hope that it
+ * will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License for more details at http://www.gnu.org *
+ */
+package biolockj.util;
+
+import java.io.*;
+import java.util.*;
+import biolockj.Config;
+import biolockj.Constants;
+import biolockj.Log;
+
+/**
+ * This utility provides collections that stay within the heap budget set by
+ * {@link biolockj.Config}.{@value biolockj.Constants#PIPELINE_MEMORY_BUDGET}. Once a collection exceeds its budget, the
+ * in-memory entries are written as a sorted run to a temp file and cleared. Runs are merged lazily when the collection
+ * is iterated, so only 1 line per run is held in memory. Files already sorted by key can be merged the same way with
+ * {@link biolockj.util.SpillUtil.SortedFileMerge}.
+ */
+public class SpillUtil {
+
+	/**
+	 * This inner class is a sorted map of String keys to long counts. Counts added for the same key are summed, both in
+	 * memory and when the sorted runs are merged. Keys must not contain tabs or line breaks.
+	 */
+	public static final class SortedCountMap implements Iterable<Map.Entry<String, Long>>, Closeable {
+
+		/**
+		 * Construct a SortedCountMap that spills sorted runs into the given directory.
+		 *
+		 * @param tempDir Directory used to save sorted runs
+		 * @param name Name used for the sorted run file names
+		 */
+		public SortedCountMap( final File tempDir, final String name ) {
+			this.tempDir = tempDir;
+			this.name = name;
+		}
+
+		/**
+		 * Add the count to the key, spill the in-memory entries to disk if the heap budget is exceeded.
+		 *
+		 * @param key Key
+		 * @param count Count
+		 * @throws IOException if unable to write the sorted run
+		 */
+		public void add( final String key, final long count ) throws IOException {
+			final Long prev = this.counts.get( key );
+			if( prev == null ) {
+				this.counts.put( key, count );
+				this.numBytes += estimateBytes( key );
+				if( this.numBytes > getMemoryBudget() ) spill();
+			} else this.counts.put( key, prev + count );
+		}
+
+		/**
+		 * Delete the sorted run files.
+		 */
+		@Override
+		public void close() {
+			for( final File run: this.runs )
+				if( !run.delete() ) Log.warn( SpillUtil.class, "Unable to delete: " + run.getAbsolutePath() );
+			this.runs.clear();
+		}
+
+		/**
+		 * Get the number of sorted runs spilled to disk.
+		 *
+		 * @return Number of sorted runs
+		 */
+		public int getNumRuns() {
+			return this.runs.size();
+		}
+
+		/**
+		 * Iterate the entries in key order, merging the in-memory entries with any sorted runs on disk.
+		 */
+		@Override
+		public Iterator<Map.Entry<String, Long>> iterator() {
+			try {
+				final List<MergeSource> sources = getSources( this.runs );
+				sources.add( new MergeSource( null, this.counts.entrySet().iterator() ) );
+				return new MergeIterator( sources );
+			} catch( final IOException ex ) {
+				throw new UncheckedIOException( ex );
+			}
+		}
+
+		// Merge the existing runs into 1 so the number of open files stays below MAX_RUNS
+		private void compact() throws IOException {
+			final File run = writeRun( new MergeIterator( getSources( this.runs ) ) );
+			close();
+			this.runs.add( run );
+			Log.info( SpillUtil.class, "Merged sorted runs into: " + run.getAbsolutePath() );
+		}
+
+		private void spill() throws IOException {
+			if( this.runs.size() >= MAX_RUNS ) compact();
+			final File run = writeRun( this.counts.entrySet().iterator() );
+			Log.info( SpillUtil.class, "Heap budget exceeded, spilled " + this.counts.size() + " entries to: " +
+				run.getAbsolutePath() );
+			this.runs.add( run );
+			this.counts.clear();
+			this.numBytes = 0L;
+		}
+
+		private File writeRun( final Iterator<Map.Entry<String, Long>> it ) throws IOException {
+			this.tempDir.mkdirs();
+			final File run = new File( this.tempDir.getAbsolutePath() + File.separator + "." + this.name + "_" +
+				this.numRunFiles++ + RUN_EXT );
+			writeEntries( run, it );
+			return run;
+		}
+
+		private final TreeMap<String, Long> counts = new TreeMap<>();
+		private final String name;
+		private long numBytes = 0L;
+		private int numRunFiles = 0;
+		private final List<File> runs = new ArrayList<>();
+		private final File tempDir;
+	}
+
+	/**
+	 * This inner class iterates a k-way merge of files sorted by key, formatted as 1 "key[TAB]count" line per key, such
+	 * as sample OTU count files. Counts of equal keys are summed, 1 line per file is held in memory. The number of
+	 * distinct keys read from each file is tracked as the files are merged. At most
+	 * {@value biolockj.util.SpillUtil#MAX_RUNS} files are open at once: if there are more, groups of files are first
+	 * merged into sorted runs in the temp directory.
+	 */
+	public static final class SortedFileMerge implements Iterator<Map.Entry<String, Long>>, Closeable {
+
+		/**
+		 * Construct a SortedFileMerge and read the 1st line of each file. If there are more than
+		 * {@value biolockj.util.SpillUtil#MAX_RUNS} files, they are first merged into sorted runs saved in the temp
+		 * directory.
+		 *
+		 * @param files Files sorted by key
+		 * @param tempDir Directory used to save sorted runs
+		 * @throws IOException if unable to read the files, or if any file is not sorted by key
+		 */
+		public SortedFileMerge( final List<File> files, final File tempDir ) throws IOException {
+			List<File> inputs = files;
+			try {
+				while( inputs.size() > MAX_RUNS ) {
+					final List<File> merged = new ArrayList<>();
+					for( int i = 0; i < inputs.size(); i += MAX_RUNS )
+						merged.add( mergeRun( inputs.subList( i, Math.min( i + MAX_RUNS, inputs.size() ) ), tempDir,
+							inputs == files ? i: null ) );
+					Log.info( SpillUtil.class, "Merged " + inputs.size() + " sorted files into " + merged.size() +
+						" sorted runs in: " + tempDir.getAbsolutePath() );
+					inputs = merged;
+				}
+				this.sources = getSources( inputs );
+			} catch( final IOException | RuntimeException ex ) {
+				deleteRuns();
+				throw ex;
+			}
+			this.it = new MergeIterator( this.sources );
+		}
+
+		/**
+		 * Close any file not yet read to the end and delete the sorted runs.
+		 */
+		@Override
+		public void close() throws IOException {
+			try {
+				for( final MergeSource source: this.sources )
+					source.reader.close();
+			} finally {
+				deleteRuns();
+			}
+		}
+
+		/**
+		 * Get the number of distinct keys read so far from the file at the given index, once the merge is complete
+		 * this is the number of unique keys in the file.
+		 *
+		 * @param index Index of the file in the list passed to the constructor
+		 * @return Number of distinct keys
+		 */
+		public long getNumKeys( final int index ) {
+			return this.numKeys.containsKey( index ) ? this.numKeys.get( index ): this.sources.get( index ).numKeys;
+		}
+
+		/**
+		 * Throws {@link java.io.UncheckedIOException} if any file is not sorted by key.
+		 */
+		@Override
+		public boolean hasNext() {
+			return this.it.hasNext();
+		}
+
+		/**
+		 * Throws {@link java.io.UncheckedIOException} if any file is not sorted by key.
+		 */
+		@Override
+		public Map.Entry<String, Long> next() {
+			return this.it.next();
+		}
+
+		private void deleteRuns() {
+			for( final File run: this.runs )
+				if( !run.delete() ) Log.warn( SpillUtil.class, "Unable to delete: " + run.getAbsolutePath() );
+			this.runs.clear();
+		}
+
+		// Merge the files into 1 sorted run, if offset (the input index) is set the number of keys per file is saved
+		private File mergeRun( final List<File> files, final File tempDir, final Integer offset ) throws IOException {
+			tempDir.mkdirs();
+			final File run = File.createTempFile( "." + SortedFileMerge.class.getSimpleName() + "_", RUN_EXT, tempDir );
+			this.runs.add( run );
+			final List<MergeSource> group = getSources( files );
+			try {
+				writeEntries( run, new MergeIterator( group ) );
+			} catch( final UncheckedIOException ex ) {
+				throw ex.getCause();
+			} finally {
+				for( final MergeSource source: group )
+					source.reader.close();
+			}
+			if( offset != null ) for( int i = 0; i < group.size(); i++ )
+				this.numKeys.put( offset + i, group.get( i ).numKeys );
+			return run;
+		}
+
+		private final MergeIterator it;
+		private final Map<Integer, Long> numKeys = new HashMap<>();
+		private final List<File> runs = new ArrayList<>();
+		private List<MergeSource> sources = new ArrayList<>();
+	}
+
+	/**
+	 * This inner class holds the current entry of 1 sorted source (a file or the in-memory map).
+	 */
+	private static final class MergeSource {
+		private MergeSource( final BufferedReader reader, final Iterator<Map.Entry<String, Long>> it ) {
+			this.reader = reader;
+			this.it = it;
+		}
+
+		private boolean next() throws IOException {
+			if( this.it != null ) {
+				if( !this.it.hasNext() ) return false;
+				final Map.Entry<String, Long> entry = this.it.next();
+				this.key = entry.getKey();
+				this.count = entry.getValue();
+				return true;
+			}
+
+			final String line = this.reader.readLine();
+			if( line == null ) {
+				this.reader.close();
+				return false;
+			}
+			final int index = line.lastIndexOf( Constants.TAB_DELIM );
+			final String prev = this.key;
+			this.key = line.substring( 0, index );
+			this.count = Long.parseLong( line.substring( index + 1 ) );
+			if( prev != null && prev.compareTo( this.key ) > 0 )
+				throw new IOException(
+					"Input lines not sorted by key: \"" + prev + "\" found before \"" + this.key + "\"" );
+			if( !this.key.equals( prev ) ) this.numKeys++;
+			return true;
+		}
+
+		private long count;
+		private final Iterator<Map.Entry<String, Long>> it;
+		private String key;
+		private long numKeys = 0L;
+		private final BufferedReader reader;
+	}
+
+	/**
+	 * This inner class iterates a k-way merge of the sorted sources, summing the counts of equal keys.
+	 */
+	private static final class MergeIterator implements Iterator<Map.Entry<String, Long>> {
+		private MergeIterator( final List<MergeSource> sources ) throws IOException {
+			for( final MergeSource source: sources )
+				offer( source );
+		}
+
+		@Override
+		public boolean hasNext() {
+			return !this.queue.isEmpty();
+		}
+
+		@Override
+		public Map.Entry<String, Long> next() {
+			if( this.queue.isEmpty() ) throw new NoSuchElementException();
+			final String key = this.queue.peek().key;
+			long count = 0L;
+			try {
+				while( !this.queue.isEmpty() && this.queue.peek().key.equals( key ) ) {
+					final MergeSource source = this.queue.poll();
+					count += source.count;
+					offer( source );
+				}
+			} catch( final IOException ex ) {
+				throw new UncheckedIOException( ex );
+			}
+			return new AbstractMap.SimpleImmutableEntry<>( key, count );
+		}
+
+		private void offer( final MergeSource source ) throws IOException {
+			if( source.next() ) this.queue.add( source );
+		}
+
+		private final PriorityQueue<MergeSource> queue = new PriorityQueue<>( ( a, b ) -> a.key.compareTo( b.key ) );
+	}
+
+	// Prevent instantiation
+	private SpillUtil() {}
+
+	/**
+	 * Estimate the heap used by a collection of sorted sample maps, as returned by
+	 * {@link biolockj.util.OtuUtil#getSampleOtuCounts(Collection)}.
+	 *
+	 * @param sampleCounts TreeMap(SampleId, TreeMap(key, count))
+	 * @return Estimated number of bytes
+	 */
+	public static long estimateBytes( final TreeMap<String, TreeMap<String, Long>> sampleCounts ) {
+		long numBytes = 0L;
+		for( final TreeMap<String, Long> counts: sampleCounts.values() )
+			for( final String key: counts.keySet() )
+				numBytes += estimateBytes( key );
+		return numBytes;
+	}
+
+	/**
+	 * Get the heap budget in bytes, configured by {@value biolockj.Constants#PIPELINE_MEMORY_BUDGET} or 1/4 of the max
+	 * heap if undefined.
+	 *
+	 * @return Heap budget in bytes
+	 */
+	public static long getMemoryBudget() {
+		if( memoryBudget == null ) {
+			Integer mb = null;
+			try {
+				mb = Config.getPositiveInteger( null, Constants.PIPELINE_MEMORY_BUDGET );
+			} catch( final Exception ex ) {
+				Log.warn( SpillUtil.class, "Invalid " + Constants.PIPELINE_MEMORY_BUDGET + ", use default --> " +
+					ex.getMessage() );
+			}
+			memoryBudget = mb == null ? Runtime.getRuntime().maxMemory() / 4: mb * BYTES_PER_MB;
+			Log.info( SpillUtil.class, "Heap budget for large collections: " + memoryBudget / BYTES_PER_MB + " MB" );
+		}
+		return memoryBudget;
+	}
+
+	/**
+	 * Check if the estimated size exceeds the heap budget.
+	 *
+	 * @param numBytes Estimated number of bytes
+	 * @return TRUE if numBytes exceeds the heap budget
+	 */
+	public static boolean isOverBudget( final long numBytes ) {
+		return numBytes > getMemoryBudget();
+	}
+
+	// Open 1 reader per file, if any file cannot be opened the readers already opened are closed
+	private static List<MergeSource> getSources( final List<File> files ) throws IOException {
+		final List<MergeSource> sources = new ArrayList<>();
+		try {
+			for( final File file: files )
+				sources.add( new MergeSource( BioLockJUtil.getFileReader( file ), null ) );
+		} catch( final IOException | RuntimeException ex ) {
+			for( final MergeSource source: sources )
+				try {
+					source.reader.close();
+				} catch( final IOException closeEx ) {
+					ex.addSuppressed( closeEx );
+				}
+			throw ex;
+		}
+		return sources;
+	}
+
+	private static void writeEntries( final File file, final Iterator<Map.Entry<String, Long>> it ) throws IOException {
+		final BufferedWriter writer = new BufferedWriter( new FileWriter( file ) );
+		try {
+			while( it.hasNext() ) {
+				final Map.Entry<String, Long> entry = it.next();
+				writer.write( entry.getKey() + Constants.TAB_DELIM + entry.getValue() + Constants.RETURN );
+			}
+		} finally {
+			writer.close();
+		}
+	}
+
+	// TreeMap.Entry, String, char[] and Long headers + 2 bytes per char
+	private static long estimateBytes( final String key ) {
+		return ENTRY_OVERHEAD + 2L * key.length();
+	}
+
+	private static final long BYTES_PER_MB = 1024L * 1024L;
+	private static final long ENTRY_OVERHEAD = 120L;
+	private static final int MAX_RUNS = 64;
+	private static Long memoryBudget = null;
+	private static final String RUN_EXT = ".run";
+}
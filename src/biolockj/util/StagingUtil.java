@@ -0,0 +1,209 @@
+/**
+ * @UNCC Fodor Lab
+ * @author agent
+ * @email agent@local
+ * @date Oct 19, 2026
+ * @disclaimer This code is free software; you can redistribute it and/or modify it under the terms of the GNU General
+ * Public License as published by the Free Software Foundation; either version 2 of the License, or (at your option) any
+ * later version, provided that any use properly credits the author. This program is distributed in the hope that it
+ * will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License for more details at http://www.gnu.org *
+ */
+package biolockj.util;
+
+import java.io.*;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import biolockj.Config;
+import biolockj.Constants;
+import biolockj.Log;
+
+/**
+ * This utility stages the pipeline input files into the pipeline input directory. Files are copied in parallel, each
+ * file is written to a hidden temp file and renamed when complete, so an interrupted copy can be resumed: files already
+ * staged (same size and modified time, and optionally the same checksum) are skipped. If enabled, files are hard-linked
+ * rather than copied when the source and target share a file system. Input files are found as in
+ * {@link biolockj.util.FileCatalogUtil}: symbolic links are followed and hidden files are skipped.
+ */
+public class StagingUtil {
+
+	/**
+	 * This inner class holds the source and target of 1 file to stage.
+	 */
+	private static final class StageTask {
+		private StageTask( final Path source, final Path target, final long size ) {
+			this.source = source;
+			this.target = target;
+			this.size = size;
+		}
+
+		private final long size;
+		private final Path source;
+		private final Path target;
+	}
+
+	// Prevent instantiation
+	private StagingUtil() {}
+
+	/**
+	 * Stage the files in each input directory into the target directory, keeping the relative paths of files in
+	 * sub-directories. File {@value biolockj.Constants#BLJ_COMPLETE} is saved in the target directory once every file
+	 * is staged, if found the input directories are not checked again.
+	 *
+	 * @param inputDirs Input directories
+	 * @param targetDir Pipeline input directory
+	 * @throws Exception if unable to stage any file
+	 */
+	public static void stageInputDirs( final Collection<File> inputDirs, final File targetDir ) throws Exception {
+		final File statusFile = new File( targetDir.getAbsolutePath() + File.separator + Constants.BLJ_COMPLETE );
+		if( statusFile.isFile() ) {
+			Log.info( StagingUtil.class, "Input files already staged in: " + targetDir.getAbsolutePath() );
+			return;
+		}
+
+		targetDir.mkdirs();
+		final List<StageTask> tasks = new ArrayList<>();
+		long totalBytes = 0L;
+		for( final File dir: inputDirs ) {
+			Log.info( StagingUtil.class,
+				"Copying input files from " + dir.getAbsolutePath() + " to " + targetDir.getAbsolutePath() );
+			for( final StageTask task: getTasks( dir.toPath(), targetDir.toPath() ) ) {
+				tasks.add( task );
+				totalBytes += task.size;
+			}
+		}
+
+		// Start the largest files first so 1 large file does not run alone at the end
+		Collections.sort( tasks, ( a, b ) -> Long.compare( b.size, a.size ) );
+
+		final boolean link = Config.getBoolean( null, Constants.PIPELINE_COPY_LINK );
+		final boolean checksum = Config.getBoolean( null, Constants.PIPELINE_COPY_CHECKSUM );
+		final Integer numThreads = Config.getPositiveInteger( null, Constants.PIPELINE_COPY_THREADS );
+		final int poolSize = Math.min( tasks.size(), numThreads == null ? DEFAULT_THREADS: numThreads );
+		final ExecutorService pool = Executors.newFixedThreadPool( Math.max( 1, poolSize ) );
+		final long total = totalBytes;
+		final List<Future<String>> results = new ArrayList<>();
+		resetProgress();
+		try {
+			for( final StageTask task: tasks )
+				results.add( pool.submit( () -> {
+					final String status = stageFile( task, link, checksum );
+					Log.debug( StagingUtil.class, status + " " + task.source + " --> " + task.target );
+					logProgress( task.size, total, tasks.size() );
+					return status;
+				} ) );
+
+			final Map<String, Integer> counts = new TreeMap<>();
+			for( final Future<String> result: results ) {
+				final String status = getResult( result );
+				counts.put( status, counts.containsKey( status ) ? counts.get( status ) + 1: 1 );
+			}
+			Log.info( StagingUtil.class, "Staged " + tasks.size() + " input files ( " + toGB( total ) + " GB ): " +
+				counts );
+		} finally {
+			pool.shutdownNow();
+			FileCatalogUtil.invalidate( targetDir );
+		}
+
+		BioLockJUtil.createFile( statusFile.getAbsolutePath() );
+	}
+
+	private static String getChecksum( final Path file ) throws Exception {
+		final MessageDigest md = MessageDigest.getInstance( "MD5" );
+		final InputStream in = Files.newInputStream( file );
+		try {
+			final byte[] buffer = new byte[ BUFFER_SIZE ];
+			for( int n = in.read( buffer ); n > 0; n = in.read( buffer ) )
+				md.update( buffer, 0, n );
+		} finally {
+			in.close();
+		}
+		final StringBuilder sb = new StringBuilder();
+		for( final byte b: md.digest() )
+			sb.append( String.format( "%02x", b ) );
+		return sb.toString();
+	}
+
+	private static String getResult( final Future<String> result ) throws Exception {
+		try {
+			return result.get();
+		} catch( final ExecutionException ex ) {
+			if( ex.getCause() instanceof Exception ) throw (Exception) ex.getCause();
+			throw ex;
+		}
+	}
+
+	private static List<StageTask> getTasks( final Path dir, final Path targetDir ) throws IOException {
+		final List<StageTask> tasks = new ArrayList<>();
+		FileCatalogUtil.walkFiles( dir, ( path, attrs ) -> tasks
+			.add( new StageTask( path, targetDir.resolve( dir.relativize( path ).toString() ), attrs.size() ) ) );
+		return tasks;
+	}
+
+	private static boolean isStaged( final StageTask task, final boolean checksum ) throws Exception {
+		if( !Files.isRegularFile( task.target ) ) return false;
+		if( Files.isSameFile( task.source, task.target ) ) return true;
+		if( Files.size( task.target ) != task.size || !Files.getLastModifiedTime( task.target )
+			.equals( Files.getLastModifiedTime( task.source ) ) ) return false;
+		return !checksum || getChecksum( task.source ).equals( getChecksum( task.target ) );
+	}
+
+	private static synchronized void logProgress( final long size, final long totalBytes, final int numFiles ) {
+		final int filesDone = numStaged.incrementAndGet();
+		final long bytesDone = numBytesStaged.addAndGet( size );
+		final long percent = totalBytes == 0 ? 100: bytesDone * 100 / totalBytes;
+		if( percent >= nextPercent || filesDone == numFiles ) {
+			Log.info( StagingUtil.class, "Input staging progress: " + percent + "% --> " + filesDone + "/" + numFiles +
+				" files ( " + toGB( bytesDone ) + "/" + toGB( totalBytes ) + " GB )" );
+			while( nextPercent <= percent )
+				nextPercent += PROGRESS_INTERVAL;
+		}
+	}
+
+	private static synchronized void resetProgress() {
+		numStaged.set( 0 );
+		numBytesStaged.set( 0L );
+		nextPercent = 0L;
+	}
+
+	private static String stageFile( final StageTask task, final boolean link, final boolean checksum )
+		throws Exception {
+		if( isStaged( task, checksum ) ) return SKIPPED;
+		Files.createDirectories( task.target.getParent() );
+		if( link && !linkFailed.get() ) try {
+			Files.deleteIfExists( task.target );
+			Files.createLink( task.target, task.source.toRealPath() );
+			return LINKED;
+		} catch( final IOException | UnsupportedOperationException ex ) {
+			if( !linkFailed.getAndSet( true ) ) Log.warn( StagingUtil.class,
+				"Unable to hard-link input files, copy files instead --> " + ex.getMessage() );
+		}
+
+		final Path temp = task.target.resolveSibling( "." + task.target.getFileName() + PART_EXT );
+		Files.copy( task.source, temp, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.COPY_ATTRIBUTES );
+		Files.move( temp, task.target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE );
+		return COPIED;
+	}
+
+	private static String toGB( final long bytes ) {
+		return String.format( "%.2f", bytes / BYTES_PER_GB );
+	}
+
+	private static final int BUFFER_SIZE = 1024 * 1024;
+	private static final double BYTES_PER_GB = 1024.0 * 1024.0 * 1024.0;
+	private static final String COPIED = "copied";
+	private static final int DEFAULT_THREADS = 4;
+	private static final AtomicBoolean linkFailed = new AtomicBoolean( false );
+	private static final String LINKED = "linked";
+	private static long nextPercent = 0L;
+	private static final AtomicLong numBytesStaged = new AtomicLong( 0L );
+	private static final AtomicInteger numStaged = new AtomicInteger( 0 );
+	private static final String PART_EXT = ".part";
+	private static final int PROGRESS_INTERVAL = 10;
+	private static final String SKIPPED = "skipped";
+}
@@ -0,0 +1,563 @@
+/**
+ * @UNCC Fodor Lab
+ * @author agent
+ * @email agent@local
+ * @date Oct 19, 2026
+ * @disclaimer This code is free software; you can redistribute it and/or modify it under the terms of the GNU General
+ * Public License as published by the Free Software Foundation; either version 2 of the License, or (at your option) any
+ * later version, provided that any use properly credits the author. This program is distributed in the hope that it
+ * will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License for more details at http://www.gnu.org *
+ */
+package biolockj.util;
+
+import java.util.Arrays;
+
+/**
+ * This utility implements the statistical tests run by R_CalculateStats.R over primitive arrays. Each test matches the
+ * R function noted in its description. Tests return {@link Double#NaN} where R would return NA or fail, for example if
+ * a group has too few values.
+ */
+public class StatsUtil {
+
+	// Prevent instantiation
+	private StatsUtil() {}
+
+	/**
+	 * Adjust p-values with the given method, as R p.adjust( p, method, n ). Supported methods: holm, hochberg, hommel,
+	 * bonferroni, BH, BY, fdr, none. NaN values are ignored and left unchanged.
+	 *
+	 * @param pvals P-values
+	 * @param method Adjustment method
+	 * @param n Number of comparisons, must be at least the number of non-NaN p-values
+	 * @return Adjusted p-values
+	 * @throws Exception if the method is not supported
+	 */
+	public static double[] adjustPvals( final double[] pvals, final String method, final int n ) throws Exception {
+		final double[] adj = pvals.clone();
+		int lp = 0;
+		for( final double p: pvals )
+			if( !Double.isNaN( p ) ) lp++;
+		final double[] p = new double[ lp ];
+		final int[] index = new int[ lp ];
+		for( int i = 0, j = 0; i < pvals.length; i++ )
+			if( !Double.isNaN( pvals[ i ] ) ) {
+				p[ j ] = pvals[ i ];
+				index[ j++ ] = i;
+			}
+
+		if( n < lp ) throw new Exception( "Number of comparisons [" + n + "] < number of p-values [" + lp + "]" );
+		if( n <= 1 || lp == 0 ) return adj;
+
+		final double[] q = new double[ lp ];
+		final Integer[] order = orderAscending( p );
+		String name = method.equals( "fdr" ) ? "BH": method;
+		if( n == 2 && name.equals( "hommel" ) ) name = "hochberg";
+		if( name.equals( "bonferroni" ) ) for( int i = 0; i < lp; i++ )
+			q[ i ] = Math.min( 1, n * p[ i ] );
+		else if( name.equals( "holm" ) ) {
+			double max = 0;
+			for( int i = 0; i < lp; i++ ) {
+				max = Math.max( max, ( n - i ) * p[ order[ i ] ] );
+				q[ order[ i ] ] = Math.min( 1, max );
+			}
+		} else if( name.equals( "hochberg" ) || name.equals( "BH" ) || name.equals( "BY" ) ) {
+			double sum = 1;
+			if( name.equals( "BY" ) ) {
+				sum = 0;
+				for( int i = 1; i <= n; i++ )
+					sum += 1.0 / i;
+			}
+			double min = Double.POSITIVE_INFINITY;
+			for( int i = lp - 1; i >= 0; i-- ) {
+				final int rank = i + 1;
+				final double factor = name.equals( "hochberg" ) ? n + 1 - rank: sum * n / rank;
+				min = Math.min( min, factor * p[ order[ i ] ] );
+				q[ order[ i ] ] = Math.min( 1, min );
+			}
+		} else if( name.equals( "hommel" ) ) hommel( p, order, n, q );
+		else if( name.equals( "none" ) ) System.arraycopy( p, 0, q, 0, lp );
+		else throw new Exception( "Unsupported p-value adjustment method: " + method );
+
+		for( int i = 0; i < lp; i++ )
+			adj[ index[ i ] ] = q[ i ];
+		return adj;
+	}
+
+	/**
+	 * One-way ANOVA of x by group, as anova( lm( x ~ group ) ). Return the p-value and R^2.
+	 *
+	 * @param x Values
+	 * @param group Group index of each value, or -1 to exclude the value
+	 * @param numGroups Number of groups
+	 * @return Array: { p-value, R^2 }
+	 */
+	public static double[] anova( final double[] x, final int[] group, final int numGroups ) {
+		final double[] sums = new double[ numGroups ];
+		final int[] counts = new int[ numGroups ];
+		double total = 0;
+		int n = 0;
+		for( int i = 0; i < x.length; i++ )
+			if( group[ i ] >= 0 && !Double.isNaN( x[ i ] ) ) {
+				sums[ group[ i ] ] += x[ i ];
+				counts[ group[ i ] ]++;
+				total += x[ i ];
+				n++;
+			}
+
+		int k = 0;
+		for( final int count: counts )
+			if( count > 0 ) k++;
+
+		final double mean = n == 0 ? 0: total / n;
+		double ssTotal = 0;
+		double ssWithin = 0;
+		for( int i = 0; i < x.length; i++ )
+			if( group[ i ] >= 0 && !Double.isNaN( x[ i ] ) ) {
+				final double groupMean = sums[ group[ i ] ] / counts[ group[ i ] ];
+				ssTotal += ( x[ i ] - mean ) * ( x[ i ] - mean );
+				ssWithin += ( x[ i ] - groupMean ) * ( x[ i ] - groupMean );
+			}
+
+		final double ssBetween = ssTotal - ssWithin;
+		final double rSquared = ssTotal == 0 ? Double.NaN: ssBetween / ssTotal;
+		if( k < 2 || n - k < 1 || ssWithin == 0 ) return new double[] { Double.NaN, rSquared };
+		final double f = ssBetween / ( k - 1 ) / ( ssWithin / ( n - k ) );
+		return new double[] { fTestUpperTail( f, k - 1, n - k ), rSquared };
+	}
+
+	/**
+	 * Pearson correlation test of x and y over the complete pairs, as cor.test( x, y ).
+	 *
+	 * @param x Values
+	 * @param y Values
+	 * @return Two-sided p-value
+	 */
+	public static double correlationTest( final double[] x, final double[] y ) {
+		double sx = 0;
+		double sy = 0;
+		int n = 0;
+		for( int i = 0; i < x.length; i++ )
+			if( !Double.isNaN( x[ i ] ) && !Double.isNaN( y[ i ] ) ) {
+				sx += x[ i ];
+				sy += y[ i ];
+				n++;
+			}
+
+		if( n < 3 ) return Double.NaN;
+		final double mx = sx / n;
+		final double my = sy / n;
+		double sxx = 0;
+		double syy = 0;
+		double sxy = 0;
+		for( int i = 0; i < x.length; i++ )
+			if( !Double.isNaN( x[ i ] ) && !Double.isNaN( y[ i ] ) ) {
+				sxx += ( x[ i ] - mx ) * ( x[ i ] - mx );
+				syy += ( y[ i ] - my ) * ( y[ i ] - my );
+				sxy += ( x[ i ] - mx ) * ( y[ i ] - my );
+			}
+
+		if( sxx == 0 || syy == 0 ) return Double.NaN;
+		final double r = sxy / Math.sqrt( sxx * syy );
+		final int df = n - 2;
+		if( Math.abs( r ) >= 1 ) return 0;
+		final double t = r * Math.sqrt( df / ( 1 - r * r ) );
+		return tTestTwoTail( t, df );
+	}
+
+	/**
+	 * Kendall rank correlation of x and y over the complete pairs, as Kendall( x, y ) from the Kendall package. The
+	 * p-value uses the normal approximation of the score S with the variance adjusted for ties and a continuity
+	 * correction.
+	 *
+	 * @param x Values
+	 * @param y Values
+	 * @return Array: { two-sided p-value, tau-b }
+	 */
+	public static double[] kendall( final double[] x, final double[] y ) {
+		int n = 0;
+		for( int i = 0; i < x.length; i++ )
+			if( !Double.isNaN( x[ i ] ) && !Double.isNaN( y[ i ] ) ) n++;
+		final double[] a = new double[ n ];
+		final double[] b = new double[ n ];
+		for( int i = 0, j = 0; i < x.length; i++ )
+			if( !Double.isNaN( x[ i ] ) && !Double.isNaN( y[ i ] ) ) {
+				a[ j ] = x[ i ];
+				b[ j++ ] = y[ i ];
+			}
+
+		if( n < 2 ) return new double[] { Double.NaN, Double.NaN };
+		long s = 0;
+		long tiesA = 0;
+		long tiesB = 0;
+		for( int i = 0; i < n; i++ )
+			for( int j = i + 1; j < n; j++ ) {
+				final int da = Double.compare( a[ i ], a[ j ] );
+				final int db = Double.compare( b[ i ], b[ j ] );
+				if( da == 0 ) tiesA++;
+				if( db == 0 ) tiesB++;
+				s += Integer.signum( da ) * Integer.signum( db );
+			}
+
+		final double pairs = n * ( n - 1.0 ) / 2;
+		final double denom = Math.sqrt( ( pairs - tiesA ) * ( pairs - tiesB ) );
+		final double tau = denom == 0 ? Double.NaN: s / denom;
+
+		final double[] tieA = getTieStats( a );
+		final double[] tieB = getTieStats( b );
+		final double varS = ( n * ( n - 1.0 ) * ( 2.0 * n + 5 ) - tieA[ 0 ] - tieB[ 0 ] ) / 18 +
+			tieA[ 1 ] * tieB[ 1 ] / ( 2.0 * n * ( n - 1 ) ) +
+			( n > 2 ? tieA[ 2 ] * tieB[ 2 ] / ( 9.0 * n * ( n - 1 ) * ( n - 2 ) ): 0 );
+		if( varS <= 0 ) return new double[] { Double.NaN, tau };
+		final double z = s == 0 ? 0: ( Math.abs( s ) - 1 ) / Math.sqrt( varS );
+		return new double[] { Math.min( 1, 2 * normalUpperTail( z ) ), tau };
+	}
+
+	/**
+	 * Kruskal-Wallis rank sum test of x by group, as kruskal.test( x ~ group ).
+	 *
+	 * @param x Values
+	 * @param group Group index of each value, or -1 to exclude the value
+	 * @param numGroups Number of groups
+	 * @return P-value
+	 */
+	public static double kruskalWallis( final double[] x, final int[] group, final int numGroups ) {
+		final int[] keep = getIndexes( x, group );
+		final int n = keep.length;
+		final double[] vals = new double[ n ];
+		for( int i = 0; i < n; i++ )
+			vals[ i ] = x[ keep[ i ] ];
+		final double[] ranks = rank( vals );
+		final double[] rankSums = new double[ numGroups ];
+		final int[] counts = new int[ numGroups ];
+		for( int i = 0; i < n; i++ ) {
+			rankSums[ group[ keep[ i ] ] ] += ranks[ i ];
+			counts[ group[ keep[ i ] ] ]++;
+		}
+
+		int k = 0;
+		double stat = 0;
+		for( int g = 0; g < numGroups; g++ )
+			if( counts[ g ] > 0 ) {
+				stat += rankSums[ g ] * rankSums[ g ] / counts[ g ];
+				k++;
+			}
+
+		final double ties = getTieStats( vals )[ 3 ];
+		if( k < 2 || ties == n * ( n * (double) n - 1 ) ) return Double.NaN;
+		stat = ( 12 * stat / ( n * ( n + 1.0 ) ) - 3 * ( n + 1.0 ) ) / ( 1 - ties / ( n * ( n * (double) n - 1 ) ) );
+		return chiSquareUpperTail( stat, k - 1 );
+	}
+
+	/**
+	 * Return the ranks of the values, ties are assigned the mean rank, as R rank( x ).
+	 *
+	 * @param x Values
+	 * @return Ranks (1 = lowest)
+	 */
+	public static double[] rank( final double[] x ) {
+		final Integer[] order = orderAscending( x );
+		final double[] ranks = new double[ x.length ];
+		for( int i = 0; i < x.length; ) {
+			int j = i;
+			while( j + 1 < x.length && x[ order[ j + 1 ] ] == x[ order[ i ] ] )
+				j++;
+			final double rank = ( i + j ) / 2.0 + 1;
+			for( int r = i; r <= j; r++ )
+				ranks[ order[ r ] ] = rank;
+			i = j + 1;
+		}
+		return ranks;
+	}
+
+	/**
+	 * Welch two sample t-test, as t.test( x, y ).
+	 *
+	 * @param x Values in group 1
+	 * @param y Values in group 2
+	 * @return Two-sided p-value
+	 */
+	public static double tTest( final double[] x, final double[] y ) {
+		final double[] sx = getMeanVar( x );
+		final double[] sy = getMeanVar( y );
+		if( sx[ 2 ] < 2 || sy[ 2 ] < 2 ) return Double.NaN;
+		final double vx = sx[ 1 ] / sx[ 2 ];
+		final double vy = sy[ 1 ] / sy[ 2 ];
+		final double se2 = vx + vy;
+		if( se2 == 0 ) return Double.NaN;
+		final double df = se2 * se2 / ( vx * vx / ( sx[ 2 ] - 1 ) + vy * vy / ( sy[ 2 ] - 1 ) );
+		return tTestTwoTail( ( sx[ 0 ] - sy[ 0 ] ) / Math.sqrt( se2 ), df );
+	}
+
+	/**
+	 * Wilcoxon rank sum test, as wilcox_test( x, y ) from the coin package with its default asymptotic distribution:
+	 * the standardized rank sum of x (using the permutation variance, which accounts for ties) is compared to the
+	 * standard normal distribution without a continuity correction.
+	 *
+	 * @param x Values in group 1
+	 * @param y Values in group 2
+	 * @return Two-sided p-value
+	 */
+	public static double wilcoxon( final double[] x, final double[] y ) {
+		final double[] vals = new double[ x.length + y.length ];
+		int n1 = 0;
+		for( final double v: x )
+			if( !Double.isNaN( v ) ) vals[ n1++ ] = v;
+		int n = n1;
+		for( final double v: y )
+			if( !Double.isNaN( v ) ) vals[ n++ ] = v;
+		if( n1 == 0 || n1 == n ) return Double.NaN;
+
+		final double[] ranks = rank( Arrays.copyOf( vals, n ) );
+		final double meanRank = ( n + 1 ) / 2.0;
+		double rankSum = 0;
+		double ss = 0;
+		for( int i = 0; i < n; i++ ) {
+			if( i < n1 ) rankSum += ranks[ i ];
+			ss += ( ranks[ i ] - meanRank ) * ( ranks[ i ] - meanRank );
+		}
+
+		final int n2 = n - n1;
+		final double var = (double) n1 * n2 / ( (double) n * ( n - 1 ) ) * ss;
+		if( var <= 0 ) return Double.NaN;
+		final double z = ( rankSum - n1 * meanRank ) / Math.sqrt( var );
+		return Math.min( 1, 2 * normalUpperTail( Math.abs( z ) ) );
+	}
+
+	/**
+	 * Upper tail probability of the chi-squared distribution, as pchisq( x, df, lower.tail=FALSE ).
+	 *
+	 * @param x Statistic
+	 * @param df Degrees of freedom
+	 * @return P-value
+	 */
+	protected static double chiSquareUpperTail( final double x, final double df ) {
+		if( x <= 0 ) return 1;
+		return regularizedGammaQ( df / 2, x / 2 );
+	}
+
+	/**
+	 * Upper tail probability of the F distribution, as pf( f, df1, df2, lower.tail=FALSE ).
+	 *
+	 * @param f Statistic
+	 * @param df1 Numerator degrees of freedom
+	 * @param df2 Denominator degrees of freedom
+	 * @return P-value
+	 */
+	protected static double fTestUpperTail( final double f, final double df1, final double df2 ) {
+		if( f <= 0 ) return 1;
+		return regularizedBeta( df2 / ( df2 + df1 * f ), df2 / 2, df1 / 2 );
+	}
+
+	/**
+	 * Upper tail probability of the standard normal distribution, as pnorm( z, lower.tail=FALSE ).
+	 *
+	 * @param z Statistic
+	 * @return P-value
+	 */
+	protected static double normalUpperTail( final double z ) {
+		if( z < 0 ) return 1 - normalUpperTail( -z );
+		return 0.5 * regularizedGammaQ( 0.5, z * z / 2 );
+	}
+
+	/**
+	 * Two-sided p-value of the t distribution, as 2 * pt( -abs( t ), df ).
+	 *
+	 * @param t Statistic
+	 * @param df Degrees of freedom
+	 * @return P-value
+	 */
+	protected static double tTestTwoTail( final double t, final double df ) {
+		if( Double.isNaN( t ) ) return Double.NaN;
+		return regularizedBeta( df / ( df + t * t ), df / 2, 0.5 );
+	}
+
+	private static double betaContinuedFraction( final double x, final double a, final double b ) {
+		final double qab = a + b;
+		final double qap = a + 1;
+		final double qam = a - 1;
+		double c = 1;
+		double d = 1 - qab * x / qap;
+		if( Math.abs( d ) < TINY ) d = TINY;
+		d = 1 / d;
+		double h = d;
+		for( int m = 1; m <= MAX_ITERATIONS; m++ ) {
+			final int m2 = 2 * m;
+			double aa = m * ( b - m ) * x / ( ( qam + m2 ) * ( a + m2 ) );
+			d = 1 + aa * d;
+			if( Math.abs( d ) < TINY ) d = TINY;
+			c = 1 + aa / c;
+			if( Math.abs( c ) < TINY ) c = TINY;
+			d = 1 / d;
+			h *= d * c;
+			aa = -( a + m ) * ( qab + m ) * x / ( ( a + m2 ) * ( qap + m2 ) );
+			d = 1 + aa * d;
+			if( Math.abs( d ) < TINY ) d = TINY;
+			c = 1 + aa / c;
+			if( Math.abs( c ) < TINY ) c = TINY;
+			d = 1 / d;
+			final double del = d * c;
+			h *= del;
+			if( Math.abs( del - 1 ) < EPSILON ) break;
+		}
+		return h;
+	}
+
+	private static int[] getIndexes( final double[] x, final int[] group ) {
+		int n = 0;
+		for( int i = 0; i < x.length; i++ )
+			if( group[ i ] >= 0 && !Double.isNaN( x[ i ] ) ) n++;
+		final int[] keep = new int[ n ];
+		for( int i = 0, j = 0; i < x.length; i++ )
+			if( group[ i ] >= 0 && !Double.isNaN( x[ i ] ) ) keep[ j++ ] = i;
+		return keep;
+	}
+
+	/**
+	 * Return { mean, sample variance, n } of the non-NaN values.
+	 */
+	private static double[] getMeanVar( final double[] x ) {
+		double sum = 0;
+		int n = 0;
+		for( final double v: x )
+			if( !Double.isNaN( v ) ) {
+				sum += v;
+				n++;
+			}
+		final double mean = n == 0 ? 0: sum / n;
+		double ss = 0;
+		for( final double v: x )
+			if( !Double.isNaN( v ) ) ss += ( v - mean ) * ( v - mean );
+		return new double[] { mean, n < 2 ? 0: ss / ( n - 1 ), n };
+	}
+
+	/**
+	 * Return the tie sums used for the Kendall variance and the Kruskal-Wallis correction: { sum t(t-1)(2t+5), sum
+	 * t(t-1), sum t(t-1)(t-2), sum t^3-t } for each group of t tied values.
+	 */
+	private static double[] getTieStats( final double[] x ) {
+		final double[] sorted = x.clone();
+		Arrays.sort( sorted );
+		final double[] stats = new double[ 4 ];
+		for( int i = 0; i < sorted.length; ) {
+			int j = i;
+			while( j + 1 < sorted.length && sorted[ j + 1 ] == sorted[ i ] )
+				j++;
+			final double t = j - i + 1;
+			if( t > 1 ) {
+				stats[ 0 ] += t * ( t - 1 ) * ( 2 * t + 5 );
+				stats[ 1 ] += t * ( t - 1 );
+				stats[ 2 ] += t * ( t - 1 ) * ( t - 2 );
+				stats[ 3 ] += t * t * t - t;
+			}
+			i = j + 1;
+		}
+		return stats;
+	}
+
+	/**
+	 * Hommel adjustment, ported from R p.adjust.
+	 */
+	private static void hommel( final double[] pvals, final Integer[] order, final int n, final double[] q ) {
+		final int lp = pvals.length;
+		final double[] p = new double[ n ];
+		for( int i = 0; i < n; i++ )
+			p[ i ] = i < lp ? pvals[ order[ i ] ]: 1;
+		Arrays.sort( p, lp, n );
+
+		double min = Double.POSITIVE_INFINITY;
+		for( int i = 0; i < n; i++ )
+			min = Math.min( min, n * p[ i ] / ( i + 1 ) );
+		final double[] pa = new double[ n ];
+		final double[] qa = new double[ n ];
+		Arrays.fill( pa, min );
+		Arrays.fill( qa, min );
+		for( int m = n - 1; m >= 2; m-- ) {
+			double q1 = Double.POSITIVE_INFINITY;
+			for( int i = n - m + 1, j = 2; i < n; i++, j++ )
+				q1 = Math.min( q1, m * p[ i ] / j );
+			for( int i = 0; i <= n - m; i++ )
+				qa[ i ] = Math.min( m * p[ i ], q1 );
+			for( int i = n - m + 1; i < n; i++ )
+				qa[ i ] = qa[ n - m ];
+			for( int i = 0; i < n; i++ )
+				pa[ i ] = Math.max( pa[ i ], qa[ i ] );
+		}
+
+		for( int i = 0; i < lp; i++ )
+			q[ order[ i ] ] = Math.max( pa[ i ], p[ i ] );
+	}
+
+	private static double logGamma( final double x ) {
+		double y = x;
+		double tmp = x + 5.5;
+		tmp -= ( x + 0.5 ) * Math.log( tmp );
+		double ser = 1.000000000190015;
+		for( final double coef: LANCZOS )
+			ser += coef / ++y;
+		return -tmp + Math.log( 2.5066282746310005 * ser / x );
+	}
+
+	private static Integer[] orderAscending( final double[] x ) {
+		final Integer[] order = new Integer[ x.length ];
+		for( int i = 0; i < x.length; i++ )
+			order[ i ] = i;
+		Arrays.sort( order, ( i, j ) -> Double.compare( x[ i ], x[ j ] ) );
+		return order;
+	}
+
+	/**
+	 * Regularized incomplete beta function I_x(a, b).
+	 */
+	private static double regularizedBeta( final double x, final double a, final double b ) {
+		if( x <= 0 ) return 0;
+		if( x >= 1 ) return 1;
+		final double front =
+			Math.exp( logGamma( a + b ) - logGamma( a ) - logGamma( b ) + a * Math.log( x ) + b * Math.log( 1 - x ) );
+		if( x < ( a + 1 ) / ( a + b + 2 ) ) return front * betaContinuedFraction( x, a, b ) / a;
+		return 1 - front * betaContinuedFraction( 1 - x, b, a ) / b;
+	}
+
+	/**
+	 * Regularized upper incomplete gamma function Q(a, x).
+	 */
+	private static double regularizedGammaQ( final double a, final double x ) {
+		if( x <= 0 ) return 1;
+		final double logFront = -x + a * Math.log( x ) - logGamma( a );
+		if( x < a + 1 ) {
+			double ap = a;
+			double del = 1 / a;
+			double sum = del;
+			for( int n = 1; n <= MAX_ITERATIONS; n++ ) {
+				del *= x / ++ap;
+				sum += del;
+				if( Math.abs( del ) < Math.abs( sum ) * EPSILON ) break;
+			}
+			return 1 - sum * Math.exp( logFront );
+		}
+
+		double b = x + 1 - a;
+		double c = 1 / TINY;
+		double d = 1 / b;
+		double h = d;
+		for( int i = 1; i <= MAX_ITERATIONS; i++ ) {
+			final double an = -i * ( i - a );
+			b += 2;
+			d = an * d + b;
+			if( Math.abs( d ) < TINY ) d = TINY;
+			c = b + an / c;
+			if( Math.abs( c ) < TINY ) c = TINY;
+			d = 1 / d;
+			final double del = d * c;
+			h *= del;
+			if( Math.abs( del - 1 ) < EPSILON ) break;
+		}
+		return Math.exp( logFront ) * h;
+	}
+
+	private static final double EPSILON = 1.0e-15;
+	private static final double[] LANCZOS = { 76.18009172947146, -86.50532032941677, 24.01409824083091,
+		-1.231739572450155, 0.1208650973866179e-2, -0.5395239384953e-5 };
+	private static final int MAX_ITERATIONS = 10000;
+	private static final double TINY = 1.0e-300;
+}
@@ -569,6 +569,7 @@ public class SummaryUtil {
 			final String runtime = getLabel( RUN_TIME ) + gap + getModuleRunTime( module );
 			sb.append( modLabel + RETURN );
 			sb.append( runtime + RETURN );
+			if( MetricsUtil.getSummary( module ) != null ) sb.append( MetricsUtil.getSummary( module ) + RETURN );
 
 			final String summary = module.getSummary();
 			if( summary != null && !summary.isEmpty() )
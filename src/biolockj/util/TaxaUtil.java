@@ -70,10 +70,11 @@ public class TaxaUtil {
 	 * @return Leaf taxonomy level
 	 */
 	public static String getLeafLevel( final String otu ) {
-		String lastLevel = null;
-		for( final String level: getTaxaLevelSpan() )
-			if( otu.contains( level ) ) lastLevel = level;
-		return lastLevel;
+		final OtuUtil.ParsedOtu parsedOtu = OtuUtil.parseOtu( otu );
+		final List<String> span = getTaxaLevelSpan();
+		for( int i = span.size() - 1; i >= 0; i-- )
+			if( parsedOtu.hasLevel( span.get( i ) ) ) return span.get( i );
+		return null;
 	}
 
 	/**
@@ -93,7 +94,8 @@ public class TaxaUtil {
 	 * @return Integer level number
 	 */
 	public static Integer getLevelNum( final String level ) {
-		return allTaxonomyLevels().indexOf( level );
+		final Integer levelNum = LEVEL_NUMS.get( level );
+		return levelNum == null ? -1: levelNum;
 	}
 
 	/**
@@ -122,14 +124,16 @@ public class TaxaUtil {
 		final TreeMap<String, TreeMap<String, Long>> taxaCounts = new TreeMap<>();
 
 		for( final String sampleId: sampleOtuCounts.keySet() ) {
-			final TreeMap<String, Long> otuCounts = sampleOtuCounts.get( sampleId );
-			for( final String otu: otuCounts.keySet() ) {
-				final String taxa = getTaxaName( otu, level );
+			TreeMap<String, Long> sampleTaxaCounts = null;
+			for( final Map.Entry<String, Long> entry: sampleOtuCounts.get( sampleId ).entrySet() ) {
+				final String taxa = getTaxaName( entry.getKey(), level );
 				if( taxa != null ) {
-					if( taxaCounts.get( sampleId ) == null ) taxaCounts.put( sampleId, new TreeMap<>() );
-					if( taxaCounts.get( sampleId ).get( taxa ) == null ) taxaCounts.get( sampleId ).put( taxa, 0L );
-					taxaCounts.get( sampleId ).put( taxa,
-						taxaCounts.get( sampleId ).get( taxa ) + otuCounts.get( otu ) );
+					if( sampleTaxaCounts == null ) {
+						sampleTaxaCounts = new TreeMap<>();
+						taxaCounts.put( sampleId, sampleTaxaCounts );
+					}
+					final Long count = sampleTaxaCounts.get( taxa );
+					sampleTaxaCounts.put( taxa, count == null ? entry.getValue(): count + entry.getValue() );
 				}
 			}
 		}
@@ -145,9 +149,10 @@ public class TaxaUtil {
 	 */
 	public static TreeMap<String, String> getTaxaByLevel( final String otu ) {
 		final TreeMap<String, String> map = new TreeMap<>();
+		final OtuUtil.ParsedOtu parsedOtu = OtuUtil.parseOtu( otu );
 		for( final String level: getTaxaLevels() ) {
-			final String name = getTaxaName( otu, level );
-			if( name != null ) map.put( level, getTaxaName( otu, level ) );
+			final String name = parsedOtu.getTaxa( level );
+			if( name != null ) map.put( level, name );
 		}
 		return map;
 	}
@@ -185,13 +190,7 @@ public class TaxaUtil {
 	 * @return Taxonomy name
 	 */
 	public static String getTaxaName( final String otu, final String level ) {
-		final StringTokenizer st = new StringTokenizer( otu, Constants.OTU_SEPARATOR );
-		while( st.hasMoreTokens() ) {
-			final String levelOtu = st.nextToken();
-			if( levelOtu.startsWith( level + Constants.DELIM_SEP ) )
-				return levelOtu.replaceFirst( level + Constants.DELIM_SEP, "" );
-		}
-		return null;
+		return OtuUtil.parseOtu( otu ).getTaxa( level );
 	}
 
 	/**
@@ -361,5 +360,10 @@ public class TaxaUtil {
 	private static List<String> levelSpan = null;
 	private static final List<String> TAXA_LEVELS = Arrays.asList( Constants.DOMAIN, Constants.PHYLUM, Constants.CLASS,
 		Constants.ORDER, Constants.FAMILY, Constants.GENUS, Constants.SPECIES );
+	private static final Map<String, Integer> LEVEL_NUMS = new HashMap<>();
+	static {
+		for( int i = 0; i < TAXA_LEVELS.size(); i++ )
+			LEVEL_NUMS.put( TAXA_LEVELS.get( i ), i );
+	}
 	private static String topLevel = null;
 }
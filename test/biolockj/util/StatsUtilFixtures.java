@@ -0,0 +1,111 @@
+/**
+ * @UNCC Fodor Lab
+ * @author agent
+ * @email agent@local
+ * @date Oct 19, 2026
+ * @disclaimer This code is free software; you can redistribute it and/or modify it under the terms of the GNU General
+ * Public License as published by the Free Software Foundation; either version 2 of the License, or (at your option) any
+ * later version, provided that any use properly credits the author. This program is distributed in the hope that it
+ * will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU General Public License for more details at http://www.gnu.org *
+ */
+package biolockj.util;
+
+import java.util.Arrays;
+
+/**
+ * This program compares {@link biolockj.util.StatsUtil} with reference values from R for the tests used by
+ * {@link biolockj.module.report.r.CalculateStats}. Run it with the ant target "test-stats". Each fixture lists the R
+ * call that produced it and test/stats_fixtures.R prints them all. Values printed by R with 4 or 5 significant digits
+ * are compared within half of the last printed digit. The program exits with status 1 if any value does not match.
+ */
+public class StatsUtilFixtures {
+
+	// Prevent instantiation
+	private StatsUtilFixtures() {}
+
+	/**
+	 * Run every fixture comparison.
+	 *
+	 * @param args Not used
+	 * @throws Exception if a p-value adjustment method is not supported
+	 */
+	public static void main( final String[] args ) throws Exception {
+		// t.test( extra ~ group, data = sleep ): t = -1.8608, df = 17.776, p-value = 0.07939
+		check( "t.test sleep", StatsUtil.tTest( SLEEP_1, SLEEP_2 ), 0.07939, 5e-6 );
+
+		// coin::wilcox_test( extra ~ group, data = sleep ): Z = -1.8541, p-value = 0.06372
+		check( "wilcox_test sleep", StatsUtil.wilcoxon( SLEEP_1, SLEEP_2 ), 0.06372, 5e-6 );
+
+		// summary( lm( extra ~ group, data = sleep ) ): Multiple R-squared: 0.1613, F: 3.463 on 1 and 18 DF,
+		// p-value: 0.07919
+		final double[] sleep = concat( SLEEP_1, SLEEP_2 );
+		final int[] sleepGroups = groups( SLEEP_1.length, SLEEP_2.length );
+		final double[] sleepLm = StatsUtil.anova( sleep, sleepGroups, 2 );
+		check( "lm sleep p-value", sleepLm[ 0 ], 0.07919, 5e-6 );
+		check( "lm sleep r.squared", sleepLm[ 1 ], 0.1613, 5e-5 );
+
+		// kruskal.test( list( x, y, z ) ) from the kruskal.test help page: Kruskal-Wallis chi-squared = 0.77143, df =
+		// 2, p-value = 0.68
+		final double[] airway = concat( concat( KW_X, KW_Y ), KW_Z );
+		final int[] airwayGroups = groups( KW_X.length, KW_Y.length, KW_Z.length );
+		check( "kruskal.test airway", StatsUtil.kruskalWallis( airway, airwayGroups, 3 ), 0.68, 5e-3 );
+
+		// p.adjust( P_VALS, method ) and p.adjust( P_VALS, method, n = 8 )
+		for( int i = 0; i < P_ADJUST_METHODS.length; i++ ) {
+			check( "p.adjust " + P_ADJUST_METHODS[ i ],
+				StatsUtil.adjustPvals( P_VALS, P_ADJUST_METHODS[ i ], P_VALS.length ), P_ADJUST[ i ], 5e-8 );
+			check( "p.adjust " + P_ADJUST_METHODS[ i ] + " n=8",
+				StatsUtil.adjustPvals( P_VALS, P_ADJUST_METHODS[ i ], 8 ), P_ADJUST_N8[ i ], 5e-8 );
+		}
+
+		System.out.println( numFailed == 0 ? "All " + numChecks + " StatsUtil fixtures match R":
+			numFailed + " of " + numChecks + " StatsUtil fixtures do not match R" );
+		if( numFailed > 0 ) System.exit( 1 );
+	}
+
+	private static void check( final String name, final double actual, final double expected, final double tol ) {
+		numChecks++;
+		final boolean ok = Math.abs( actual - expected ) <= tol;
+		if( !ok ) numFailed++;
+		System.out.println( ( ok ? "PASS ": "FAIL " ) + name + ": " + actual + " (R: " + expected + ")" );
+	}
+
+	private static void check( final String name, final double[] actual, final double[] expected, final double tol ) {
+		for( int i = 0; i < expected.length; i++ )
+			check( name + " [" + ( i + 1 ) + "]", actual[ i ], expected[ i ], tol );
+	}
+
+	private static double[] concat( final double[] x, final double[] y ) {
+		final double[] vals = Arrays.copyOf( x, x.length + y.length );
+		System.arraycopy( y, 0, vals, x.length, y.length );
+		return vals;
+	}
+
+	private static int[] groups( final int... sizes ) {
+		int n = 0;
+		for( final int size: sizes )
+			n += size;
+		final int[] groups = new int[ n ];
+		for( int g = 0, i = 0; g < sizes.length; g++ )
+			for( int j = 0; j < sizes[ g ]; j++ )
+				groups[ i++ ] = g;
+		return groups;
+	}
+
+	private static final double[] KW_X = { 2.9, 3.0, 2.5, 2.6, 3.2 };
+	private static final double[] KW_Y = { 3.8, 2.7, 4.0, 2.4 };
+	private static final double[] KW_Z = { 2.8, 3.4, 3.7, 2.2, 2.0 };
+	private static int numChecks = 0;
+	private static int numFailed = 0;
+	private static final double[][] P_ADJUST = { { 0.04, 0.09, 0.09, 0.025, 0.2 }, { 0.04, 0.08, 0.08, 0.025, 0.2 },
+		{ 0.04, 0.08, 0.06, 0.025, 0.2 }, { 0.05, 0.2, 0.15, 0.025, 1 }, { 0.025, 0.05, 0.05, 0.025, 0.2 },
+		{ 0.05708333, 0.11416667, 0.11416667, 0.05708333, 0.45666667 } };
+	private static final String[] P_ADJUST_METHODS = { "holm", "hochberg", "hommel", "bonferroni", "BH", "BY" };
+	private static final double[][] P_ADJUST_N8 = { { 0.07, 0.2, 0.18, 0.04, 0.8 }, { 0.07, 0.2, 0.18, 0.04, 0.8 },
+		{ 0.07, 0.2, 0.15, 0.04, 0.8 }, { 0.08, 0.32, 0.24, 0.04, 1 }, { 0.04, 0.08, 0.08, 0.04, 0.32 },
+		{ 0.10871429, 0.21742857, 0.21742857, 0.10871429, 0.86971429 } };
+	private static final double[] P_VALS = { 0.01, 0.04, 0.03, 0.005, 0.2 };
+	private static final double[] SLEEP_1 = { 0.7, -1.6, -0.2, -1.2, -0.1, 3.4, 3.7, 0.8, 0.0, 2.0 };
+	private static final double[] SLEEP_2 = { 1.9, 0.8, 1.1, 0.1, -0.1, 4.4, 5.5, 1.6, 4.6, 3.4 };
+}